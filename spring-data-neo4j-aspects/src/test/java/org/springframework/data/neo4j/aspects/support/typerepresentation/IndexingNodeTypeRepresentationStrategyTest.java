@@ -138,6 +138,35 @@ public class IndexingNodeTypeRepresentationStrategyTest extends EntityTestBase {
 		assertEquals(2, nodeTypeRepresentationStrategy.count(Thing.class));
 	}
 
+	@Test
+	public void testCountWithCounterNodes() throws Exception {
+        manualCleanDb();
+        createThingsAndLinks();
+        final IndexingNodeTypeRepresentationStrategy countingStrategy = new IndexingNodeTypeRepresentationStrategy(neo4jTemplate.getGraphDatabase(), 4);
+        assertEquals(2, countingStrategy.count(Thing.class));
+        Node node;
+        Transaction tx = graphDatabaseService.beginTx();
+        try {
+            node = graphDatabaseService.createNode();
+            countingStrategy.postEntityCreation(node, SubThing.class);
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        assertEquals(3, countingStrategy.count(Thing.class));
+        assertEquals(2, countingStrategy.count(SubThing.class));
+
+        tx = graphDatabaseService.beginTx();
+        try {
+            countingStrategy.preEntityRemoval(node);
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        assertEquals(2, countingStrategy.count(Thing.class));
+        assertEquals(1, countingStrategy.count(SubThing.class));
+	}
+
 	@Test
 	@Transactional
 	public void testGetJavaType() throws Exception {
@@ -137,6 +137,19 @@ public class SubReferenceNodeTypeRepresentationStrategyTest extends EntityTestBa
         assertEquals("one thing created", 1, nodeTypeRepresentationStrategy.count(SubThing.class));
     }
 
+    @Test
+    @Transactional
+    public void testCountWithShardedCounters() throws Exception {
+        final SubReferenceNodeTypeRepresentationStrategy shardedStrategy = new SubReferenceNodeTypeRepresentationStrategy(neo4jTemplate.getGraphDatabase(), 4);
+        final Node node = graphDatabaseService.createNode();
+        shardedStrategy.postEntityCreation(node, SubThing.class);
+        assertEquals("existing and new things counted", 3, shardedStrategy.count(Thing.class));
+        assertEquals("existing and new subthings counted", 2, shardedStrategy.count(SubThing.class));
+        shardedStrategy.preEntityRemoval(node);
+        assertEquals(2, shardedStrategy.count(Thing.class));
+        assertEquals(1, shardedStrategy.count(SubThing.class));
+    }
+
     @Test
     @Transactional
     public void testGetJavaType() throws Exception {
@@ -0,0 +1,31 @@
+package org.neo4j.examples.imdb.parser;
+
+import org.neo4j.examples.imdb.domain.ImdbService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.io.IOException;
+
+/**
+ * Initial load of the imdb data, writes the mapped entities with a batch inserter instead of transactions.
+ * Must run before the web application is started on the same store directory.
+ */
+public class ImdbBatchImport {
+    private static final Logger log = LoggerFactory.getLogger(ImdbBatchImport.class);
+    private static final String IMDB_DATADIR = "data/";
+
+    public static void main(String[] args) throws IOException {
+        final ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext("imdb-batch-import-context.xml");
+        try {
+            final ImdbParser parser = new ImdbParser(ctx.getBean(ImdbReader.class));
+            long start = System.currentTimeMillis();
+            log.info(parser.parseMovies(IMDB_DATADIR + "movies.list.gz"));
+            log.info(parser.parseActors(IMDB_DATADIR + "actors.list.gz", IMDB_DATADIR + "actresses.list.gz"));
+            ctx.getBean(ImdbService.class).setupReferenceRelationship();
+            log.info("Batch import took {} ms", System.currentTimeMillis() - start);
+        } finally {
+            ctx.close();
+        }
+    }
+}
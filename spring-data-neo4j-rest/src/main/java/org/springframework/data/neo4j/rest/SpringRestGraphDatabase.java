@@ -38,10 +38,12 @@ import org.springframework.data.neo4j.support.index.IndexType;
 import org.springframework.data.neo4j.support.index.NoSuchIndexException;
 import org.springframework.data.neo4j.support.query.ConversionServiceQueryResultConverter;
 import org.springframework.data.neo4j.support.query.QueryEngine;
+import org.springframework.data.neo4j.support.query.QueryEngineCache;
 
 public class SpringRestGraphDatabase extends org.neo4j.rest.graphdb.RestGraphDatabase implements GraphDatabase{
     private ConversionService conversionService;
     private ResultConverter resultConverter;
+    private final QueryEngineCache queryEngines = new QueryEngineCache();
 
     public SpringRestGraphDatabase( RestAPI api){
     	super(api);
@@ -88,9 +90,15 @@ public class SpringRestGraphDatabase extends org.neo4j.rest.graphdb.RestGraphDat
         return super.getRestAPI().createTraversalDescription();
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> QueryEngine<T> queryEngineFor(QueryType type, final ResultConverter resultConverter) {
+        final QueryEngine<T> engine = queryEngines.get(type, resultConverter);
+        if (engine != null) return engine;
+        return queryEngines.add(type, resultConverter, this.<T>createQueryEngine(type, resultConverter));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> QueryEngine<T> createQueryEngine(QueryType type, final ResultConverter resultConverter) {
         switch (type) {
              case Cypher: return (QueryEngine<T>)new SpringRestCypherQueryEngine(new RestCypherQueryEngine(getRestAPI(), new SpringResultConverter(resultConverter)));
              case Gremlin: return (QueryEngine<T>)new SpringRestGremlinQueryEngine(new RestGremlinQueryEngine(getRestAPI(),new SpringResultConverter(resultConverter)));
@@ -132,6 +140,12 @@ public class SpringRestGraphDatabase extends org.neo4j.rest.graphdb.RestGraphDat
         }
     }
 
+    @Override
+    public void shutdown() {
+        queryEngines.dispose();
+        super.shutdown();
+    }
+
     @Override
     public boolean transactionIsRunning() {
         return true;
@@ -18,6 +18,7 @@ package org.springframework.data.neo4j.rest;
 import org.neo4j.rest.graphdb.util.ConvertedResult;
 import org.neo4j.rest.graphdb.util.ResultConverter;
 import org.springframework.data.neo4j.conversion.EndResult;
+import org.springframework.data.neo4j.conversion.QueryResultBuilder;
 import org.springframework.data.neo4j.conversion.Result;
 import org.springframework.data.neo4j.mapping.MappingPolicy;
 
@@ -77,6 +78,85 @@ class SpringRestResult<T> implements Result<T> {
         return this;
     }
 
+    /**
+     * The rest result is already transferred, the slice steps over the skipped rows and converts the remaining ones
+     * with the rest result converter.
+     */
+    @Override
+    public Result<T> slice(int skip, int limit) {
+        if (skip < 0 || limit < 0) throw new IllegalArgumentException("Skip and limit must not be negative but were " + skip + ", " + limit);
+        return new SlicedResult(skip, limit);
+    }
+
+    private class SlicedResult implements Result<T> {
+        private final int skip;
+        private final int limit;
+
+        private SlicedResult(int skip, int limit) {
+            this.skip = skip;
+            this.limit = limit;
+        }
+
+        private Result<T> rows() {
+            return new QueryResultBuilder<T>(queryResult).slice(skip, limit);
+        }
+
+        /**
+         * The rest converter converts the result as a whole, the converted skipped rows are dropped.
+         */
+        @Override
+        public <R> EndResult<R> to(Class<R> type) {
+            return new QueryResultBuilder<R>(queryResult.to(type)).slice(skip, limit).to(type);
+        }
+
+        /**
+         * Only the rows of the slice are passed to the converter.
+         */
+        @Override
+        public <R> EndResult<R> to(Class<R> type, org.springframework.data.neo4j.conversion.ResultConverter<T, R> converter) {
+            return rows().with(mappingPolicy).to(type, converter);
+        }
+
+        @Override
+        public void handle(org.springframework.data.neo4j.conversion.Handler<T> handler) {
+            rows().handle(handler);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return rows().iterator();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T singleOrNull() {
+            return (T) to(Object.class).singleOrNull();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T single() {
+            return (T) to(Object.class).single();
+        }
+
+        @Override
+        public Result<T> with(MappingPolicy mappingPolicy) {
+            SpringRestResult.this.with(mappingPolicy);
+            return this;
+        }
+
+        @Override
+        public Result<T> slice(int skip, int limit) {
+            if (skip < 0 || limit < 0) throw new IllegalArgumentException("Skip and limit must not be negative but were " + skip + ", " + limit);
+            return new SlicedResult(this.skip + skip, Math.min(limit, Math.max(0, this.limit - skip)));
+        }
+
+        @Override
+        public <C extends Iterable<T>> C as(Class<C> container) {
+            return toContainer(container, this);
+        }
+    }
+
     @Override
     public <C extends Iterable<T>> C as(Class<C> container) {
         return toContainer(container, this);
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Entities of a type with this annotation are kept in the second level entity cache (if one is configured) after they
+ * have been loaded, so that repeated reads of the same node or relationship don't hydrate it again. Every read returns
+ * its own copy of the cached entity. Cached entries are invalidated when the underlying node or relationship (or one of
+ * its relationships or eagerly fetched related entities) changes.
+ * <pre>
+ * &#64;NodeEntity &#64;Cached(timeToLive = 300)
+ * class Catalog { ... }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cached {
+    /**
+     * @return seconds after which a cached entity is reloaded, 0 uses the default of the entity cache
+     */
+    long timeToLive() default 0;
+}
@@ -50,6 +50,11 @@ public @interface Query {
      */
     String[] params() default {};
 
+    /**
+     * @return query that counts the results of the query for the total of a page, with the same parameters
+     */
+    String countQuery() default "";
+
     // FQN is a fix for javac compiler bug
     org.springframework.data.neo4j.annotation.QueryType type() default org.springframework.data.neo4j.annotation.QueryType.Cypher;
 }
@@ -41,9 +41,11 @@ import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
 import org.springframework.data.neo4j.support.MappingInfrastructure;
 import org.springframework.data.neo4j.support.Neo4jExceptionTranslator;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
+import org.springframework.data.neo4j.support.batch.BatchGraphDatabase;
 import org.springframework.data.neo4j.support.mapping.*;
 import org.springframework.data.neo4j.support.node.NodeEntityInstantiator;
 import org.springframework.data.neo4j.support.node.NodeEntityStateFactory;
+import org.springframework.data.neo4j.support.query.QueryTotalsCache;
 import org.springframework.data.neo4j.support.relationship.RelationshipEntityInstantiator;
 import org.springframework.data.neo4j.support.relationship.RelationshipEntityStateFactory;
 import org.springframework.data.neo4j.support.typerepresentation.ClassValueTypeInformationMapper;
@@ -53,6 +55,7 @@ import org.springframework.transaction.jta.JtaTransactionManager;
 import org.springframework.transaction.jta.UserTransactionAdapter;
 
 import javax.validation.Validator;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
 
@@ -65,6 +68,13 @@ import static java.util.Arrays.asList;
 @Configuration
 public abstract class Neo4jConfiguration {
     private GraphDatabaseService graphDatabaseService;
+    private BatchGraphDatabase batchGraphDatabase;
+    private Set<String> highFanOutRelationshipTypes;
+    private boolean concreteTypeIndex;
+    private int counterShards;
+    private int typeIdCacheSize;
+    private QueryTotalsCache queryTotalsCache;
+    private EntityCache entityCache;
 
     private ConversionService conversionService;
 
@@ -86,6 +96,65 @@ public abstract class Neo4jConfiguration {
         this.graphDatabaseService = graphDatabaseService;
     }
 
+    /**
+     * if a batch graph database is available it replaces the graph database service for all mapping operations,
+     * the graph database service has to be the one of the batch graph database
+     */
+    @Autowired(required = false)
+    public void setBatchGraphDatabase(BatchGraphDatabase batchGraphDatabase) {
+        this.batchGraphDatabase = batchGraphDatabase;
+    }
+
+    /**
+     * @param highFanOutRelationshipTypes relationship types whose relationships are indexed by start and end node
+     * to look them up without iterating the relationships of (super) nodes. Existing relationships of a type added here
+     * have to be indexed once with {@link org.springframework.data.neo4j.support.relationship.RelationshipLookup#reindex}
+     */
+    public void setHighFanOutRelationshipTypes(Set<String> highFanOutRelationshipTypes) {
+        this.highFanOutRelationshipTypes = highFanOutRelationshipTypes;
+    }
+
+    /**
+     * @param concreteTypeIndex if true the type index holds only the concrete type of each entity instead of all its
+     * entity superclasses, the subtypes of a type have to be known to the mapping context to be found
+     */
+    public void setConcreteTypeIndex(boolean concreteTypeIndex) {
+        this.concreteTypeIndex = concreteTypeIndex;
+    }
+
+    /**
+     * @param counterShards if positive, the indexing type strategies keep the instance counts per type in counter nodes
+     * split into that many shards, the subreference strategy splits its counters into that many shard nodes. The
+     * counters of the indexing strategies are created with their initializeCounter method
+     * @see TypeRepresentationStrategyFactory#setCounterShards(int)
+     */
+    public void setCounterShards(int counterShards) {
+        this.counterShards = counterShards;
+    }
+
+    /**
+     * @param typeIdCacheSize if positive, the type strategies remember the types of up to that many node and
+     * relationship ids each
+     * @see TypeRepresentationStrategyFactory#setTypeIdCacheSize(int)
+     */
+    public void setTypeIdCacheSize(int typeIdCacheSize) {
+        this.typeIdCacheSize = typeIdCacheSize;
+    }
+
+    /**
+     * @param queryTotalsCache caches the totals of paged repository queries until a commit changes their types
+     */
+    public void setQueryTotalsCache(QueryTotalsCache queryTotalsCache) {
+        this.queryTotalsCache = queryTotalsCache;
+    }
+
+    /**
+     * @param entityCache second level cache for entities of {@link org.springframework.data.neo4j.annotation.Cached} types
+     */
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
     @Bean
     public MappingInfrastructure mappingInfrastructure() throws Exception {
         MappingInfrastructure infrastructure = new MappingInfrastructure();
@@ -94,6 +163,9 @@ public abstract class Neo4jConfiguration {
         infrastructure.setConversionService(neo4jConversionService());
         infrastructure.setMappingContext(mappingContext());
         infrastructure.setEntityStateHandler(entityStateHandler());
+        infrastructure.setHighFanOutRelationshipTypes(highFanOutRelationshipTypes);
+        infrastructure.setQueryTotalsCache(queryTotalsCache);
+        infrastructure.setEntityCache(entityCache);
 
         infrastructure.setNodeEntityStateFactory(nodeEntityStateFactory());
         infrastructure.setNodeTypeRepresentationStrategy(nodeTypeRepresentationStrategy());
@@ -132,7 +204,13 @@ public abstract class Neo4jConfiguration {
 
     @Bean
     public TypeRepresentationStrategyFactory typeRepresentationStrategyFactory() throws Exception {
-        return new TypeRepresentationStrategyFactory(graphDatabase());
+        final TypeRepresentationStrategyFactory factory = new TypeRepresentationStrategyFactory(graphDatabase());
+        factory.setCounterShards(counterShards);
+        factory.setTypeIdCacheSize(typeIdCacheSize);
+        if (concreteTypeIndex) {
+            factory.setConcreteTypeIndex(mappingContext());
+        }
+        return factory;
     }
 
     @Bean
@@ -239,6 +317,7 @@ public abstract class Neo4jConfiguration {
 
     @Bean
     public GraphDatabase graphDatabase() {
+        if (batchGraphDatabase != null) return batchGraphDatabase;
         return new DelegatingGraphDatabase(graphDatabaseService);
     }
 
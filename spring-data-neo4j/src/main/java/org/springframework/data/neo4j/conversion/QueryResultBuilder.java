@@ -24,6 +24,7 @@ import org.springframework.data.neo4j.mapping.MappingPolicy;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * @author mh
@@ -162,6 +163,61 @@ public class QueryResultBuilder<T> implements Result<T> {
         return this;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Result<T> slice(int skip, int limit) {
+        if (skip < 0 || limit < 0) throw new IllegalArgumentException("Skip and limit must not be negative but were " + skip + ", " + limit);
+        final QueryResultBuilder<T> slice = new QueryResultBuilder<T>(new SliceIterable(skip, limit), defaultConverter);
+        slice.mappingPolicy = mappingPolicy;
+        return slice;
+    }
+
+    /**
+     * Steps over the skipped elements of the underlying result, closing it closes the underlying result.
+     */
+    private class SliceIterable implements ClosableIterable<T> {
+        private final int skip;
+        private final int limit;
+
+        private SliceIterable(int skip, int limit) {
+            this.skip = skip;
+            this.limit = limit;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final Iterator<T> source = result.iterator();
+            for (int i = 0; i < skip && source.hasNext(); i++) {
+                source.next();
+            }
+            return new Iterator<T>() {
+                private int remaining = limit;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0 && source.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    remaining--;
+                    return source.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            closeIfNeeded();
+        }
+    }
+
     public static <T> QueryResultBuilder<T> from(Iterable<T> values) {
         return new QueryResultBuilder<T>(values);
     }
@@ -27,4 +27,9 @@ public interface Result<T> extends EndResult<T> {
     <R> EndResult<R> to(Class<R> type, ResultConverter<T, R> resultConverter);
     Result<T> with(MappingPolicy mappingPolicy);
 
+    /**
+     * Restricts the result to at most limit elements after the first skip elements, the skipped elements are not converted.
+     */
+    Result<T> slice(int skip, int limit);
+
 }
@@ -21,10 +21,14 @@ import org.springframework.dao.InvalidDataAccessApiUsageException;
 
 import org.springframework.data.neo4j.mapping.MappingPolicy;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
+import org.springframework.data.neo4j.support.LongHashSet;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
+import org.springframework.data.neo4j.support.relationship.RelationshipLookup;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -46,6 +50,17 @@ public abstract class AbstractNodeRelationshipFieldAccessor<STATE extends Proper
         this.property = property;
     }
 
+    /**
+     * @return true if the field is declared as {@link LazyRelatedSet} which reads the relationships on demand
+     */
+    protected boolean isLazy() {
+        return LazyRelatedSet.class.isAssignableFrom(property.getType());
+    }
+
+    protected RelationshipLookup relationshipLookup() {
+        return template.getEntityStateHandler().getRelationshipLookup();
+    }
+
     protected MappingPolicy updateMappingPolicy(MappingPolicy mappingPolicy) {
         if (mappingPolicy !=null) return mappingPolicy;
         return property.getMappingPolicy();
@@ -63,30 +78,65 @@ public abstract class AbstractNodeRelationshipFieldAccessor<STATE extends Proper
         throw new IllegalStateException("Entity must have a backing Node");
     }
 
-    protected void removeMissingRelationships(Node node, Set<Node> targetNodes) {
+    /**
+     * Deletes the relationships to nodes that are not among the target nodes and duplicate relationships.
+     * @return the ids of the target nodes that the node is still related with
+     */
+    protected LongHashSet removeMissingRelationships(Node node, LongHashSet targetNodeIds) {
+        final LongHashSet relatedNodeIds = new LongHashSet();
         for ( Relationship relationship : node.getRelationships(type, direction) ) {
-            if (!targetNodes.remove(relationship.getOtherNode(node)))
-                relationship.delete();
+            final long otherNodeId = relationship.getOtherNode(node).getId();
+            if (!targetNodeIds.contains(otherNodeId) || !relatedNodeIds.add(otherNodeId))
+                relationshipLookup().delete(relationship);
         }
+        return relatedNodeIds;
     }
 
-    protected void createAddedRelationships(Node node, Set<Node> targetNodes) {
+    /**
+     * Deletes the relationships between the node and the target node, each is found by the {@link RelationshipLookup}
+     * without iterating all relationships of the node holding the collection.
+     */
+    protected void removeRelationshipsTo(Node node, long targetNodeId) {
+        final Node targetNode = template.getNode(targetNodeId);
+        Relationship relationship;
+        while ((relationship = relationshipLookup().find(node, targetNode, type, direction)) != null) {
+            relationshipLookup().delete(relationship);
+        }
+    }
+
+    protected static LongHashSet nodeIds(Iterable<Node> nodes) {
+        final LongHashSet ids = new LongHashSet();
+        for (Node node : nodes) {
+            ids.add(node.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * @param relatedNodeIds ids of the nodes the node is already related with, see {@link #removeMissingRelationships}
+     */
+    protected void createAddedRelationships(Node node, List<Node> targetNodes, LongHashSet relatedNodeIds) {
         for (Node targetNode : targetNodes) {
-            createSingleRelationship(node,targetNode);
+            if (relatedNodeIds.add(targetNode.getId())) createSingleRelationship(node,targetNode);
         }
     }
     // adding cascade
+    /**
+     * @param targetNodeIds collects the ids of the target nodes
+     * @return the target nodes in the order of the set
+     */
     @SuppressWarnings("unchecked")
-    protected Set<Node> createSetOfTargetNodes(Object newVal) {
+    protected List<Node> createTargetNodes(Object newVal, LongHashSet targetNodeIds) {
         if (!(newVal instanceof Set)) {
             throw new IllegalArgumentException("New value must be a Set, was: " + newVal.getClass());
         }
-        Set<Node> nodes=new HashSet<Node>();
+        final List<Node> nodes = new ArrayList<Node>(((Set<Object>) newVal).size());
         for (Object value : (Set<Object>) newVal) {
             if (!relatedType.isInstance(value)) {
                 throw new IllegalArgumentException("New value elements must be "+relatedType);
             }
-            nodes.add((Node)getOrCreateState(value));
+            final Node node = (Node) getOrCreateState(value);
+            if (targetNodeIds.add(node.getId())) nodes.add(node);
         }
         return nodes;
     }
@@ -104,12 +154,27 @@ public abstract class AbstractNodeRelationshipFieldAccessor<STATE extends Proper
         return new ManagedFieldAccessorSet<T>(entity, result, property, template,this, mappingPolicy);
     }
 
+    /**
+     * @param targetNodeIds ids of the nodes the entity is related with by the elements of the set, null if unknown
+     */
+    protected <T> ManagedFieldAccessorSet<T> createManagedSet(Object entity, Set<T> result, MappingPolicy mappingPolicy, LongHashSet targetNodeIds) {
+        return new ManagedFieldAccessorSet<T>(entity, result, property, template,this, mappingPolicy, targetNodeIds);
+    }
+
     protected Set<Object> createEntitySetFromRelationshipEndNodes(Object entity, final MappingPolicy mappingPolicy) {
+        return createEntitySetFromRelationshipEndNodes(entity, mappingPolicy, null);
+    }
+
+    /**
+     * @param targetNodeIds collects the ids of the end nodes, may be null
+     */
+    protected Set<Object> createEntitySetFromRelationshipEndNodes(Object entity, final MappingPolicy mappingPolicy, LongHashSet targetNodeIds) {
         final Iterable<TSTATE> nodes = getStatesFromEntity(entity);
         final Set<Object> result = new HashSet<Object>();
         for (final TSTATE otherNode : nodes) {
             Object target= template.createEntityFromState(otherNode, relatedType, mappingPolicy);
             result.add(target);
+            if (targetNodeIds != null && otherNode instanceof Node) targetNodeIds.add(((Node) otherNode).getId());
 		}
         return result;
     }
@@ -131,6 +196,20 @@ public abstract class AbstractNodeRelationshipFieldAccessor<STATE extends Proper
         }
     }
 
+    /**
+     * Creates a new relationship without checking for an existing one.
+     */
+    protected Relationship createRelationship(Node node, Node targetNode) {
+        switch(direction) {
+            case OUTGOING :
+            case BOTH :
+                return relationshipLookup().create(node, targetNode, type);
+            case INCOMING :
+                return relationshipLookup().create(targetNode, node, type);
+            default : throw new InvalidDataAccessApiUsageException("invalid direction " + direction);
+        }
+    }
+
 	public Object getDefaultValue() {
         return null;
 	}
@@ -24,7 +24,7 @@ import org.springframework.data.neo4j.mapping.Neo4jPersistentEntity;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -35,8 +35,8 @@ import java.util.Map;
 public abstract class DefaultEntityState<STATE> implements EntityState<STATE> {
     protected final Object entity;
     protected final Class<?> type;
-    private final Map<Neo4jPersistentProperty, FieldAccessor> fieldAccessors = new HashMap<Neo4jPersistentProperty, FieldAccessor>();
-    private final Map<Neo4jPersistentProperty,List<FieldAccessListener>> fieldAccessorListeners = new HashMap<Neo4jPersistentProperty, List<FieldAccessListener>>();
+    private final Map<Neo4jPersistentProperty, FieldAccessor> fieldAccessors;
+    private final Map<Neo4jPersistentProperty,List<FieldAccessListener>> fieldAccessorListeners;
     private STATE state;
     protected final static Log log= LogFactory.getLog(DefaultEntityState.class);
     private final FieldAccessorFactoryProviders<Object> fieldAccessorFactoryProviders;
@@ -49,10 +49,12 @@ public abstract class DefaultEntityState<STATE> implements EntityState<STATE> {
         this.persistentEntity = persistentEntity;
         if (delegatingFieldAccessorFactory!=null) {
             fieldAccessorFactoryProviders = delegatingFieldAccessorFactory.accessorFactoriesFor(persistentEntity);
-            this.fieldAccessors.putAll(fieldAccessorFactoryProviders.getFieldAccessors());
-            this.fieldAccessorListeners.putAll(fieldAccessorFactoryProviders.getFieldAccessListeners());
+            this.fieldAccessors = fieldAccessorFactoryProviders.getFieldAccessors();
+            this.fieldAccessorListeners = fieldAccessorFactoryProviders.getFieldAccessListeners();
         } else {
             fieldAccessorFactoryProviders = null; // todo
+            this.fieldAccessors = Collections.emptyMap();
+            this.fieldAccessorListeners = Collections.emptyMap();
         }
     }
 
@@ -132,8 +134,9 @@ public abstract class DefaultEntityState<STATE> implements EntityState<STATE> {
     }
 
     private void notifyListeners(final Neo4jPersistentProperty field, final Object result) {
-        if (!fieldAccessorListeners.containsKey(field) || fieldAccessorListeners.get(field) == null) return;
-        for (final FieldAccessListener listener : fieldAccessorListeners.get(field)) {
+        final List<FieldAccessListener> listeners = fieldAccessorListeners.get(field);
+        if (listeners == null) return;
+        for (final FieldAccessListener listener : listeners) {
             listener.valueChanged(entity, null, result); // todo oldValue
         }
     }
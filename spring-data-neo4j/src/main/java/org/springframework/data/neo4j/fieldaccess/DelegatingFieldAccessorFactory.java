@@ -27,6 +27,8 @@ import org.springframework.data.neo4j.support.Neo4jTemplate;
 import org.springframework.data.util.TypeInformation;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 public abstract class DelegatingFieldAccessorFactory implements FieldAccessorFactory {
@@ -98,35 +100,41 @@ public abstract class DelegatingFieldAccessorFactory implements FieldAccessorFac
 
 
 
-    private final Map<TypeInformation<?>, FieldAccessorFactoryProviders> accessorFactoryProviderCache = new HashMap<TypeInformation<?>, FieldAccessorFactoryProviders>();
+    private final ConcurrentMap<TypeInformation<?>, FieldAccessorFactoryProviders> accessorFactoryProviderCache = new ConcurrentHashMap<TypeInformation<?>, FieldAccessorFactoryProviders>();
 
+    /**
+     * Lookups don't lock, concurrent first lookups of a type may both create the providers, only one of them is kept.
+     */
     @SuppressWarnings("unchecked")
     public <T> FieldAccessorFactoryProviders<T> accessorFactoriesFor(final Neo4jPersistentEntity<?> type) {
-        synchronized (this) {
-            final TypeInformation<?> typeInformation = type.getTypeInformation();
-            final FieldAccessorFactoryProviders<T> fieldAccessorFactoryProviders = accessorFactoryProviderCache.get(typeInformation);
-            if (fieldAccessorFactoryProviders != null) return fieldAccessorFactoryProviders;
-            final FieldAccessorFactoryProviders<T> newFieldAccessorFactories = new FieldAccessorFactoryProviders<T>(typeInformation, template);
-            type.doWithProperties(new PropertyHandler<Neo4jPersistentProperty>() {
-                @Override
-                public void doWithPersistentProperty(Neo4jPersistentProperty property) {
-                    final FieldAccessorFactory factory = factoryForField(property);
-                    final List<FieldAccessorListenerFactory> listenerFactories = getFieldAccessListenerFactories(property);
-                    newFieldAccessorFactories.add(property, factory, listenerFactories);
-                }
-            });
-            type.doWithAssociations(new AssociationHandler<Neo4jPersistentProperty>() {
-                @Override
-                public void doWithAssociation(Association<Neo4jPersistentProperty> association) {
-                    final Neo4jPersistentProperty property = association.getInverse();
-                    final FieldAccessorFactory factory = factoryForField(property);
-                    final List<FieldAccessorListenerFactory> listenerFactories = getFieldAccessListenerFactories(property);
-                    newFieldAccessorFactories.add(property, factory, listenerFactories);
-                }
-            });
-            accessorFactoryProviderCache.put(typeInformation, newFieldAccessorFactories);
-            return newFieldAccessorFactories;
-        }
+        final TypeInformation<?> typeInformation = type.getTypeInformation();
+        final FieldAccessorFactoryProviders<T> fieldAccessorFactoryProviders = accessorFactoryProviderCache.get(typeInformation);
+        if (fieldAccessorFactoryProviders != null) return fieldAccessorFactoryProviders;
+        final FieldAccessorFactoryProviders<T> newFieldAccessorFactories = createAccessorFactoryProviders(type);
+        final FieldAccessorFactoryProviders<T> existing = accessorFactoryProviderCache.putIfAbsent(typeInformation, newFieldAccessorFactories);
+        return existing != null ? existing : newFieldAccessorFactories;
+    }
+
+    private <T> FieldAccessorFactoryProviders<T> createAccessorFactoryProviders(Neo4jPersistentEntity<?> type) {
+        final FieldAccessorFactoryProviders<T> newFieldAccessorFactories = new FieldAccessorFactoryProviders<T>(type.getTypeInformation(), template);
+        type.doWithProperties(new PropertyHandler<Neo4jPersistentProperty>() {
+            @Override
+            public void doWithPersistentProperty(Neo4jPersistentProperty property) {
+                final FieldAccessorFactory factory = factoryForField(property);
+                final List<FieldAccessorListenerFactory> listenerFactories = getFieldAccessListenerFactories(property);
+                newFieldAccessorFactories.add(property, factory, listenerFactories);
+            }
+        });
+        type.doWithAssociations(new AssociationHandler<Neo4jPersistentProperty>() {
+            @Override
+            public void doWithAssociation(Association<Neo4jPersistentProperty> association) {
+                final Neo4jPersistentProperty property = association.getInverse();
+                final FieldAccessorFactory factory = factoryForField(property);
+                final List<FieldAccessorListenerFactory> listenerFactories = getFieldAccessListenerFactories(property);
+                newFieldAccessorFactories.add(property, factory, listenerFactories);
+            }
+        });
+        return newFieldAccessorFactories;
     }
 
 }
\ No newline at end of file
@@ -109,6 +109,13 @@ public class DetachedEntityState<STATE> implements EntityState<STATE> {
         return !transactionIsRunning() || !hasPersistentState() || isDirty();
     }
 
+    /**
+     * @return true if values are written through to the persistent state instead of being collected as dirty
+     */
+    public boolean isAttached() {
+        return !isDetached();
+    }
+
     protected boolean transactionIsRunning() {
         return getTemplate().transactionIsRunning();
     }
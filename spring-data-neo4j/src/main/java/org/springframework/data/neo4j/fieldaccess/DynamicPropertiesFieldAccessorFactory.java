@@ -23,6 +23,7 @@ import org.springframework.data.neo4j.support.DoReturn;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -95,12 +96,15 @@ public class DynamicPropertiesFieldAccessorFactory implements FieldAccessorFacto
 			for(String removedKey : nodeProps) {
 				if (dynamicProperties.isPrefixedKey(removedKey)) {
 					propertyContainer.removeProperty(removedKey);
+					PropertySnapshot.update(propertyContainer, removedKey, null);
 				}
 			}
             
 			// Add all properties to the propertyContainer
             for (String key : dynamicProps) {
-                propertyContainer.setProperty(key, dynamicProperties.getPrefixedProperty(key));
+                final Object value = dynamicProperties.getPrefixedProperty(key);
+                propertyContainer.setProperty(key, value);
+                PropertySnapshot.update(propertyContainer, key, value);
             }
             return newVal;
         }
@@ -109,8 +113,15 @@ public class DynamicPropertiesFieldAccessorFactory implements FieldAccessorFacto
         public Object getValue(final Object entity, MappingPolicy mappingPolicy) {
             PropertyContainer element = template.getPersistentState(entity);
             ManagedPrefixedDynamicProperties props = ManagedPrefixedDynamicProperties.create(propertyNamePrefix, field, entity, template,this, field.getMappingPolicy());
-            for (String key : element.getPropertyKeys()) {
-                props.setPropertyIfPrefixed(key, element.getProperty(key));
+            final Map<String, Object> snapshot = PropertySnapshot.get(element);
+            if (snapshot != null) {
+                for (Map.Entry<String, Object> property : snapshot.entrySet()) {
+                    props.setPropertyIfPrefixed(property.getKey(), property.getValue());
+                }
+            } else {
+                for (String key : element.getPropertyKeys()) {
+                    props.setPropertyIfPrefixed(key, element.getProperty(key));
+                }
             }
             return DoReturn.doReturn(props);
         }
@@ -21,6 +21,7 @@ import org.springframework.data.neo4j.support.Neo4jTemplate;
 import org.springframework.data.util.TypeInformation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,28 +67,58 @@ public class FieldAccessorFactoryProviders<T> {
     private final List<FieldAccessorFactoryProvider<T>> fieldAccessorFactoryProviders = new ArrayList<FieldAccessorFactoryProvider<T>>();
     private final IdFieldAccessorFactory idFieldAccessorFactory;
     private Neo4jPersistentProperty idProperty;
+    private volatile Map<Neo4jPersistentProperty, FieldAccessor> fieldAccessors;
+    private volatile Map<Neo4jPersistentProperty, List<FieldAccessListener>> fieldAccessListeners;
 
     FieldAccessorFactoryProviders(TypeInformation<?> type, Neo4jTemplate template) {
         this.type = type;
         idFieldAccessorFactory= new IdFieldAccessorFactory(template);
     }
 
+    /**
+     * The accessors and listeners don't hold any entity state, so they are created once and shared by all entity states
+     * of the type. Concurrent first calls might create them more than once, which is harmless.
+     * @return unmodifiable map of the accessors per property
+     */
     public Map<Neo4jPersistentProperty, FieldAccessor> getFieldAccessors() {
+        Map<Neo4jPersistentProperty, FieldAccessor> result = fieldAccessors;
+        if (result == null) {
+            result = createFieldAccessors();
+            fieldAccessors = result;
+        }
+        return result;
+    }
+
+    private Map<Neo4jPersistentProperty, FieldAccessor> createFieldAccessors() {
         final Map<Neo4jPersistentProperty, FieldAccessor> result = new HashMap<Neo4jPersistentProperty, FieldAccessor>(fieldAccessorFactoryProviders.size(),1);
         for (final FieldAccessorFactoryProvider<T> fieldAccessorFactoryProvider : fieldAccessorFactoryProviders) {
             final FieldAccessor accessor = fieldAccessorFactoryProvider.accessor();
             result.put(fieldAccessorFactoryProvider.getProperty(), accessor);
         }
-        return result;
+        return Collections.unmodifiableMap(result);
     }
 
+    /**
+     * @return unmodifiable map of the listeners per property, shared like the accessors
+     * @see #getFieldAccessors()
+     */
     public Map<Neo4jPersistentProperty, List<FieldAccessListener>> getFieldAccessListeners() {
+        Map<Neo4jPersistentProperty, List<FieldAccessListener>> result = fieldAccessListeners;
+        if (result == null) {
+            result = createFieldAccessListeners();
+            fieldAccessListeners = result;
+        }
+        return result;
+    }
+
+    private Map<Neo4jPersistentProperty, List<FieldAccessListener>> createFieldAccessListeners() {
         final Map<Neo4jPersistentProperty, List<FieldAccessListener>> result = new HashMap<Neo4jPersistentProperty, List<FieldAccessListener>>(fieldAccessorFactoryProviders.size(),1);
         for (final FieldAccessorFactoryProvider<T> fieldAccessorFactoryProvider : fieldAccessorFactoryProviders) {
-            final List<FieldAccessListener> listeners = (List<FieldAccessListener>) fieldAccessorFactoryProvider.listeners();
-            result.put(fieldAccessorFactoryProvider.getProperty(), listeners);
+            final List<FieldAccessListener> listeners = fieldAccessorFactoryProvider.listeners();
+            if (listeners == null || listeners.isEmpty()) continue;
+            result.put(fieldAccessorFactoryProvider.getProperty(), Collections.unmodifiableList(listeners));
         }
-        return result;
+        return Collections.unmodifiableMap(result);
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,43 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.springframework.data.neo4j.mapping.MappingPolicy;
+import org.springframework.data.neo4j.support.LongHashSet;
+
+/**
+ * Field accessor for relationship collections that can apply single additions and removals to the graph, so that a
+ * {@link ManagedFieldAccessorSet} doesn't have to write the whole collection back on every modification.
+ */
+public interface IncrementalRelationshipFieldAccessor extends FieldAccessor {
+
+    /**
+     * @return id of the node the element relates the entity with, -1 if that is not known yet (e.g. unsaved element)
+     */
+    long getTargetNodeId(Object entity, Object element);
+
+    /**
+     * Relates the entity with the element, creating the element's state if necessary.
+     * @param targetNodeIds ids of the nodes the entity is currently related with, updated accordingly
+     */
+    void addRelationship(Object entity, Object element, LongHashSet targetNodeIds, MappingPolicy mappingPolicy);
+
+    /**
+     * Removes the relationship between the entity and the element.
+     * @param targetNodeIds ids of the nodes the entity is currently related with, updated accordingly
+     */
+    void removeRelationship(Object entity, Object element, LongHashSet targetNodeIds);
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.fieldaccess;
+
+import java.util.Set;
+
+/**
+ * Declaring a {@link org.springframework.data.neo4j.annotation.RelatedTo} or
+ * {@link org.springframework.data.neo4j.annotation.RelatedToVia} field with this type makes it a live view of the
+ * relationships of the entity's node. Loading the entity doesn't touch the relationships, they are iterated on demand
+ * and an element is only converted into an entity when the iteration reaches it. Additions and removals are written
+ * directly to the graph.
+ * <pre>
+ * &#064;NodeEntity
+ * class Person {
+ *     &#064;RelatedTo(type = "FOLLOWS", direction = Direction.INCOMING)
+ *     LazyRelatedSet&lt;Person&gt; followers;
+ * }
+ *
+ * person.followers.size();              // counts relationships, no entities are loaded
+ * person.followers.slice(100, 20);      // loads followers 100 to 119
+ * </pre>
+ */
+public interface LazyRelatedSet<T> extends Set<T> {
+
+    /**
+     * @return view of the elements after the first count ones, the skipped relationships are not converted into entities
+     */
+    Iterable<T> skip(int count);
+
+    /**
+     * @return view of at most the first count elements
+     */
+    Iterable<T> limit(int count);
+
+    /**
+     * @return view of at most limit elements after the first skip ones
+     */
+    Iterable<T> slice(int skip, int limit);
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.neo4j.mapping.MappingPolicy;
+import org.springframework.data.neo4j.support.LongHashSet;
+import org.springframework.data.neo4j.support.Neo4jTemplate;
+import org.springframework.data.neo4j.support.relationship.RelationshipLookup;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link LazyRelatedSet} over the relationships of a node, either exposing the other nodes or the relationships
+ * themselves as entities. Each element is contained once, even if several relationships lead to the same node or a
+ * self loop is returned from both of its ends; the ids seen are remembered while iterating for that.
+ */
+public class LazyRelationshipSet<T> extends AbstractSet<T> implements LazyRelatedSet<T> {
+    private final Object entity;
+    private final Node node;
+    private final AbstractNodeRelationshipFieldAccessor<Node, ?> accessor;
+    private final MappingPolicy mappingPolicy;
+    private final boolean relationshipEntities;
+
+    /**
+     * @param relationshipEntities true if the elements are relationship entities, false for the entities of the other nodes
+     */
+    public LazyRelationshipSet(Object entity, Node node, AbstractNodeRelationshipFieldAccessor<Node, ?> accessor, MappingPolicy mappingPolicy, boolean relationshipEntities) {
+        this.entity = entity;
+        this.node = node;
+        this.accessor = accessor;
+        this.mappingPolicy = mappingPolicy;
+        this.relationshipEntities = relationshipEntities;
+    }
+
+    /**
+     * @return the same view of the node's relationships for another entity of the node, e.g. a copy of this set's entity
+     */
+    public LazyRelationshipSet<T> copyFor(Object entity) {
+        return new LazyRelationshipSet<T>(entity, node, accessor, mappingPolicy, relationshipEntities);
+    }
+
+    /**
+     * @return true if this set is the view of the given accessor for the node, writing it back is a no-op then
+     */
+    boolean isViewOf(Node node, FieldAccessor accessor) {
+        return this.node.equals(node) && this.accessor == accessor;
+    }
+
+    private Iterable<Relationship> relationships() {
+        return node.getRelationships(accessor.type, accessor.direction);
+    }
+
+    /**
+     * @return the relationships, skipping those that lead to an element that was already returned
+     */
+    private Iterator<Relationship> distinctRelationships() {
+        final Iterator<Relationship> relationships = relationships().iterator();
+        final LongHashSet seen = new LongHashSet();
+        return new Iterator<Relationship>() {
+            private Relationship next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && relationships.hasNext()) {
+                    final Relationship relationship = relationships.next();
+                    if (seen.add(elementId(relationship))) next = relationship;
+                }
+                return next != null;
+            }
+
+            @Override
+            public Relationship next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                final Relationship result = next;
+                next = null;
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private long elementId(Relationship relationship) {
+        return relationshipEntities ? relationship.getId() : relationship.getOtherNode(node).getId();
+    }
+
+    private Neo4jTemplate template() {
+        return accessor.template;
+    }
+
+    private RelationshipLookup lookup() {
+        return accessor.relationshipLookup();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T toEntity(Relationship relationship) {
+        final Class<T> type = (Class<T>) accessor.relatedType;
+        if (relationshipEntities) {
+            return template().createEntityFromState(relationship, type, template().getMappingPolicy(type));
+        }
+        return template().createEntityFromState(relationship.getOtherNode(node), type, mappingPolicy);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return slice(0, Integer.MAX_VALUE).iterator();
+    }
+
+    @Override
+    public Iterable<T> skip(int count) {
+        return slice(count, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterable<T> limit(int count) {
+        return slice(0, count);
+    }
+
+    @Override
+    public Iterable<T> slice(final int skip, final int limit) {
+        if (skip < 0 || limit < 0) throw new IllegalArgumentException("Skip and limit must not be negative but were " + skip + " and " + limit);
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                final Iterator<Relationship> relationships = distinctRelationships();
+                for (int i = 0; i < skip && relationships.hasNext(); i++) {
+                    relationships.next();
+                }
+                return new Iterator<T>() {
+                    private int count;
+                    private Relationship current;
+
+                    @Override
+                    public boolean hasNext() {
+                        return count < limit && relationships.hasNext();
+                    }
+
+                    @Override
+                    public T next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        count++;
+                        current = relationships.next();
+                        return toEntity(current);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (current == null) throw new IllegalStateException("next() has not been called");
+                        checkWriteable();
+                        if (relationshipEntities) {
+                            lookup().delete(current);
+                        } else {
+                            accessor.removeRelationshipsTo(node, current.getOtherNode(node).getId());
+                        }
+                        current = null;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Counts the distinct elements without converting them into entities.
+     */
+    @Override
+    public int size() {
+        int count = 0;
+        for (Iterator<Relationship> it = distinctRelationships(); it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !relationships().iterator().hasNext();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return relationshipTo(o) != null;
+    }
+
+    private Relationship relationshipTo(Object element) {
+        if (!accessor.relatedType.isInstance(element)) return null;
+        final PropertyContainer state = template().getPersistentState(element);
+        if (state == null) return null;
+        if (!relationshipEntities) {
+            return lookup().find(node, (Node) state, accessor.type, accessor.direction);
+        }
+        final Relationship relationship = (Relationship) state;
+        if (!relationship.getType().name().equals(accessor.type.name())) return null;
+        final boolean outgoing = relationship.getStartNode().equals(node);
+        final boolean incoming = relationship.getEndNode().equals(node);
+        switch (accessor.direction) {
+            case OUTGOING: return outgoing ? relationship : null;
+            case INCOMING: return incoming ? relationship : null;
+            default: return outgoing || incoming ? relationship : null;
+        }
+    }
+
+    @Override
+    public boolean add(T element) {
+        checkWriteable();
+        if (!accessor.relatedType.isInstance(element)) {
+            throw new IllegalArgumentException("New value elements must be " + accessor.relatedType);
+        }
+        if (contains(element)) return false;
+        if (relationshipEntities) {
+            template().save(element);
+        } else {
+            accessor.createRelationship(node, (Node) accessor.getOrCreateState(element));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        checkWriteable();
+        final Relationship relationship = relationshipTo(element);
+        if (relationship == null) return false;
+        if (relationshipEntities) {
+            lookup().delete(relationship);
+        } else {
+            accessor.removeRelationshipsTo(node, relationship.getOtherNode(node).getId());
+        }
+        return true;
+    }
+
+    private void checkWriteable() {
+        if (!accessor.isWriteable(entity)) {
+            throw new InvalidDataAccessApiUsageException("Cannot modify read-only relationship field " + accessor.property.getName());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LazyRelationshipSet{" + accessor.property.getName() + " of " + node + "}";
+    }
+}
@@ -21,14 +21,16 @@ import org.springframework.data.neo4j.mapping.MappingPolicy;
 import org.springframework.data.neo4j.mapping.ManagedEntity;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
 import org.springframework.data.neo4j.support.DoReturn;
+import org.springframework.data.neo4j.support.LongHashSet;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 
-import java.util.AbstractSet;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.*;
 
 /**
+ * Set of related entities that writes modifications through to the graph. For accessors that support it, single
+ * additions and removals of simple mapped and attached managed entities only create or delete the affected
+ * relationships, the ids of the currently related nodes are tracked for that.
+ *
  * @param <T>
  */
 public class ManagedFieldAccessorSet<T> extends AbstractSet<T> {
@@ -38,21 +40,39 @@ public class ManagedFieldAccessorSet<T> extends AbstractSet<T> {
     private final Neo4jTemplate ctx;
     private final FieldAccessor fieldAccessor;
     private final MappingPolicy mappingPolicy;
+    private LongHashSet targetNodeIds;
 
-    @SuppressWarnings("unchecked")
     public ManagedFieldAccessorSet(final Object entity, final Object newVal, final Neo4jPersistentProperty property, Neo4jTemplate ctx, FieldAccessor fieldAccessor, final MappingPolicy mappingPolicy) {
+        this(entity, newVal, property, ctx, fieldAccessor, mappingPolicy, null);
+    }
+
+    /**
+     * @param targetNodeIds ids of the nodes related by the elements of newVal, null if they have to be determined
+     */
+    @SuppressWarnings("unchecked")
+    public ManagedFieldAccessorSet(final Object entity, final Object newVal, final Neo4jPersistentProperty property, Neo4jTemplate ctx, FieldAccessor fieldAccessor, final MappingPolicy mappingPolicy, LongHashSet targetNodeIds) {
 		this.entity = entity;
 		this.property = property;
         this.ctx = ctx;
         this.fieldAccessor = fieldAccessor;
         delegate = (Set<T>) newVal;
         this.mappingPolicy = mappingPolicy;
+        this.targetNodeIds = targetNodeIds;
+    }
+
+    /**
+     * @return a set of the given elements that writes through for the given entity, e.g. a copy of this set's entity
+     */
+    public ManagedFieldAccessorSet<T> copyFor(Object entity, Set<T> elements) {
+        return new ManagedFieldAccessorSet<T>(entity, elements, property, ctx, fieldAccessor, mappingPolicy);
     }
 
 	@Override
 	public Iterator<T> iterator() {
         final Iterator<T> iterator = delegate.iterator();
         return new Iterator<T>() {
+            private T current;
+
             @Override
             public boolean hasNext() {
                 return iterator.hasNext();
@@ -60,13 +80,20 @@ public class ManagedFieldAccessorSet<T> extends AbstractSet<T> {
 
             @Override
             public T next() {
-                return iterator.next();
+                current = iterator.next();
+                return current;
             }
 
             @Override
             public void remove() {
+                if (!isIncremental()) {
+                    iterator.remove();
+                    update();
+                    return;
+                }
+                final LongHashSet ids = targetNodeIds();
                 iterator.remove();
-                update();
+                incrementalAccessor().removeRelationship(entity, current, ids);
             }
         };
 	}
@@ -79,6 +106,47 @@ public class ManagedFieldAccessorSet<T> extends AbstractSet<T> {
         }
     }
 
+    /**
+     * Managed (aspect) entities only write through incrementally while they are attached, a detached entity state
+     * collects the whole set as dirty value to be written when the entity is persisted.
+     */
+    private boolean isIncremental() {
+        if (!(fieldAccessor instanceof IncrementalRelationshipFieldAccessor) || !fieldAccessor.isWriteable(entity)) return false;
+        if (!ctx.isManaged(entity)) return true;
+        final EntityState entityState = ((ManagedEntity) entity).getEntityState();
+        return entityState instanceof DetachedEntityState && ((DetachedEntityState) entityState).isAttached();
+    }
+
+    private IncrementalRelationshipFieldAccessor incrementalAccessor() {
+        return (IncrementalRelationshipFieldAccessor) fieldAccessor;
+    }
+
+    /**
+     * has to be called before the delegate is modified
+     */
+    private LongHashSet targetNodeIds() {
+        if (targetNodeIds != null) return targetNodeIds;
+        final LongHashSet ids = new LongHashSet(delegate.size());
+        for (T element : delegate) {
+            final long id = incrementalAccessor().getTargetNodeId(entity, element);
+            if (id != -1) ids.add(id);
+        }
+        targetNodeIds = ids;
+        return ids;
+    }
+
+    /**
+     * @return a copy of the ids of the related nodes if they are tracked for all elements, else null
+     */
+    public LongHashSet getTargetNodeIds() {
+        if (targetNodeIds == null || targetNodeIds.size() != delegate.size()) return null;
+        final LongHashSet ids = new LongHashSet(targetNodeIds.size());
+        for (long id : targetNodeIds.toArray()) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
     private Object updateValueWithState(EntityState entityState) {
         final Object newValue = entityState.setValue(property, delegate, mappingPolicy);
         if (newValue instanceof DoReturn) return DoReturn.unwrap(newValue);
@@ -87,6 +155,7 @@ public class ManagedFieldAccessorSet<T> extends AbstractSet<T> {
     }
 
     private Object updateValue() {
+        targetNodeIds = null;
         final Object newValue = fieldAccessor.setValue(entity,delegate, mappingPolicy);
         if (newValue instanceof DoReturn) return DoReturn.unwrap(newValue);
         property.setValue(entity, newValue);
@@ -100,41 +169,85 @@ public class ManagedFieldAccessorSet<T> extends AbstractSet<T> {
 
 	@Override
 	public boolean add(final T e) {
-		final boolean res = delegate.add(e);
-		if (res) update();
-		return res;
+        if (!isIncremental()) {
+            final boolean res = delegate.add(e);
+            if (res) update();
+            return res;
+        }
+        final LongHashSet ids = targetNodeIds();
+        if (!delegate.add(e)) return false;
+        incrementalAccessor().addRelationship(entity, e, ids, mappingPolicy);
+        return true;
 	}
 
     @Override
     public boolean removeAll(Collection<?> c) {
-        if (delegate.removeAll(c)) {
-            update();
-            return true;
+        if (!isIncremental()) {
+            if (delegate.removeAll(c)) {
+                update();
+                return true;
+            }
+            return false;
         }
-        return false;
+        final LongHashSet ids = targetNodeIds();
+        boolean changed = false;
+        for (Object o : c) {
+            if (delegate.remove(o)) {
+                incrementalAccessor().removeRelationship(entity, o, ids);
+                changed = true;
+            }
+        }
+        return changed;
     }
 
     @Override
     public boolean remove(Object o) {
-        if (delegate.remove(o)) {
-            update();
-            return true;
+        if (!isIncremental()) {
+            if (delegate.remove(o)) {
+                update();
+                return true;
+            }
+            return false;
         }
-        return false;
+        final LongHashSet ids = targetNodeIds();
+        if (!delegate.remove(o)) return false;
+        incrementalAccessor().removeRelationship(entity, o, ids);
+        return true;
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
-        if (delegate.retainAll(c)) {
-            update();
-            return true;
+        if (!isIncremental()) {
+            if (delegate.retainAll(c)) {
+                update();
+                return true;
+            }
+            return false;
         }
-        return false;
+        final LongHashSet ids = targetNodeIds();
+        boolean changed = false;
+        for (Iterator<T> it = delegate.iterator(); it.hasNext(); ) {
+            final T element = it.next();
+            if (c.contains(element)) continue;
+            it.remove();
+            incrementalAccessor().removeRelationship(entity, element, ids);
+            changed = true;
+        }
+        return changed;
     }
 
     @Override
     public void clear() {
+        if (!isIncremental()) {
+            delegate.clear();
+            update();
+            return;
+        }
+        final LongHashSet ids = targetNodeIds();
+        final List<T> removed = new ArrayList<T>(delegate);
         delegate.clear();
-        update();
+        for (T element : removed) {
+            incrementalAccessor().removeRelationship(entity, element, ids);
+        }
     }
-}
\ No newline at end of file
+}
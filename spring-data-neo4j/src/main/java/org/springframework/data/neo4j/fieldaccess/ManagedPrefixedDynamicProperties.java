@@ -80,6 +80,20 @@ public class ManagedPrefixedDynamicProperties extends PrefixedDynamicProperties
         return d;
     }
 
+    /**
+     * @return a copy of these properties that writes through for the given entity, e.g. a copy of this entity, copying
+     * doesn't write anything
+     */
+    public ManagedPrefixedDynamicProperties copyFor(Object entity) {
+        final ManagedPrefixedDynamicProperties copy = new ManagedPrefixedDynamicProperties(prefix, property, entity, template, fieldAccessor, mappingPolicy);
+        copy.setPropertiesWithoutUpdate(asMap());
+        return copy;
+    }
+
+    private void setPropertiesWithoutUpdate(Map<String, Object> map) {
+        super.setPropertiesFrom(map);
+    }
+
     private Object updateValue() {
         final Object newValue = fieldAccessor.setValue(entity, this, mappingPolicy);
         if (newValue instanceof DoReturn)
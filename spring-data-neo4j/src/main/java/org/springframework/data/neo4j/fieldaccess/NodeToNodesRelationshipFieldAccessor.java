@@ -20,7 +20,9 @@ import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
+import org.springframework.data.neo4j.mapping.MappingPolicy;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
+import org.springframework.data.neo4j.support.LongHashSet;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 
 import java.util.HashSet;
@@ -30,18 +32,19 @@ import java.util.Set;
  * @author Michael Hunger
  * @since 12.09.2010
  */
-public abstract class NodeToNodesRelationshipFieldAccessor extends AbstractNodeRelationshipFieldAccessor<Node, Node> {
+public abstract class NodeToNodesRelationshipFieldAccessor extends AbstractNodeRelationshipFieldAccessor<Node, Node> implements IncrementalRelationshipFieldAccessor {
     public NodeToNodesRelationshipFieldAccessor(final Class<?> clazz, final Neo4jTemplate template, final Direction direction, final RelationshipType type, Neo4jPersistentProperty property) {
         super(clazz, template, direction, type,property);
     }
 
+    /**
+     * start and end are already ordered according to the direction
+     */
     @Override
     protected Relationship obtainSingleRelationship(final Node start, final Node end) {
-        final Iterable<Relationship> existingRelationships = start.getRelationships(type, direction);
-        for (final Relationship existingRelationship : existingRelationships) {
-            if (existingRelationship!=null && existingRelationship.getOtherNode(start).equals(end)) return existingRelationship;
-        }
-        return start.createRelationshipTo(end, type);
+        final Relationship existingRelationship = relationshipLookup().find(start, end, type, direction == Direction.BOTH ? Direction.BOTH : Direction.OUTGOING);
+        if (existingRelationship != null) return existingRelationship;
+        return relationshipLookup().create(start, end, type);
     }
 
     @Override
@@ -54,6 +57,33 @@ public abstract class NodeToNodesRelationshipFieldAccessor extends AbstractNodeR
         return result;
     }
 
+    @Override
+    public long getTargetNodeId(Object entity, Object element) {
+        if (element == null) return -1;
+        final Node node = getState(element);
+        return node == null ? -1 : node.getId();
+    }
+
+    @Override
+    public void addRelationship(Object entity, Object element, LongHashSet targetNodeIds, MappingPolicy mappingPolicy) {
+        if (!relatedType.isInstance(element)) {
+            throw new IllegalArgumentException("New value elements must be "+relatedType);
+        }
+        final Node node = checkUnderlyingState(entity);
+        final Node targetNode = getOrCreateState(element);
+        if (targetNodeIds.add(targetNode.getId())) {
+            createRelationship(node, targetNode);
+        }
+    }
+
+    @Override
+    public void removeRelationship(Object entity, Object element, LongHashSet targetNodeIds) {
+        final long targetNodeId = getTargetNodeId(entity, element);
+        if (targetNodeIds.remove(targetNodeId)) {
+            removeRelationshipsTo(checkUnderlyingState(entity), targetNodeId);
+        }
+    }
+
     @Override
     protected Node getState(final Object entity) {
         return template.getPersistentState(entity);
@@ -23,12 +23,10 @@ import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.helpers.collection.IteratorUtil;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.neo4j.mapping.*;
+import org.springframework.data.neo4j.support.LongHashSet;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 import static org.springframework.data.neo4j.support.DoReturn.doReturn;
 
@@ -52,7 +50,7 @@ public class OneToNRelationshipEntityFieldAccessorFactory implements FieldAccess
         final RelationshipInfo relationshipInfo = property.getRelationshipInfo();
 		return new OneToNRelationshipEntityFieldAccessor(relationshipInfo.getRelationshipType(), relationshipInfo.getDirection(), (Class<?>) relationshipInfo.getTargetType().getType(), template,property);
 	}
-	public static class OneToNRelationshipEntityFieldAccessor extends AbstractNodeRelationshipFieldAccessor<Node, Relationship> {
+	public static class OneToNRelationshipEntityFieldAccessor extends AbstractNodeRelationshipFieldAccessor<Node, Relationship> implements IncrementalRelationshipFieldAccessor {
 
         private final boolean isEditableSet;
 
@@ -68,11 +66,19 @@ public class OneToNRelationshipEntityFieldAccessorFactory implements FieldAccess
             if (newVal == null) {
    	            return null;
    	        }
+            if (newVal instanceof LazyRelationshipSet && ((LazyRelationshipSet) newVal).isViewOf(startNode, this)) {
+                return newVal;
+            }
             final Map<Node, Object> targetNodes = createSetOfTargetNodes(newVal, startNode);
-   	        removeMissingRelationships(startNode, targetNodes.keySet());
+            final LongHashSet targetNodeIds = nodeIds(targetNodes.keySet());
+   	        removeMissingRelationships(startNode, targetNodeIds);
    	        //createAddedRelationships(startNode, targetNodes.keySet());
+            // the elements that are already related are saved as well, to write changes made to them in place
             persistEntities(targetNodes);
-            return createManagedSet(entity, (Set<?>) newVal, updateMappingPolicy(mappingPolicy));
+            if (isLazy()) {
+                return new LazyRelationshipSet<Object>(entity, startNode, this, updateMappingPolicy(mappingPolicy), true);
+            }
+            return createManagedSet(entity, (Set<?>) newVal, updateMappingPolicy(mappingPolicy), targetNodeIds);
 	    }
 
         private void persistEntities(Map<Node, Object> targetNodes) {
@@ -90,22 +96,54 @@ public class OneToNRelationshipEntityFieldAccessorFactory implements FieldAccess
                 if (!relatedType.isInstance(entry)) {
                     throw new IllegalArgumentException("New value elements must be "+relatedType);
                 }
-                Neo4jPersistentEntity relationshipPEntity = property.getRelationshipInfo().getTargetEntity();
-                final RelationshipProperties relationshipProperties = relationshipPEntity.getRelationshipProperties();
-                final Neo4jPersistentProperty endNodeProperty = relationshipProperties.getEndNodeProperty();
-                final Object endNodeEntity = endNodeProperty.getValue(entry, endNodeProperty.getMappingPolicy());
-                final Node endNode = getState(endNodeEntity);
-                if (!endNode.equals(startNode)) {
-                    targetNodes.put(endNode, entry);
-                } else {
-                    final Neo4jPersistentProperty startNodeProperty = relationshipProperties.getStartNodeProperty();
-                    final Node otherNode = getState(startNodeProperty.getValue(entry, startNodeProperty.getMappingPolicy()));
-                    targetNodes.put(otherNode, entry);
-                }
+                targetNodes.put(getOtherNode(entry, startNode), entry);
             }
             return targetNodes;
         }
 
+        private Node getOtherNode(Object entry, Node startNode) {
+            Neo4jPersistentEntity relationshipPEntity = property.getRelationshipInfo().getTargetEntity();
+            final RelationshipProperties relationshipProperties = relationshipPEntity.getRelationshipProperties();
+            final Neo4jPersistentProperty endNodeProperty = relationshipProperties.getEndNodeProperty();
+            final Object endNodeEntity = endNodeProperty.getValue(entry, endNodeProperty.getMappingPolicy());
+            final Node endNode = getState(endNodeEntity);
+            if (!endNode.equals(startNode)) {
+                return endNode;
+            }
+            final Neo4jPersistentProperty startNodeProperty = relationshipProperties.getStartNodeProperty();
+            return getState(startNodeProperty.getValue(entry, startNodeProperty.getMappingPolicy()));
+        }
+
+        @Override
+        public long getTargetNodeId(Object entity, Object element) {
+            if (!relatedType.isInstance(element)) return -1;
+            final Node otherNode = getOtherNode(element, checkUnderlyingState(entity));
+            return otherNode == null ? -1 : otherNode.getId();
+        }
+
+        /**
+         * Saves the added relationship entity which creates its relationship, the other relationships are left alone.
+         */
+        @Override
+        public void addRelationship(Object entity, Object element, LongHashSet targetNodeIds, MappingPolicy mappingPolicy) {
+            if (!isEditableSet) throw new InvalidDataAccessApiUsageException("Cannot set read-only relationship entity field.");
+            if (!relatedType.isInstance(element)) {
+                throw new IllegalArgumentException("New value elements must be "+relatedType);
+            }
+            final Node startNode = checkUnderlyingState(entity);
+            template.save(element);
+            targetNodeIds.add(getOtherNode(element, startNode).getId());
+        }
+
+        @Override
+        public void removeRelationship(Object entity, Object element, LongHashSet targetNodeIds) {
+            if (!isEditableSet) throw new InvalidDataAccessApiUsageException("Cannot set read-only relationship entity field.");
+            final long targetNodeId = getTargetNodeId(entity, element);
+            if (targetNodeIds.remove(targetNodeId)) {
+                removeRelationshipsTo(checkUnderlyingState(entity), targetNodeId);
+            }
+        }
+
 	    @Override
 	    public boolean isWriteable(Object entity) {
 	        return isEditableSet;
@@ -113,17 +151,24 @@ public class OneToNRelationshipEntityFieldAccessorFactory implements FieldAccess
 
 	    @Override
 	    public Object getValue(final Object entity, MappingPolicy mappingPolicy) {
-	        checkUnderlyingState(entity);
-            final GraphBackedEntityIterableWrapper<Relationship, ?> result = iterableFrom(entity);
+	        final Node node = checkUnderlyingState(entity);
+            if (isLazy()) {
+                return doReturn(new LazyRelationshipSet<Object>(entity, node, this, updateMappingPolicy(mappingPolicy), true));
+            }
             if (isEditableSet) {
-                @SuppressWarnings("unchecked") final ManagedFieldAccessorSet managedSet = createManagedSet(entity, IteratorUtil.addToCollection(result, new HashSet()), updateMappingPolicy(mappingPolicy));
+                final List<Relationship> relationships = IteratorUtil.addToCollection(getStatesFromEntity(entity), new ArrayList<Relationship>());
+                final LongHashSet targetNodeIds = new LongHashSet(relationships.size());
+                for (Relationship relationship : relationships) {
+                    targetNodeIds.add(relationship.getOtherNode(node).getId());
+                }
+                @SuppressWarnings("unchecked") final ManagedFieldAccessorSet managedSet = createManagedSet(entity, IteratorUtil.addToCollection(iterableFrom(relationships), new HashSet()), updateMappingPolicy(mappingPolicy), targetNodeIds);
                 return doReturn(managedSet);
             }
-            return doReturn(result);
+            return doReturn(iterableFrom(getStatesFromEntity(entity)));
         }
 
-        private GraphBackedEntityIterableWrapper<Relationship, ?> iterableFrom(final Object entity) {
-            return GraphBackedEntityIterableWrapper.create(getStatesFromEntity(entity), relatedType, template);
+        private GraphBackedEntityIterableWrapper<Relationship, ?> iterableFrom(final Iterable<Relationship> relationships) {
+            return GraphBackedEntityIterableWrapper.create(relationships, relatedType, template);
         }
 
 	    @Override
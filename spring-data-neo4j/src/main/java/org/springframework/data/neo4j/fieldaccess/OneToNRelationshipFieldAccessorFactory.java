@@ -22,9 +22,11 @@ import org.neo4j.graphdb.RelationshipType;
 import org.springframework.data.neo4j.mapping.MappingPolicy;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
 import org.springframework.data.neo4j.mapping.RelationshipInfo;
+import org.springframework.data.neo4j.support.LongHashSet;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.springframework.data.neo4j.support.DoReturn.doReturn;
@@ -59,22 +61,33 @@ public class OneToNRelationshipFieldAccessorFactory extends NodeRelationshipFiel
 	        final Node node = checkUnderlyingState(entity);
 	        if (newVal == null) {
 /* null should not remove existing relationships but leave them alone
-	            removeMissingRelationships(node, Collections.<Node>emptySet());
+	            removeMissingRelationships(node, new LongHashSet());
 */
 	            return null;
 	        }
-	        final Set<Node> targetNodes = createSetOfTargetNodes(newVal);
-	        removeMissingRelationships(node, targetNodes);
-	        createAddedRelationships(node, targetNodes);
-	        return createManagedSet(entity, (Set<?>) newVal, updateMappingPolicy(mappingPolicy));
+	        if (newVal instanceof LazyRelationshipSet && ((LazyRelationshipSet) newVal).isViewOf(node, this)) {
+	            return newVal;
+	        }
+	        final LongHashSet targetNodeIds = new LongHashSet();
+	        final List<Node> targetNodes = createTargetNodes(newVal, targetNodeIds);
+	        final LongHashSet relatedNodeIds = removeMissingRelationships(node, targetNodeIds);
+	        createAddedRelationships(node, targetNodes, relatedNodeIds);
+	        if (isLazy()) {
+	            return new LazyRelationshipSet<Object>(entity, node, this, updateMappingPolicy(mappingPolicy), false);
+	        }
+	        return createManagedSet(entity, (Set<?>) newVal, updateMappingPolicy(mappingPolicy), targetNodeIds);
 	    }
 
         @Override
 	    public Object getValue(final Object entity, MappingPolicy mappingPolicy) {
-	        checkUnderlyingState(entity);
+	        final Node node = checkUnderlyingState(entity);
             final MappingPolicy currentPolicy = updateMappingPolicy(mappingPolicy);
-            final Set<?> result = createEntitySetFromRelationshipEndNodes(entity, currentPolicy);
-	        return doReturn(createManagedSet(entity, result, currentPolicy));
+            if (isLazy()) {
+                return doReturn(new LazyRelationshipSet<Object>(entity, node, this, currentPolicy, false));
+            }
+            final LongHashSet targetNodeIds = new LongHashSet();
+            final Set<?> result = createEntitySetFromRelationshipEndNodes(entity, currentPolicy, targetNodeIds);
+	        return doReturn(createManagedSet(entity, result, currentPolicy, targetNodeIds));
 	    }
 
         @Override
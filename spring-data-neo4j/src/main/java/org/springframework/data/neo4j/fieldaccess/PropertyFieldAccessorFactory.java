@@ -22,6 +22,8 @@ import org.springframework.data.neo4j.mapping.MappingPolicy;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 
+import java.util.Map;
+
 import static org.springframework.data.neo4j.support.DoReturn.doReturn;
 
 /**
@@ -72,6 +74,7 @@ public class PropertyFieldAccessorFactory implements FieldAccessorFactory {
             } else {
                 propertyContainer.setProperty(propertyName, newVal);
             }
+            PropertySnapshot.update(propertyContainer, propertyName, newVal);
             return newVal;
         }
 
@@ -82,12 +85,11 @@ public class PropertyFieldAccessorFactory implements FieldAccessorFactory {
 
         protected Object doGetValue(final Object entity) {
             PropertyContainer element = template.getPersistentState(entity);
-            if (element.hasProperty(propertyName)) {
-                Object value = element.getProperty(propertyName);
-                if (value == null || fieldType.isInstance(value)) return value;
-                return convertSimplePropertyValue(value);
-            }
-            return getDefaultValue(fieldType);
+            final Map<String, Object> snapshot = PropertySnapshot.get(element);
+            final Object value = snapshot != null ? snapshot.get(propertyName) : element.getProperty(propertyName, null);
+            if (value == null) return getDefaultValue(fieldType);
+            if (fieldType.isInstance(value)) return value;
+            return convertSimplePropertyValue(value);
         }
 
         protected Object convertSimplePropertyValue(Object value) {
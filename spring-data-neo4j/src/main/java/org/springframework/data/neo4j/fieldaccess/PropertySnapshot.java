@@ -0,0 +1,83 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.neo4j.graphdb.PropertyContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * All properties of a node or relationship, read in a single pass while an entity is hydrated from it. Property field
+ * accessors take their values from the snapshot bound to the state instead of hitting the property store per field.
+ * For REST-backed states the keys and values come from the property data of the node representation.
+ */
+public class PropertySnapshot {
+    private static ThreadLocal<Map<PropertyContainer, Map<String, Object>>> snapshots = new ThreadLocal<Map<PropertyContainer, Map<String, Object>>>();
+
+    public static Map<String, Object> read(PropertyContainer state) {
+        final Map<String, Object> properties = new HashMap<String, Object>();
+        for (String key : state.getPropertyKeys()) {
+            properties.put(key, state.getProperty(key));
+        }
+        return properties;
+    }
+
+    /**
+     * @return the snapshot that was bound to the state before, to be passed to {@link #unbind}
+     */
+    public static Map<String, Object> bind(PropertyContainer state, Map<String, Object> properties) {
+        Map<PropertyContainer, Map<String, Object>> map = snapshots.get();
+        if (map == null) {
+            map = new HashMap<PropertyContainer, Map<String, Object>>();
+            snapshots.set(map);
+        }
+        return map.put(state, properties);
+    }
+
+    public static void unbind(PropertyContainer state, Map<String, Object> previous) {
+        final Map<PropertyContainer, Map<String, Object>> map = snapshots.get();
+        if (map == null) return;
+        if (previous != null) {
+            map.put(state, previous);
+            return;
+        }
+        map.remove(state);
+        if (map.isEmpty()) snapshots.remove();
+    }
+
+    /**
+     * @return the snapshot bound to the state or null if the state is not being read
+     */
+    public static Map<String, Object> get(PropertyContainer state) {
+        final Map<PropertyContainer, Map<String, Object>> map = snapshots.get();
+        if (map == null) return null;
+        return map.get(state);
+    }
+
+    /**
+     * Keeps a bound snapshot in sync with a property written to the state.
+     */
+    static void update(PropertyContainer state, String key, Object value) {
+        final Map<String, Object> properties = get(state);
+        if (properties == null) return;
+        if (value == null) {
+            properties.remove(key);
+        } else {
+            properties.put(key, value);
+        }
+    }
+}
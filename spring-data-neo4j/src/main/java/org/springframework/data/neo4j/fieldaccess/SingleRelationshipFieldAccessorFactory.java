@@ -23,9 +23,11 @@ import org.neo4j.graphdb.RelationshipType;
 import org.springframework.data.neo4j.mapping.MappingPolicy;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
 import org.springframework.data.neo4j.mapping.RelationshipInfo;
+import org.springframework.data.neo4j.support.LongHashSet;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import static org.springframework.data.neo4j.support.DoReturn.doReturn;
@@ -56,12 +58,13 @@ public class SingleRelationshipFieldAccessorFactory extends NodeRelationshipFiel
 	    public Object setValue(final Object entity, final Object newVal, MappingPolicy mappingPolicy) {
 	        final Node node= checkUnderlyingState(entity);
 	        if (newVal == null) {
-	            removeMissingRelationships(node, Collections.<Node>emptySet());
+	            removeMissingRelationships(node, new LongHashSet());
 	            return null;
 	        }
-	        final Set<Node> target= createSetOfTargetNodes(Collections.singleton(newVal));
-	        removeMissingRelationships(node, target);
-			createAddedRelationships(node,target);
+	        final LongHashSet targetNodeIds = new LongHashSet(1);
+	        final List<Node> target= createTargetNodes(Collections.singleton(newVal), targetNodeIds);
+	        final LongHashSet relatedNodeIds = removeMissingRelationships(node, targetNodeIds);
+			createAddedRelationships(node, target, relatedNodeIds);
 	        return newVal;
 		}
 
@@ -25,6 +25,7 @@ import org.neo4j.graphdb.index.IndexHits;
 import org.neo4j.graphdb.index.ReadableIndex;
 import org.neo4j.helpers.collection.ClosableIterable;
 import org.neo4j.helpers.collection.IterableWrapper;
+import org.neo4j.helpers.collection.IteratorUtil;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -32,9 +33,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.neo4j.annotation.QueryType;
 import org.springframework.data.neo4j.conversion.EndResult;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentEntity;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
+import org.springframework.data.neo4j.repository.query.QueryTemplates;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 import org.springframework.data.neo4j.support.index.NoSuchIndexException;
 import org.springframework.data.neo4j.support.index.NullReadableIndex;
+import org.springframework.data.neo4j.support.typerepresentation.ClosableCombiningIterable;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
+import org.springframework.util.StringUtils;
 
 import java.util.*;
 
@@ -91,6 +98,12 @@ public abstract class AbstractGraphRepository<S extends PropertyContainer, T> im
             return Collections.emptyList().iterator();
         }
     };
+    protected static final String TYPE_QUERY_PARAMETER = QueryTemplates.TYPE_QUERY_PARAMETER;
+    /**
+     * fixed cypher identifier of the elements in the queries over the type index, class names might be keywords
+     */
+    private static final String VARIABLE = "entity";
+
     /**
      * Target graphbacked type
      */
@@ -102,6 +115,13 @@ public abstract class AbstractGraphRepository<S extends PropertyContainer, T> im
         this.clazz = clazz;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Iterable<T> save(Iterable<? extends T> entities, int chunkSize) {
+        template.saveAll(entities, chunkSize);
+        return (Iterable<T>) entities;
+    }
+
     /**
      * @return Number of instances of the target type in the graph.
      */
@@ -312,43 +332,337 @@ public abstract class AbstractGraphRepository<S extends PropertyContainer, T> im
         delete(findAll());
     }
 
+    /**
+     * Sorts with cypher queries over the type index if the type representation strategy provides one, see
+     * {@link #getSortPartitions(Sort)}. Otherwise the nodes or relationships are sorted by their property values and
+     * entities are only created while iterating. Either way elements without a sorted property come after those that
+     * have it.
+     */
     @Override
     public ClosableIterable<T> findAll(Sort sort) {
-        return findAll(); // todo
+        if (!hasOrders(sort)) return findAll();
+        if (isTypeIndexed()) {
+            final Iterable<Iterable<T>> results = new IterableWrapper<Iterable<T>, SortPartition>(getSortPartitions(sort)) {
+                @Override
+                protected Iterable<T> underlyingObjectToObject(SortPartition partition) {
+                    return partition.query("");
+                }
+            };
+            return new ClosableCombiningIterable<T>(results);
+        }
+        return new StateIterable(sortStates(sort));
     }
 
     @Override
     public Page<T> findAll(final Pageable pageable) {
-        int count = pageable.getPageSize();
-        int offset = pageable.getOffset();
-        ClosableIterable<T> foundEntities = findAll(pageable.getSort());
-        final Iterator<T> iterator = foundEntities.iterator();
-        final PageImpl<T> page = extractPage(pageable, count, offset, iterator);
-        foundEntities.close();
-        return page;
+        if (pageable instanceof KeysetPageRequest) {
+            return findAll((KeysetPageRequest) pageable);
+        }
+        if (hasOrders(pageable.getSort())) {
+            return findAllSorted(pageable);
+        }
+        final ClosableIterable<S> states = template.findAllStates(clazz);
+        try {
+            return extractPage(pageable, states.iterator());
+        } finally {
+            states.close();
+        }
     }
 
-    private PageImpl<T> extractPage(Pageable pageable, int count, int offset, Iterator<T> iterator) {
+    /**
+     * Queries the sort partitions in order, partitions that end before the page are only counted.
+     */
+    private Page<T> findAllSorted(Pageable pageable) {
+        if (!isTypeIndexed()) {
+            return extractPage(pageable, sortStates(pageable.getSort()).iterator());
+        }
+        final int count = pageable.getPageSize();
+        final List<SortPartition> partitions = getSortPartitions(pageable.getSort());
         final List<T> result = new ArrayList<T>(count);
-        int total=subList(offset, count, iterator, result);
-        if (iterator.hasNext()) total++;
+        int skip = pageable.getOffset();
+        boolean hasNext = false;
+        for (Iterator<SortPartition> it = partitions.iterator(); it.hasNext() && !hasNext; ) {
+            final SortPartition partition = it.next();
+            if (skip > 0 && it.hasNext()) {
+                final long size = partition.count();
+                if (size <= skip) {
+                    skip -= size;
+                    continue;
+                }
+            }
+            final int limit = count - result.size() + 1;
+            final Iterator<T> entities = partition.query(format(" skip %d limit %d", skip, limit)).iterator();
+            skip = 0;
+            while (result.size() < count && entities.hasNext()) {
+                result.add(entities.next());
+            }
+            hasNext = entities.hasNext();
+        }
+        final int total = pageable.getOffset() + result.size() + (hasNext ? 1 : 0);
+        return new PageImpl<T>(result, pageable, total);
+    }
+
+    /**
+     * Seeks past the last element of the previous page with a cypher query over the type index instead of skipping.
+     * Only the elements of the page are hydrated and returned, but the query still reads all type index entries of the
+     * target type, filters them by the key predicate and sorts the remaining ones, so a page costs O(N log N) for N
+     * instances of the type regardless of its position.
+     *
+     * @throws UnsupportedOperationException if the type representation strategy has no type index
+     */
+    protected Page<T> findAll(final KeysetPageRequest pageable) {
+        if (!isTypeIndexed()) {
+            throw new UnsupportedOperationException("Keyset paging of " + clazz.getName() + " needs an indexing type representation strategy, use a PageRequest instead");
+        }
+        final KeysetPageRequest request = new KeysetPageRequest(pageable.getPageNumber(), pageable.getPageSize(), toPropertyNames(pageable.getSort()), pageable.getLastKeys(), pageable.getLastId());
+        final String where = request.isFirstPage() ? null : request.getKeyPredicate(VARIABLE);
+        final Iterable<T> entities = queryByType(VARIABLE, where, request.getKeyOrderBy(VARIABLE), " limit " + pageable.getPageSize(), request.getKeysetParameters());
+        final List<T> result = IteratorUtil.addToCollection(entities, new ArrayList<T>(pageable.getPageSize()));
+        final int total = pageable.getOffset() + result.size() + (result.size() == pageable.getPageSize() ? 1 : 0);
         return new PageImpl<T>(result, pageable, total);
     }
 
-    private int subList(int skip, int limit, Iterator<T> source, final List<T> list) {
-        int count=0;
-        while (source.hasNext()) {
-            count++;
-            T t = source.next();
-            if (skip > 0) {
-                skip--;
-            } else {
-                list.add(t);
-                limit--;
+    private Iterable<T> queryByType(String variable, String where, String orderBy, String skipLimit, Map<String, Object> params) {
+        final StringBuilder query = new StringBuilder("start ").append(getTypeStartClause(variable));
+        if (where != null) query.append(" where ").append(where);
+        query.append(" return ").append(variable);
+        if (StringUtils.hasText(orderBy)) query.append(" order by ").append(orderBy);
+        query.append(skipLimit);
+        return template.queryEngineFor(QueryType.Cypher).query(query.toString(), getTypeQueryParams(params)).to(clazz);
+    }
+
+    private long countByType(String variable, String where) {
+        final StringBuilder query = new StringBuilder("start ").append(getTypeStartClause(variable));
+        if (where != null) query.append(" where ").append(where);
+        query.append(" return count(*)");
+        final Number count = template.queryEngineFor(QueryType.Cypher).query(query.toString(), getTypeQueryParams(Collections.<String, Object>emptyMap())).to(Number.class).singleOrNull();
+        return count == null ? 0 : count.longValue();
+    }
+
+    private Map<String, Object> getTypeQueryParams(Map<String, Object> params) {
+        final Map<String, Object> queryParams = new HashMap<String, Object>(params);
+        queryParams.put(TYPE_QUERY_PARAMETER, getTypeIndexQuery());
+        return queryParams;
+    }
+
+    /**
+     * @return the cypher start clause for all instances of the target type in the type index, which queries the index
+     *         with the parameter {@value #TYPE_QUERY_PARAMETER}
+     * @see #getTypeIndexQuery()
+     */
+    protected String getTypeStartClause(String variable) {
+        return format("%s=node:%s({%s})", variable, IndexingNodeTypeRepresentationStrategy.INDEX_NAME, TYPE_QUERY_PARAMETER);
+    }
+
+    /**
+     * @return the index query for the same entries as the type representation strategy finds for the target type,
+     *         i.e. its class name, alias and the subtypes of a concrete type index
+     */
+    protected String getTypeIndexQuery() {
+        final IndexingNodeTypeRepresentationStrategy strategy = (IndexingNodeTypeRepresentationStrategy) template.getInfrastructure().getTypeRepresentationStrategies().getNodeTypeRepresentationStrategy();
+        return strategy.getIndexQuery(clazz);
+    }
+
+    /**
+     * @return true if the instances of the target type are found in the type index used by {@link #getTypeStartClause(String)}
+     */
+    protected boolean isTypeIndexed() {
+        return template.getInfrastructure().getTypeRepresentationStrategies().getNodeTypeRepresentationStrategy() instanceof IndexingNodeTypeRepresentationStrategy;
+    }
+
+    /**
+     * @return the sort with the stored property names of the orders, without identifier
+     */
+    private Sort toPropertyNames(Sort sort) {
+        if (sort == null) return null;
+        final List<Sort.Order> orders = new ArrayList<Sort.Order>();
+        for (Sort.Order order : sort) {
+            orders.add(new Sort.Order(order.getDirection(), getPropertyName(order.getProperty())));
+        }
+        return new Sort(orders);
+    }
+
+    private static boolean hasOrders(Sort sort) {
+        return sort != null && sort.iterator().hasNext();
+    }
+
+    /**
+     * Cypher sorts missing properties after all values only in ascending order. To keep missing values last like
+     * {@link #sortStates(Sort)} does, each descending order splits the query into the elements that have the property,
+     * sorted by it, followed by the elements that don't have it. A sort with d descending orders results in 2^d
+     * partitions, that are queried in the returned order.
+     */
+    private List<SortPartition> getSortPartitions(Sort sort) {
+        final List<Sort.Order> orders = new ArrayList<Sort.Order>();
+        for (Sort.Order order : toPropertyNames(sort)) {
+            orders.add(order);
+        }
+        final List<SortPartition> partitions = new ArrayList<SortPartition>();
+        addSortPartitions(orders, 0, new ArrayList<String>(), new ArrayList<String>(), partitions);
+        return partitions;
+    }
+
+    private void addSortPartitions(List<Sort.Order> orders, int index, List<String> conditions, List<String> orderBy, List<SortPartition> partitions) {
+        if (index == orders.size()) {
+            final String where = conditions.isEmpty() ? null : StringUtils.collectionToDelimitedString(conditions, " and ");
+            partitions.add(new SortPartition(where, StringUtils.collectionToCommaDelimitedString(orderBy)));
+            return;
+        }
+        final Sort.Order order = orders.get(index);
+        final String property = VARIABLE + "." + order.getProperty();
+        if (order.getDirection() == Sort.Direction.ASC) {
+            addSortPartitions(orders, index + 1, conditions, with(orderBy, property + "? ASC"), partitions);
+            return;
+        }
+        addSortPartitions(orders, index + 1, with(conditions, "has(" + property + ")"), with(orderBy, property + " DESC"), partitions);
+        addSortPartitions(orders, index + 1, with(conditions, "not(has(" + property + "))"), orderBy, partitions);
+    }
+
+    private static List<String> with(List<String> list, String element) {
+        final List<String> result = new ArrayList<String>(list);
+        result.add(element);
+        return result;
+    }
+
+    /**
+     * Elements of the target type that match the where clause, in the order of the order by clause.
+     */
+    private class SortPartition {
+        private final String where;
+        private final String orderBy;
+
+        private SortPartition(String where, String orderBy) {
+            this.where = where;
+            this.orderBy = orderBy;
+        }
+
+        Iterable<T> query(String skipLimit) {
+            return queryByType(VARIABLE, where, orderBy, skipLimit, Collections.<String, Object>emptyMap());
+        }
+
+        long count() {
+            return countByType(VARIABLE, where);
+        }
+    }
+
+    /**
+     * Reads only the sorted properties of the nodes or relationships, no entities are created.
+     */
+    private List<S> sortStates(Sort sort) {
+        final List<Sort.Order> orders = new ArrayList<Sort.Order>();
+        final List<String> propertyNames = new ArrayList<String>();
+        for (Sort.Order order : sort) {
+            orders.add(order);
+            propertyNames.add(getPropertyName(order.getProperty()));
+        }
+        final List<SortEntry<S>> entries = new ArrayList<SortEntry<S>>();
+        final ClosableIterable<S> states = template.findAllStates(clazz);
+        try {
+            for (S state : states) {
+                final Object[] values = new Object[propertyNames.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = state.getProperty(propertyNames.get(i), null);
+                }
+                entries.add(new SortEntry<S>(state, values));
+            }
+        } finally {
+            states.close();
+        }
+        Collections.sort(entries, new SortEntryComparator(orders));
+        final List<S> result = new ArrayList<S>(entries.size());
+        for (SortEntry<S> entry : entries) {
+            result.add(entry.state);
+        }
+        return result;
+    }
+
+    private String getPropertyName(String property) {
+        final String name = property.substring(property.lastIndexOf('.') + 1);
+        final Neo4jPersistentEntity<?> entity = template.getInfrastructure().getMappingContext().getPersistentEntity(clazz);
+        final Neo4jPersistentProperty persistentProperty = entity != null ? entity.getPersistentProperty(name) : null;
+        return persistentProperty != null ? persistentProperty.getNeo4jPropertyName() : name;
+    }
+
+    private static class SortEntry<S> {
+        private final S state;
+        private final Object[] values;
+
+        private SortEntry(S state, Object[] values) {
+            this.state = state;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Compares numbers by value and other values of the same type by their natural order, missing values sort last.
+     */
+    private static class SortEntryComparator implements Comparator<SortEntry<?>> {
+        private final List<Sort.Order> orders;
+
+        private SortEntryComparator(List<Sort.Order> orders) {
+            this.orders = orders;
+        }
+
+        @Override
+        public int compare(SortEntry<?> o1, SortEntry<?> o2) {
+            for (int i = 0; i < orders.size(); i++) {
+                final Object v1 = o1.values[i];
+                final Object v2 = o2.values[i];
+                if (v1 == null || v2 == null) {
+                    if (v1 != v2) return v1 == null ? 1 : -1;
+                    continue;
+                }
+                final int result = compareValues(v1, v2);
+                if (result != 0) return orders.get(i).getDirection() == Sort.Direction.ASC ? result : -result;
             }
-            if (limit + skip == 0) break;
+            return 0;
         }
-        return count;
+
+        @SuppressWarnings("unchecked")
+        private int compareValues(Object v1, Object v2) {
+            if (v1 instanceof Number && v2 instanceof Number) {
+                return Double.compare(((Number) v1).doubleValue(), ((Number) v2).doubleValue());
+            }
+            if (v1 instanceof Comparable && v1.getClass().equals(v2.getClass())) {
+                return ((Comparable<Object>) v1).compareTo(v2);
+            }
+            return v1.toString().compareTo(v2.toString());
+        }
+    }
+
+    private class StateIterable extends IterableWrapper<T, S> implements ClosableIterable<T> {
+        private StateIterable(List<S> states) {
+            super(states);
+        }
+
+        @Override
+        protected T underlyingObjectToObject(S state) {
+            return createEntity(state);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Skips the nodes or relationships before the page without creating entities for them.
+     */
+    private PageImpl<T> extractPage(Pageable pageable, Iterator<S> states) {
+        final int offset = pageable.getOffset();
+        final int count = pageable.getPageSize();
+        int skipped = 0;
+        while (skipped < offset && states.hasNext()) {
+            states.next();
+            skipped++;
+        }
+        final List<T> result = new ArrayList<T>(count);
+        while (result.size() < count && states.hasNext()) {
+            result.add(createEntity(states.next()));
+        }
+        int total = skipped + result.size();
+        if (states.hasNext()) total++;
+        return new PageImpl<T>(result, pageable, total);
     }
 
     private class IndexHitsWrapper extends IterableWrapper<T, S> implements ClosableIterable<T> {
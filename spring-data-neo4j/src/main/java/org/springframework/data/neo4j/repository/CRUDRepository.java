@@ -49,6 +49,16 @@ public interface CRUDRepository<T> extends PagingAndSortingRepository<T, Long> {
     Iterable<T> save(Iterable<? extends T> entities);
 
 
+    /**
+     * persists the provided entities in chunks, every chunk of entities is saved in a single transaction
+     * NOTE: not transactional itself, so that the chunks are committed independently
+     * @param entities to be persisted
+     * @param chunkSize number of entities per transaction
+     * @return the input iterable
+     */
+    Iterable<T> save(Iterable<? extends T> entities, int chunkSize);
+
+
     /**
      * @param id of the node or relationship-entity
      * @return found instance or null
@@ -0,0 +1,238 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pageable for keyset (seek) pagination. Instead of skipping the elements of the previous pages, the query continues
+ * after the last element of the previous page, so the elements of the previous pages are neither hydrated nor
+ * returned. Cypher still matches and sorts all elements after the key on each page, a page over the type index costs
+ * O(N log N) for N instances of the type, only the skipping is saved. Elements are ordered by
+ * all orders of the sort and then by their node (relationship) id, so the position of the last element is given by its
+ * values of the sorted properties and its id. Elements that share the sort values are neither repeated nor skipped.
+ * Sorted properties must not be null, a missing value never satisfies the predicate.
+ * <p/>
+ * Queries receive the last sort values as parameters {@value #KEYSET_PARAMETER}0, {@value #KEYSET_PARAMETER}1, ...
+ * and the last id as parameter {@value #KEYSET_ID_PARAMETER}. The page number is only informational.
+ * <pre>
+ * KeysetPageRequest request = new KeysetPageRequest(100, new Sort("person.name"));
+ * Page&lt;Person&gt; page = repository.findAll(request);
+ * page = repository.findAll(request.next(lastPerson.getName(), lastPerson.getId()));
+ * </pre>
+ */
+public class KeysetPageRequest implements Pageable, Serializable {
+    private static final long serialVersionUID = 2L;
+
+    public static final String KEYSET_PARAMETER = "keysetKey";
+    public static final String KEYSET_ID_PARAMETER = "keysetId";
+    private static final String ID_EXPRESSION = "ID(%s)";
+    private static final String PROPERTY_EXPRESSION = "%s.%s";
+    private static final String ID_PREDICATE = "%s > {" + KEYSET_ID_PARAMETER + "}";
+    private static final String KEY_PREDICATE = "(%1$s %2$s {%3$s} or (%1$s = {%3$s} and %4$s))";
+    private static final String ORDER = "%s %s";
+
+    private final int page;
+    private final int size;
+    private final Sort sort;
+    private final Object[] lastKeys;
+    private final Long lastId;
+
+    /**
+     * First page ordered by id.
+     */
+    public KeysetPageRequest(int size) {
+        this(size, null);
+    }
+
+    /**
+     * First page ordered by the sort and then by id.
+     */
+    public KeysetPageRequest(int size, Sort sort) {
+        this(0, size, sort, null, null);
+    }
+
+    /**
+     * @param lastKeys the values of the sorted properties of the last element of the previous page, one per order
+     * @param lastId the id of the last element of the previous page, null for the first page
+     */
+    public KeysetPageRequest(int page, int size, Sort sort, Object[] lastKeys, Long lastId) {
+        if (page < 0) throw new IllegalArgumentException("Page index must not be less than zero!");
+        if (size < 1) throw new IllegalArgumentException("Page size must not be less than one!");
+        final int orders = getOrders(sort).size();
+        if (lastId != null && (lastKeys == null ? orders != 0 : lastKeys.length != orders)) {
+            throw new IllegalArgumentException("Expected " + orders + " last keys for " + sort + " but got " + Arrays.toString(lastKeys));
+        }
+        this.page = page;
+        this.size = size;
+        this.sort = sort;
+        this.lastKeys = lastKeys;
+        this.lastId = lastId;
+    }
+
+    /**
+     * @param lastId the id of the last element of this page, which is the only key without sort
+     * @return the request for the page following this one
+     */
+    public KeysetPageRequest next(long lastId) {
+        return next(new Object[0], lastId);
+    }
+
+    /**
+     * @param lastKey the value of the sorted property of the last element of this page, for a sort with one order
+     * @param lastId the id of the last element of this page
+     * @return the request for the page following this one
+     */
+    public KeysetPageRequest next(Object lastKey, long lastId) {
+        return next(new Object[]{lastKey}, lastId);
+    }
+
+    /**
+     * @param lastKeys the values of the sorted properties of the last element of this page, one per order of the sort
+     * @param lastId the id of the last element of this page
+     * @return the request for the page following this one
+     */
+    public KeysetPageRequest next(Object[] lastKeys, long lastId) {
+        if (lastKeys == null) throw new IllegalArgumentException("Last keys must not be null");
+        for (Object lastKey : lastKeys) {
+            if (lastKey == null) throw new IllegalArgumentException("Last keys must not contain null but were " + Arrays.toString(lastKeys));
+        }
+        return new KeysetPageRequest(page + 1, size, sort, lastKeys, lastId);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return page;
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public int getOffset() {
+        return page * size;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    public Object[] getLastKeys() {
+        return lastKeys;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    private static List<Sort.Order> getOrders(Sort sort) {
+        final List<Sort.Order> orders = new ArrayList<Sort.Order>();
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * @param variable the cypher identifier of the paged elements
+     * @return the expression of the order, properties without identifier are qualified with the variable
+     */
+    private static String getKeyExpression(Sort.Order order, String variable) {
+        final String property = order.getProperty();
+        return property.contains(".") ? property : String.format(PROPERTY_EXPRESSION, variable, property);
+    }
+
+    /**
+     * @return the where predicate that selects the elements after the last element of the previous page, e.g.
+     *         {@code (k > {keysetKey0} or (k = {keysetKey0} and ID(x) > {keysetId}))}
+     */
+    public String getKeyPredicate(String variable) {
+        final List<Sort.Order> orders = getOrders(sort);
+        String predicate = String.format(ID_PREDICATE, String.format(ID_EXPRESSION, variable));
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            final Sort.Order order = orders.get(i);
+            final String comparison = order.getDirection() == Sort.Direction.DESC ? "<" : ">";
+            predicate = String.format(KEY_PREDICATE, getKeyExpression(order, variable), comparison, KEYSET_PARAMETER + i, predicate);
+        }
+        return predicate;
+    }
+
+    /**
+     * @return the order by expressions of all orders of the sort followed by the id
+     */
+    public String getKeyOrderBy(String variable) {
+        final StringBuilder orderBy = new StringBuilder();
+        for (Sort.Order order : getOrders(sort)) {
+            orderBy.append(String.format(ORDER, getKeyExpression(order, variable), order.getDirection())).append(", ");
+        }
+        return orderBy.append(String.format(ORDER, String.format(ID_EXPRESSION, variable), Sort.Direction.ASC)).toString();
+    }
+
+    /**
+     * @return the parameters of the {@link #getKeyPredicate key predicate}, empty for the first page
+     */
+    public Map<String, Object> getKeysetParameters() {
+        final Map<String, Object> params = new HashMap<String, Object>();
+        if (isFirstPage()) return params;
+        for (int i = 0; i < lastKeys.length; i++) {
+            params.put(KEYSET_PARAMETER + i, lastKeys[i]);
+        }
+        params.put(KEYSET_ID_PARAMETER, lastId);
+        return params;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof KeysetPageRequest)) return false;
+        final KeysetPageRequest that = (KeysetPageRequest) o;
+        return page == that.page && size == that.size
+                && (sort == null ? that.sort == null : sort.equals(that.sort))
+                && Arrays.equals(lastKeys, that.lastKeys)
+                && (lastId == null ? that.lastId == null : lastId.equals(that.lastId));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * page + size;
+        result = 31 * result + (sort != null ? sort.hashCode() : 0);
+        result = 31 * result + Arrays.hashCode(lastKeys);
+        return 31 * result + (lastId != null ? lastId.hashCode() : 0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KeysetPageRequest[page=%d, size=%d, sort=%s, lastKeys=%s, lastId=%s]", page, size, sort, Arrays.toString(lastKeys), lastId);
+    }
+}
@@ -19,6 +19,7 @@ package org.springframework.data.neo4j.repository;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.traversal.TraversalDescription;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingRelationshipTypeRepresentationStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +35,22 @@ public class RelationshipGraphRepository<T> extends AbstractGraphRepository<Rela
         return template.getRelationship(id);
     }
 
+    @Override
+    protected String getTypeStartClause(String variable) {
+        return String.format("%s=relationship:%s({%s})", variable, IndexingRelationshipTypeRepresentationStrategy.INDEX_NAME, TYPE_QUERY_PARAMETER);
+    }
+
+    @Override
+    protected String getTypeIndexQuery() {
+        final IndexingRelationshipTypeRepresentationStrategy strategy = (IndexingRelationshipTypeRepresentationStrategy) template.getInfrastructure().getTypeRepresentationStrategies().getRelationshipTypeRepresentationStrategy();
+        return strategy.getIndexQuery(clazz);
+    }
+
+    @Override
+    protected boolean isTypeIndexed() {
+        return template.getInfrastructure().getTypeRepresentationStrategies().getRelationshipTypeRepresentationStrategy() instanceof IndexingRelationshipTypeRepresentationStrategy;
+    }
+
     @Override
     public <N> Iterable<T> findAllByTraversal(final N startNode, final TraversalDescription traversalDescription) {
         throw new UnsupportedOperationException("Traversal not able to start at relationship");
@@ -44,6 +44,11 @@ class CypherGraphRepositoryQuery extends GraphRepositoryQuery {
         return this.queryEngine;
     }
 
+    @Override
+    protected boolean isPagedByQuery() {
+        return true;
+    }
+
     private String addPaging(String baseQuery, Pageable pageable) {
         if (pageable==null) {
             return baseQuery;
@@ -18,7 +18,10 @@ package org.springframework.data.neo4j.repository.query;
 import static org.springframework.util.StringUtils.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -26,6 +29,7 @@ import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.mapping.context.PersistentPropertyPath;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentEntity;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
+import org.springframework.data.neo4j.repository.KeysetPageRequest;
 import org.springframework.data.repository.query.parser.Part;
 import org.springframework.util.Assert;
 
@@ -42,6 +46,7 @@ class CypherQueryBuilder implements CypherQueryDefinition {
     private final List<MatchClause> matchClauses = new ArrayList<MatchClause>();
     private final List<StartClause> startClauses = new ArrayList<StartClause>();
     private final List<WhereClause> whereClauses = new ArrayList<WhereClause>();
+    private final Set<Class<?>> entityTypes = new LinkedHashSet<Class<?>>();
 
     private int index = 0;
     private final Neo4jPersistentEntity<?> entity;
@@ -58,11 +63,20 @@ class CypherQueryBuilder implements CypherQueryDefinition {
 
         this.context = context;
         this.entity = context.getPersistentEntity(type);
+        this.entityTypes.add(type);
     }
 
+    /**
+     * Starts at the type index entries of the entity, queried with the parameter
+     * {@value QueryTemplates#TYPE_QUERY_PARAMETER} so that aliases and subtypes are resolved when the query runs.
+     */
     private String defaultStartClause() {
-        return String.format(QueryTemplates.DEFAULT_START_CLAUSE, this.variableContext.getVariableFor(entity), entity
-                .getType().getName());
+        return String.format(QueryTemplates.DEFAULT_START_CLAUSE, this.variableContext.getVariableFor(entity));
+    }
+
+    @Override
+    public boolean isStartedAtTypeIndex() {
+        return startClauses.isEmpty();
     }
 
     /**
@@ -86,6 +100,12 @@ class CypherQueryBuilder implements CypherQueryDefinition {
         }
         index += 1;
 
+        for (Neo4jPersistentProperty property : path) {
+            if (property.isRelationship()) {
+                entityTypes.add(property.getTypeInformation().getActualType().getType());
+            }
+        }
+
         MatchClause matchClause = new MatchClause(path);
 
         if (matchClause.hasRelationship()) {
@@ -112,10 +132,34 @@ class CypherQueryBuilder implements CypherQueryDefinition {
     */
     @Override
     public String toString() {
+        return render(null, variableContext.getVariableFor(entity));
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.neo4j.repository.query.CypherQueryDefinition#toCountString()
+     */
+    @Override
+    public String toCountString() {
+        return render(null, QueryTemplates.COUNT_CLAUSE);
+    }
+
+    @Override
+    public Collection<Class<?>> getEntityTypes() {
+        return entityTypes;
+    }
+
+    private String render(String additionalWhereClause, String returnClause) {
 
         String startClauses = collectionToDelimitedString(this.startClauses, ", ");
         String matchClauses = toString(this.matchClauses);
-        String whereClauses = collectionToDelimitedString(this.whereClauses, " and ");
+        List<String> where = new ArrayList<String>(this.whereClauses.size() + 1);
+        for (WhereClause whereClause : this.whereClauses) {
+            where.add(whereClause.toString());
+        }
+        if (additionalWhereClause != null) {
+            where.add(additionalWhereClause);
+        }
+        String whereClauses = collectionToDelimitedString(where, " and ");
 
         StringBuilder builder = new StringBuilder("start ");
 
@@ -133,7 +177,7 @@ class CypherQueryBuilder implements CypherQueryDefinition {
             builder.append(" where ").append(whereClauses);
         }
 
-        builder.append(" return ").append(variableContext.getVariableFor(entity));
+        builder.append(" return ").append(returnClause);
         return builder.toString();
     }
 
@@ -142,6 +186,9 @@ class CypherQueryBuilder implements CypherQueryDefinition {
      */
     @Override
     public String toString(Pageable pageable) {
+        if (pageable instanceof KeysetPageRequest) {
+            return toString((KeysetPageRequest) pageable);
+        }
 
         StringBuilder builder = new StringBuilder(toString(pageable.getSort()));
 
@@ -152,6 +199,17 @@ class CypherQueryBuilder implements CypherQueryDefinition {
         return builder.toString();
     }
 
+    /**
+     * Continues after the last element of the previous page instead of skipping, ordered by the sort and then by id.
+     */
+    private String toString(KeysetPageRequest pageable) {
+        final String variable = variableContext.getVariableFor(entity);
+        StringBuilder builder = new StringBuilder(render(pageable.isFirstPage() ? null : pageable.getKeyPredicate(variable), variable));
+        builder.append(String.format(QueryTemplates.ORDER_BY_CLAUSE, pageable.getKeyOrderBy(variable)));
+        builder.append(String.format(QueryTemplates.LIMIT, pageable.getPageSize()));
+        return builder.toString();
+    }
+
     /* (non-Javadoc)
      * @see org.springframework.data.neo4j.repository.query.CypherQueryDefinition#toString(org.springframework.data.domain.Sort)
      */
@@ -18,6 +18,8 @@ package org.springframework.data.neo4j.repository.query;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.util.Collection;
+
 /**
  * Interface to abstract Cypher query creation.
  * 
@@ -50,5 +52,27 @@ interface CypherQueryDefinition {
      */
     String toString(Pageable pageable);
 
+    /**
+     * Returns a Cypher query that counts the results of the query.
+     *
+     * @return
+     */
+    String toCountString();
+
+    /**
+     * Returns the entity types that are matched by the query.
+     *
+     * @return
+     */
+    Collection<Class<?>> getEntityTypes();
+
+    /**
+     * Returns whether the query starts at the type index entries of the entity and needs the index query as parameter
+     * {@value QueryTemplates#TYPE_QUERY_PARAMETER}.
+     *
+     * @return
+     */
+    boolean isStartedAtTypeIndex();
+
     PartInfo getPartInfo(int index);
 }
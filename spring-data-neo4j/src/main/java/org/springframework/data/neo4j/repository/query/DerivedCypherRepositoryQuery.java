@@ -15,17 +15,25 @@
  */
 package org.springframework.data.neo4j.repository.query;
 
+import org.apache.lucene.queryParser.QueryParser;
+import org.neo4j.graphdb.Node;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.neo4j.core.TypeRepresentationStrategy;
+import org.springframework.data.neo4j.repository.KeysetPageRequest;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 import org.springframework.data.neo4j.support.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
 import org.springframework.data.repository.core.EntityMetadata;
 import org.springframework.data.repository.query.ParameterAccessor;
 import org.springframework.data.repository.query.RepositoryQuery;
 import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.util.Assert;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * {@link RepositoryQuery} implementation that derives a Cypher query from the {@link GraphQueryMethod}'s method name.
  * 
@@ -34,6 +42,7 @@ import org.springframework.util.Assert;
 public class DerivedCypherRepositoryQuery extends CypherGraphRepositoryQuery {
 
     private final CypherQueryDefinition query;
+    private final Class<?> entityType;
 
     /**
      * Creates a new {@link DerivedCypherRepositoryQuery} from the given {@link MappingContext},
@@ -51,6 +60,7 @@ public class DerivedCypherRepositoryQuery extends CypherGraphRepositoryQuery {
         PartTree tree = new PartTree(queryMethod.getName(), info.getJavaType());
 
         this.query = new CypherQueryCreator(tree, mappingContext, info.getJavaType()).createQuery();
+        this.entityType = info.getJavaType();
     }
 
     @Override
@@ -63,6 +73,46 @@ public class DerivedCypherRepositoryQuery extends CypherGraphRepositoryQuery {
         return newValue;
     }
 
+    /**
+     * Adds the type index query of the entity if the query starts at the type index, and the last keys and id of a
+     * {@link KeysetPageRequest} as parameters for the keyset predicate.
+     */
+    @Override
+    protected Map<String, Object> resolveParams(ParameterAccessor accessor) {
+        final Map<String, Object> params = super.resolveParams(accessor);
+        if (query.isStartedAtTypeIndex()) {
+            params.put(QueryTemplates.TYPE_QUERY_PARAMETER, getTypeIndexQuery());
+        }
+        final Pageable pageable = accessor.getPageable();
+        if (pageable instanceof KeysetPageRequest) {
+            params.putAll(((KeysetPageRequest) pageable).getKeysetParameters());
+        }
+        return params;
+    }
+
+    /**
+     * @return the query for the same type index entries as the indexing type representation strategy finds, i.e. the
+     *         class name, alias and with a concrete type index the subtypes of the entity
+     */
+    private String getTypeIndexQuery() {
+        final TypeRepresentationStrategy<Node> strategy = getTemplate().getInfrastructure().getTypeRepresentationStrategies().getNodeTypeRepresentationStrategy();
+        if (strategy instanceof IndexingNodeTypeRepresentationStrategy) {
+            return ((IndexingNodeTypeRepresentationStrategy) strategy).getIndexQuery(entityType);
+        }
+        return String.format(QueryTemplates.PARAMETER_INDEX_QUERY, IndexingNodeTypeRepresentationStrategy.INDEX_KEY, QueryParser.escape(entityType.getName()));
+    }
+
+    @Override
+    protected String createCountQuery() {
+        final String countQuery = super.createCountQuery();
+        return countQuery != null ? countQuery : query.toCountString();
+    }
+
+    @Override
+    protected Collection<Class<?>> getCountedTypes() {
+        return super.createCountQuery() == null ? query.getEntityTypes() : null;
+    }
+
     /**
      * Returns the actual Cypher query applying {@link Pageable} or {@link Sort} instances.
      * 
@@ -55,6 +55,15 @@ public class GraphQueryMethod extends QueryMethod {
         return queryAnnotation != null ? queryAnnotation.value() : getNamedQuery();
     }
 
+    /**
+     * @return the count query of the annotation or the named query "&lt;query name&gt;.count", null if there is none
+     */
+    public String getCountQueryString() {
+        if (queryAnnotation != null && queryAnnotation.countQuery().length() > 0) return queryAnnotation.countQuery();
+        final String countQueryName = getNamedQueryName() + ".count";
+        return namedQueries.hasQuery(countQueryName) ? namedQueries.getQuery(countQueryName) : null;
+    }
+
     public boolean isValid() {
         return this.getQueryString() != null; // && this.compoundType != null
     }
@@ -21,8 +21,11 @@ import org.neo4j.helpers.collection.IteratorUtil;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.neo4j.conversion.EndResult;
+import org.springframework.data.neo4j.conversion.Result;
+import org.springframework.data.neo4j.repository.KeysetPageRequest;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 import org.springframework.data.neo4j.support.query.QueryEngine;
+import org.springframework.data.neo4j.support.query.QueryTotalsCache;
 import org.springframework.data.repository.query.ParameterAccessor;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.data.repository.query.RepositoryQuery;
@@ -84,8 +87,7 @@ abstract class GraphRepositoryQuery implements RepositoryQuery, ParameterResolve
         final QueryEngine<?> queryEngine = getQueryEngine();
         final Class<?> compoundType = queryMethod.getCompoundType();
         if (queryMethod.isPageQuery()) {
-            @SuppressWarnings("unchecked") final Iterable<?> result = queryEngine.query(queryString, params).to(compoundType);
-            return createPage(result, accessor.getPageable());
+            return createPage(queryEngine.query(queryString, params), accessor.getPageable(), compoundType, params);
         }
         if (queryMethod.isIterableResult()) {
             final EndResult<?> result = queryEngine.query(queryString, params).to(compoundType);
@@ -102,14 +104,69 @@ abstract class GraphRepositoryQuery implements RepositoryQuery, ParameterResolve
     }
 
 
+    /**
+     * @return true if the query string created for a pageable already restricts the result to the page
+     */
+    protected boolean isPagedByQuery() {
+        return false;
+    }
+
+    /**
+     * Results that are not paged by the query skip the elements before the page without converting them. The total is
+     * exact if the page is the last one, otherwise it is counted by the count query if there is one, else it is
+     * estimated to be one more than the page end.
+     */
     @SuppressWarnings({"unchecked", "rawtypes"})
-    protected Object createPage(Iterable<?> result, Pageable pageable) {
-        final List resultList = IteratorUtil.addToCollection(result, new ArrayList());
+    protected Object createPage(Result<?> result, Pageable pageable, Class<?> type, Map<String, Object> params) {
+        if (pageable != null && !isPagedByQuery()) {
+            result = result.slice(pageable.getOffset(), pageable.getPageSize());
+        }
+        final List resultList = IteratorUtil.addToCollection(result.to(type), new ArrayList());
         if (pageable==null) {
             return new PageImpl(resultList);
         }
-        final int currentTotal = pageable.getOffset() + pageable.getPageSize();
-        return new PageImpl(resultList, pageable, currentTotal);
+        final int pageEnd = pageable.getOffset() + resultList.size();
+        if (resultList.size() < pageable.getPageSize() && (!resultList.isEmpty() || pageable.getOffset() == 0)) {
+            return new PageImpl(resultList, pageable, pageEnd);
+        }
+        final Long total = countTotal(params, pageable);
+        return new PageImpl(resultList, pageable, total != null ? total : pageEnd + 1);
+    }
+
+    /**
+     * @return the count query for the total of a page, null if there is none
+     */
+    protected String createCountQuery() {
+        return queryMethod.getCountQueryString();
+    }
+
+    /**
+     * @return the entity types counted by the count query, null if unknown so that every commit invalidates a cached total
+     */
+    protected Collection<Class<?>> getCountedTypes() {
+        return null;
+    }
+
+    private Long countTotal(Map<String, Object> params, Pageable pageable) {
+        final String countQuery = createCountQuery();
+        if (countQuery == null) return null;
+        final Map<String, Object> countParams = new HashMap<String, Object>(params);
+        if (pageable instanceof KeysetPageRequest) {
+            countParams.keySet().removeAll(((KeysetPageRequest) pageable).getKeysetParameters().keySet());
+        }
+        final QueryTotalsCache totalsCache = template.getInfrastructure().getQueryTotalsCache();
+        if (totalsCache == null) return count(countQuery, countParams);
+        final Long cached = totalsCache.get(countQuery, countParams);
+        if (cached != null) return cached;
+        final long generation = totalsCache.getGeneration();
+        final long total = count(countQuery, countParams);
+        totalsCache.put(countQuery, countParams, getCountedTypes(), total, generation);
+        return total;
+    }
+
+    private long count(String countQuery, Map<String, Object> params) {
+        final Number count = getQueryEngine().query(countQuery, params).to(Number.class).singleOrNull();
+        return count != null ? count.longValue() : 0;
     }
 
     protected abstract QueryEngine<?> getQueryEngine();
@@ -27,14 +27,17 @@ public abstract class QueryTemplates {
 
     public static final String PARAMETER = "%d";
     public static final String PARAMETER_INDEX_QUERY = "%s:%s";
+    public static final String TYPE_QUERY_PARAMETER = "typeQuery";
 
     public static final String PLACEHOLDER = String.format("{%s}", PARAMETER);
     private static final String DIRECTION_INCOMING = "<-[:%s]-";
     private static final String DIRECTION_OUTGOING = "-[:%s]->";
     private static final String DIRECTION_BOTH = "-[:%s]-";
 
-    static final String DEFAULT_START_CLAUSE = "%s=node:__types__(className=\"%s\")";
+    static final String DEFAULT_START_CLAUSE = "%s=node:__types__({" + TYPE_QUERY_PARAMETER + "})";
     static final String SKIP_LIMIT = " skip %d limit %d";
+    static final String LIMIT = " limit %d";
+    static final String COUNT_CLAUSE = "count(*)";
     static final String START_CLAUSE = "%s=node:%s(%s=" + PLACEHOLDER + ")";
     static final String START_CLAUSE_FULLTEXT = "%s=node:%s(" + PLACEHOLDER + ")";
     static final String WHERE_CLAUSE_1 = "%s.%s %s " + PLACEHOLDER;
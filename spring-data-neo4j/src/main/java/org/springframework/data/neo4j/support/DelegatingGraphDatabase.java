@@ -33,9 +33,11 @@ import org.springframework.data.neo4j.core.GraphDatabase;
 import org.springframework.data.neo4j.support.index.IndexType;
 import org.springframework.data.neo4j.support.index.NoSuchIndexException;
 import org.springframework.data.neo4j.support.query.ConversionServiceQueryResultConverter;
+import org.springframework.data.neo4j.support.query.CypherQueryCache;
 import org.springframework.data.neo4j.support.query.CypherQueryEngine;
 import org.springframework.data.neo4j.support.query.GremlinQueryEngine;
 import org.springframework.data.neo4j.support.query.QueryEngine;
+import org.springframework.data.neo4j.support.query.QueryEngineCache;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 
@@ -53,6 +55,8 @@ public class DelegatingGraphDatabase implements GraphDatabase {
     protected GraphDatabaseService delegate;
     private ConversionService conversionService;
     private ResultConverter resultConverter;
+    private CypherQueryCache queryCache = new CypherQueryCache();
+    private final QueryEngineCache queryEngines = new QueryEngineCache();
     private static final Log log = LogFactory.getLog(DelegatingGraphDatabase.class);
 
     public DelegatingGraphDatabase(final GraphDatabaseService delegate) {
@@ -72,6 +76,18 @@ public class DelegatingGraphDatabase implements GraphDatabase {
         this.resultConverter = resultConverter;
     }
 
+    /**
+     * @param queryCacheSize maximum number of parsed cypher queries that are kept for reuse
+     */
+    public void setQueryCacheSize(int queryCacheSize) {
+        this.queryCache = new CypherQueryCache(queryCacheSize);
+        this.queryEngines.dispose();
+    }
+
+    public CypherQueryCache getQueryCache() {
+        return queryCache;
+    }
+
     @Override
     public Node getNodeById(long id) {
         return delegate.getNodeById(id);
@@ -170,19 +186,24 @@ public class DelegatingGraphDatabase implements GraphDatabase {
         return Traversal.description();
     }
 
-    // todo create query engines only once
     public <T> QueryEngine<T> queryEngineFor(QueryType type) {
         return queryEngineFor(type,createResultConverter());
     }
 
-    @SuppressWarnings("unchecked")
     public <T> QueryEngine<T> queryEngineFor(QueryType type,ResultConverter resultConverter) {
+        final QueryEngine<T> engine = queryEngines.get(type, resultConverter);
+        if (engine != null) return engine;
+        return queryEngines.add(type, resultConverter, this.<T>createQueryEngine(type, resultConverter));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> QueryEngine<T> createQueryEngine(QueryType type, ResultConverter resultConverter) {
         switch (type) {
             case Cypher:  {
                 if (!ClassUtils.isPresent("org.neo4j.cypher.javacompat.ExecutionEngine", getClass().getClassLoader())) {
                     return new FailingQueryEngine<T>("Cypher");
                 }
-                return (QueryEngine<T>)new CypherQueryEngine(delegate, resultConverter);
+                return (QueryEngine<T>)new CypherQueryEngine(delegate, resultConverter, queryCache);
             }
             case Gremlin: {
                 if (!ClassUtils.isPresent("com.tinkerpop.blueprints.pgm.impls.neo4j.Neo4jGraph", getClass().getClassLoader())) {
@@ -231,6 +252,8 @@ public class DelegatingGraphDatabase implements GraphDatabase {
     }
 
     public void shutdown() {
+        queryEngines.dispose();
+        queryCache.clear();
         delegate.shutdown();
     }
 
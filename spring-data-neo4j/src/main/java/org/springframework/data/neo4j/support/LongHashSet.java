@@ -0,0 +1,147 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.support;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash set of non-negative longs (e.g. node ids) without boxing, uses linear probing and backward
+ * shift deletion, the table is kept at most half full.
+ */
+public class LongHashSet {
+    private static final long FREE = -1;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+
+    public LongHashSet() {
+        this(8);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 8;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+    }
+
+    private int slot(long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static void check(long key) {
+        if (key < 0) throw new IllegalArgumentException("Only non-negative values can be stored, was " + key);
+    }
+
+    /**
+     * @return true if the value was not yet contained
+     */
+    public boolean add(long key) {
+        check(key);
+        if ((size + 1) * 2 > keys.length) resize();
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) return false;
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key < 0) return false;
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the value was contained
+     */
+    public boolean remove(long key) {
+        if (key < 0) return false;
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) return false;
+            i = (i + 1) & mask;
+        }
+        keys[i] = FREE;
+        size--;
+        // move following entries of the probe sequence into the gap unless they would end up before their slot
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == FREE) return true;
+            final int home = slot(keys[j]);
+            final boolean inPlace = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (inPlace) continue;
+            keys[i] = keys[j];
+            keys[j] = FREE;
+            i = j;
+        }
+    }
+
+    private void resize() {
+        final long[] old = keys;
+        allocate(old.length * 2);
+        size = 0;
+        for (long key : old) {
+            if (key != FREE) add(key);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    public long[] toArray() {
+        final long[] result = new long[size];
+        int count = 0;
+        for (long key : keys) {
+            if (key != FREE) result[count++] = key;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LongHashSet" + Arrays.toString(toArray());
+    }
+}
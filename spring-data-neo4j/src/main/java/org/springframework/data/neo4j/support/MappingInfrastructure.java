@@ -30,12 +30,17 @@ import org.springframework.data.neo4j.support.mapping.*;
 import org.springframework.data.neo4j.support.node.EntityStateFactory;
 import org.springframework.data.neo4j.support.node.NodeEntityInstantiator;
 import org.springframework.data.neo4j.support.query.CypherQueryExecutor;
+import org.springframework.data.neo4j.support.query.QueryTotalsCache;
+import org.springframework.data.neo4j.support.relationship.RelationshipChanges;
 import org.springframework.data.neo4j.support.relationship.RelationshipEntityInstantiator;
+import org.springframework.data.neo4j.support.relationship.RelationshipLookup;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
 import org.springframework.data.neo4j.support.typerepresentation.TypeRepresentationStrategies;
 import org.springframework.data.neo4j.support.typerepresentation.TypeRepresentationStrategyFactory;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.validation.Validator;
+import java.util.Set;
 
 /**
  * @author mh
@@ -65,6 +70,9 @@ public class MappingInfrastructure {
     private IndexProvider indexProvider;
     private GraphDatabaseService graphDatabaseService;
     private GraphDatabase graphDatabase;
+    private EntityCache entityCache;
+    private QueryTotalsCache queryTotalsCache;
+    private Set<String> highFanOutRelationshipTypes;
 
     public MappingInfrastructure(GraphDatabase graphDatabase, PlatformTransactionManager transactionManager) {
         this.graphDatabase = graphDatabase;
@@ -80,6 +88,13 @@ public class MappingInfrastructure {
         if (this.graphDatabase == null) {
             this.graphDatabase = new DelegatingGraphDatabase(graphDatabaseService);
         }
+        if (this.entityStateHandler == null) {
+            this.entityStateHandler = new EntityStateHandler(mappingContext, graphDatabase);
+        }
+        if (this.highFanOutRelationshipTypes != null) {
+            this.entityStateHandler.setRelationshipLookup(new RelationshipLookup(graphDatabase, highFanOutRelationshipTypes));
+        }
+        registerRelationshipChanges();
         if (nodeEntityInstantiator == null) {
             nodeEntityInstantiator = new NodeEntityInstantiator(entityStateHandler);
         }
@@ -97,10 +112,15 @@ public class MappingInfrastructure {
         }
         this.typeRepresentationStrategies = new TypeRepresentationStrategies(mappingContext, nodeTypeRepresentationStrategy, relationshipTypeRepresentationStrategy);
 
-        final EntityStateHandler entityStateHandler = new EntityStateHandler(mappingContext, graphDatabase);
         EntityTools<Node> nodeEntityTools = new EntityTools<Node>(nodeTypeRepresentationStrategy, nodeEntityStateFactory, nodeEntityInstantiator);
         EntityTools<Relationship> relationshipEntityTools = new EntityTools<Relationship>(relationshipTypeRepresentationStrategy, relationshipEntityStateFactory, relationshipEntityInstantiator);
-        this.entityPersister = new Neo4jEntityPersister(conversionService, nodeEntityTools, relationshipEntityTools, mappingContext, entityStateHandler);
+        if (this.entityCache != null) {
+            registerEntityCache();
+        }
+        if (this.queryTotalsCache != null) {
+            registerQueryTotalsCache();
+        }
+        this.entityPersister = new Neo4jEntityPersister(conversionService, nodeEntityTools, relationshipEntityTools, mappingContext, entityStateHandler, entityCache);
         this.entityRemover = new EntityRemover(this.entityStateHandler, nodeTypeRepresentationStrategy, relationshipTypeRepresentationStrategy, graphDatabase);
         this.indexProvider = new IndexProvider(mappingContext, graphDatabase);
         if (this.resultConverter==null) {
@@ -111,6 +131,51 @@ public class MappingInfrastructure {
     }
 
 
+    /**
+     * Lets snapshots of simple mapped entities detect relationship changes without iterating the relationships.
+     */
+    private void registerRelationshipChanges() {
+        final RelationshipLookup relationshipLookup = entityStateHandler.getRelationshipLookup();
+        if (relationshipLookup.getChanges() != null) return;
+        final GraphDatabaseService service = getEventSource();
+        final RelationshipChanges changes = new RelationshipChanges();
+        if (service != null && changes.registerWith(service)) {
+            relationshipLookup.setChanges(changes);
+        }
+    }
+
+    private void registerEntityCache() {
+        final GraphDatabaseService service = getEventSource();
+        if (service != null) {
+            entityCache.registerWith(service);
+        }
+    }
+
+    /**
+     * Without transaction events the totals could not be invalidated, so they are not cached at all.
+     */
+    private void registerQueryTotalsCache() {
+        queryTotalsCache.setIgnoreUntypedNodes(nodeTypeRepresentationStrategy instanceof IndexingNodeTypeRepresentationStrategy);
+        if (nodeTypeRepresentationStrategy instanceof IndexingNodeTypeRepresentationStrategy) {
+            queryTotalsCache.setTypeAliasRegistry(((IndexingNodeTypeRepresentationStrategy) nodeTypeRepresentationStrategy).getTypeAliasRegistry());
+        }
+        final GraphDatabaseService service = getEventSource();
+        if (service == null || !queryTotalsCache.registerWith(service)) {
+            queryTotalsCache = null;
+        }
+    }
+
+    private GraphDatabaseService getEventSource() {
+        GraphDatabaseService service = graphDatabaseService;
+        if (service == null && graphDatabase instanceof DelegatingGraphDatabase) {
+            service = ((DelegatingGraphDatabase) graphDatabase).getGraphDatabaseService();
+        }
+        if (service == null && graphDatabase instanceof GraphDatabaseService) {
+            service = (GraphDatabaseService) graphDatabase;
+        }
+        return service;
+    }
+
     public void setTransactionManager(PlatformTransactionManager transactionManager) {
         this.transactionManager = transactionManager;
     }
@@ -226,6 +291,36 @@ public class MappingInfrastructure {
         return mappingContext;
     }
 
+    /**
+     * @param entityCache second level cache for entities of {@link org.springframework.data.neo4j.annotation.Cached} types, none by default
+     */
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * @param highFanOutRelationshipTypes names of relationship types whose relationships are indexed by start and end node
+     * @see RelationshipLookup
+     */
+    public void setHighFanOutRelationshipTypes(Set<String> highFanOutRelationshipTypes) {
+        this.highFanOutRelationshipTypes = highFanOutRelationshipTypes;
+    }
+
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * @param queryTotalsCache cache for the totals of paged repository queries, none by default
+     */
+    public void setQueryTotalsCache(QueryTotalsCache queryTotalsCache) {
+        this.queryTotalsCache = queryTotalsCache;
+    }
+
+    public QueryTotalsCache getQueryTotalsCache() {
+        return queryTotalsCache;
+    }
+
     public void setTypeRepresentationStrategyFactory(TypeRepresentationStrategyFactory typeRepresentationStrategyFactory) {
         this.typeRepresentationStrategyFactory = typeRepresentationStrategyFactory;
     }
@@ -48,6 +48,8 @@ import org.springframework.data.neo4j.support.mapping.EntityStateHandler;
 import org.springframework.data.neo4j.support.mapping.Neo4jEntityPersister;
 import org.springframework.data.neo4j.support.mapping.Neo4jPersistentEntityImpl;
 import org.springframework.data.neo4j.support.query.QueryEngine;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.template.BatchSaveCallback;
 import org.springframework.data.neo4j.template.GraphCallback;
 import org.springframework.data.neo4j.template.Neo4jOperations;
 import org.springframework.data.util.ClassTypeInformation;
@@ -59,6 +61,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.PostConstruct;
 import javax.validation.Validator;
+import java.util.Iterator;
 import java.util.Map;
 
 import static org.springframework.data.neo4j.support.ParameterCheck.notNull;
@@ -160,6 +163,15 @@ public class Neo4jTemplate implements Neo4jOperations, EntityPersister {
         return new EntityCreatingClosableIterable<T>(all, entityClass,infrastructure.getEntityPersister());
     }
 
+    /**
+     * @return the nodes or relationships of all instances of the entity type, no entities are created
+     */
+    @SuppressWarnings("unchecked")
+    public <S extends PropertyContainer> ClosableIterable<S> findAllStates(final Class<?> entityClass) {
+        notNull(entityClass,"entity type");
+        return (ClosableIterable<S>) infrastructure.getTypeRepresentationStrategies().findAll(entityClass);
+    }
+
     @Override
     public <T> long count(final Class<T> entityClass) {
         notNull(entityClass,"entity type");
@@ -289,6 +301,72 @@ public class Neo4jTemplate implements Neo4jOperations, EntityPersister {
         return (T) infrastructure.getEntityPersister().persist(entity, getMappingPolicy(entity));
     }
 
+    @Override
+    public <T> long saveAll(Iterable<T> entities, int chunkSize) {
+        return saveAll(entities, chunkSize, null);
+    }
+
+    /**
+     * Each chunk runs in a single transaction, the transactions of the individual saves are nested in it and so
+     * index and type representation updates are written when the chunk commits.
+     */
+    @Override
+    public <T> long saveAll(Iterable<T> entities, final int chunkSize, BatchSaveCallback callback) {
+        notNull(entities, "entities");
+        if (chunkSize < 1) throw new InvalidDataAccessApiUsageException("chunkSize must be positive but was " + chunkSize);
+        final Iterator<T> it = entities.iterator();
+        long total = 0;
+        int chunk = 0;
+        while (it.hasNext()) {
+            final long start = System.currentTimeMillis();
+            final int saved = execInTransaction(new GraphCallback<Integer>() {
+                @Override
+                public Integer doWithGraph(GraphDatabase graph) throws Exception {
+                    int count = 0;
+                    while (count < chunkSize && it.hasNext()) {
+                        save(it.next());
+                        count++;
+                    }
+                    return count;
+                }
+            });
+            final long chunkMillis = System.currentTimeMillis() - start;
+            total += saved;
+            chunk++;
+            if (log.isDebugEnabled()) log.debug("Saved chunk " + chunk + " with " + saved + " entities in " + chunkMillis + " ms, total " + total);
+            if (callback != null) callback.chunkSaved(chunk, saved, total, chunkMillis);
+        }
+        return total;
+    }
+
+    /**
+     * Migrates the existing nodes of a {@link org.springframework.data.neo4j.annotation.TypeAlias} annotated type from
+     * its class name to its alias, chunkSize nodes per transaction. Only supported by the indexing node type
+     * representation strategy.
+     * @return the number of migrated nodes
+     */
+    public long migrateToTypeAlias(final Class<?> entityClass, final int chunkSize) {
+        notNull(entityClass, "entity type");
+        if (chunkSize < 1) throw new InvalidDataAccessApiUsageException("chunkSize must be positive but was " + chunkSize);
+        final TypeRepresentationStrategy<Node> strategy = infrastructure.getNodeTypeRepresentationStrategy();
+        if (!(strategy instanceof IndexingNodeTypeRepresentationStrategy)) {
+            throw new InvalidDataAccessApiUsageException("Type aliases are not supported by " + strategy);
+        }
+        final IndexingNodeTypeRepresentationStrategy indexingStrategy = (IndexingNodeTypeRepresentationStrategy) strategy;
+        long total = 0;
+        while (true) {
+            final int migrated = execInTransaction(new GraphCallback<Integer>() {
+                @Override
+                public Integer doWithGraph(GraphDatabase graph) throws Exception {
+                    return indexingStrategy.migrateToAlias(entityClass, chunkSize);
+                }
+            });
+            if (migrated == 0) return total;
+            total += migrated;
+            if (log.isDebugEnabled()) log.debug("Migrated " + total + " nodes of " + entityClass + " to its type alias");
+        }
+    }
+
     public boolean isManaged(Object entity) {
         return infrastructure.getEntityStateHandler().isManaged(entity);
     }
@@ -349,7 +427,8 @@ public class Neo4jTemplate implements Neo4jOperations, EntityPersister {
         return exec(new GraphCallback<Relationship>() {
             @Override
             public Relationship doWithGraph(GraphDatabase graph) throws Exception {
-                return graph.createRelationship(startNode, endNode, DynamicRelationshipType.withName(relationshipType), properties);
+                final Relationship relationship = graph.createRelationship(startNode, endNode, DynamicRelationshipType.withName(relationshipType), properties);
+                return getEntityStateHandler().getRelationshipLookup().created(relationship);
             }
         });
     }
@@ -386,6 +465,21 @@ public class Neo4jTemplate implements Neo4jOperations, EntityPersister {
         });
     }
 
+    /**
+     * like {@link #exec(GraphCallback)} but also runs in a (native) transaction if there is no transaction manager
+     */
+    private <T> T execInTransaction(final GraphCallback<T> callback) {
+        if (infrastructure.getTransactionManager() != null) return exec(callback);
+        final Transaction tx = beginTx();
+        try {
+            final T result = doExecute(callback);
+            tx.success();
+            return result;
+        } finally {
+            tx.finish();
+        }
+    }
+
     @Override
     public Node getReferenceNode() {
         try {
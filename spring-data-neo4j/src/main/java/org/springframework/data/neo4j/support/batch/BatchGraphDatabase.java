@@ -0,0 +1,145 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.batch;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.index.BatchInserterIndexProvider;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.index.impl.lucene.LuceneBatchInserterIndexProvider;
+import org.neo4j.kernel.impl.batchinsert.BatchInserter;
+import org.neo4j.kernel.impl.batchinsert.BatchInserterImpl;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+import org.springframework.data.neo4j.support.index.IndexType;
+import org.springframework.data.neo4j.support.index.NoSuchIndexException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Graph database for bulk imports, writes directly to the store files using a {@link BatchInserter} instead of
+ * transactions. Indexes are {@link BatchIndex}es backed by lucene batch inserter indexes. Used as graph database of the
+ * mapping infrastructure entities are saved with the regular mapping, including their @Indexed fields and the
+ * configured type representation strategy. Nodes and relationships can't be removed, index entries only until they are
+ * flushed, see {@link BatchIndex}.
+ * <p/>
+ * The batch inserter must be the only user of the store directory and is not thread safe. The store and the indexes
+ * are only complete after {@link #shutdown()}.
+ */
+public class BatchGraphDatabase extends DelegatingGraphDatabase {
+    private final BatchInserter inserter;
+    private final BatchInserterIndexProvider indexProvider;
+    private final Map<String, BatchIndex<Node>> nodeIndexes = new HashMap<String, BatchIndex<Node>>();
+    private final Map<String, BatchIndex<Relationship>> relationshipIndexes = new HashMap<String, BatchIndex<Relationship>>();
+
+    public BatchGraphDatabase(String storeDir) {
+        this(new BatchInserterImpl(storeDir));
+    }
+
+    public BatchGraphDatabase(String storeDir, Map<String, String> config) {
+        this(new BatchInserterImpl(storeDir, config));
+    }
+
+    public BatchGraphDatabase(BatchInserter inserter) {
+        super(inserter.getGraphDbService());
+        this.inserter = inserter;
+        this.indexProvider = new LuceneBatchInserterIndexProvider(inserter);
+    }
+
+    public BatchInserter getBatchInserter() {
+        return inserter;
+    }
+
+    @Override
+    public Node createNode(Map<String, Object> props) {
+        return getNodeById(inserter.createNode(withoutNullValues(props)));
+    }
+
+    private Map<String, Object> withoutNullValues(Map<String, Object> props) {
+        final Map<String, Object> result = new HashMap<String, Object>();
+        if (props == null) return result;
+        for (Map.Entry<String, Object> prop : props.entrySet()) {
+            if (prop.getValue() != null) result.put(prop.getKey(), prop.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * only indexes that were created by this batch graph database are known
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends PropertyContainer> Index<T> getIndex(String indexName) {
+        if (nodeIndexes.containsKey(indexName)) return (Index<T>) nodeIndexes.get(indexName);
+        if (relationshipIndexes.containsKey(indexName)) return (Index<T>) relationshipIndexes.get(indexName);
+        throw new NoSuchIndexException(indexName);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends PropertyContainer> Index<T> createIndex(Class<T> type, String indexName, IndexType indexType) {
+        if (isNode(type)) {
+            BatchIndex<Node> index = nodeIndexes.get(indexName);
+            if (index == null) {
+                index = new BatchIndex<Node>(indexName, Node.class, indexProvider.nodeIndex(indexName, indexConfigFor(indexType)), this);
+                nodeIndexes.put(indexName, index);
+            }
+            return (Index<T>) index;
+        }
+        BatchIndex<Relationship> index = relationshipIndexes.get(indexName);
+        if (index == null) {
+            index = new BatchIndex<Relationship>(indexName, Relationship.class, indexProvider.relationshipIndex(indexName, indexConfigFor(indexType)), this);
+            relationshipIndexes.put(indexName, index);
+        }
+        return (Index<T>) index;
+    }
+
+    private Map<String, String> indexConfigFor(IndexType indexType) {
+        if (indexType == IndexType.POINT) throw new UnsupportedOperationException("Spatial indexes are not supported for batch inserts");
+        return (indexType == null ? IndexType.SIMPLE : indexType).getConfig();
+    }
+
+    @Override
+    public void remove(Node node) {
+        throw new UnsupportedOperationException("Nodes can't be removed during batch inserts");
+    }
+
+    @Override
+    public void remove(Relationship relationship) {
+        throw new UnsupportedOperationException("Relationships can't be removed during batch inserts");
+    }
+
+    /**
+     * flushes all indexes so that their entries are visible to queries
+     */
+    public void flush() {
+        for (BatchIndex<Node> index : nodeIndexes.values()) {
+            index.flush();
+        }
+        for (BatchIndex<Relationship> index : relationshipIndexes.values()) {
+            index.flush();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        flush();
+        indexProvider.shutdown();
+        super.shutdown();
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.batch;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.index.BatchInserterIndex;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.graphdb.index.IndexHits;
+import org.springframework.data.neo4j.core.GraphDatabase;
+import org.springframework.data.neo4j.support.LongHashSet;
+
+import java.util.*;
+
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+/**
+ * Exposes a {@link BatchInserterIndex} as regular index, so that the mapping and the type representation strategies can
+ * use it unchanged. Additions are kept as pending entries per entity until the next query or {@link #flush()}, so the
+ * removals that precede each (re-)indexing of a property apply to them. Batch inserter indexes can't remove flushed
+ * entries, removing an entry of an entity with flushed entries under the key fails instead of leaving a stale entry.
+ * For that the ids of the entities with flushed entries are remembered per key.
+ */
+public class BatchIndex<T extends PropertyContainer> implements Index<T> {
+    private final String name;
+    private final Class<T> entityType;
+    private final BatchInserterIndex index;
+    private final GraphDatabase graphDatabase;
+    private final Map<Long, Map<String, Set<Object>>> pending = new LinkedHashMap<Long, Map<String, Set<Object>>>();
+    private final Map<String, LongHashSet> flushed = new HashMap<String, LongHashSet>();
+
+    public BatchIndex(String name, Class<T> entityType, BatchInserterIndex index, GraphDatabase graphDatabase) {
+        this.name = name;
+        this.entityType = entityType;
+        this.index = index;
+        this.graphDatabase = graphDatabase;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    @Override
+    public void add(T entity, String key, Object value) {
+        Map<String, Set<Object>> entries = pending.get(entity.getId());
+        if (entries == null) {
+            entries = new HashMap<String, Set<Object>>();
+            pending.put(entity.getId(), entries);
+        }
+        Set<Object> values = entries.get(key);
+        if (values == null) {
+            values = new LinkedHashSet<Object>();
+            entries.put(key, values);
+        }
+        values.add(value);
+    }
+
+    public T putIfAbsent(T entity, String key, Object value) {
+        final T existing = get(key, value).getSingle();
+        if (existing != null) return existing;
+        add(entity, key, value);
+        return null;
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the entity has flushed entries under the key
+     */
+    @Override
+    public void remove(T entity, String key, Object value) {
+        checkNotFlushed(entity, key);
+        final Map<String, Set<Object>> entries = pending.get(entity.getId());
+        if (entries == null) return;
+        final Set<Object> values = entries.get(key);
+        if (values == null) return;
+        values.remove(value);
+        if (values.isEmpty()) entries.remove(key);
+        if (entries.isEmpty()) pending.remove(entity.getId());
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the entity has flushed entries under the key
+     */
+    @Override
+    public void remove(T entity, String key) {
+        checkNotFlushed(entity, key);
+        final Map<String, Set<Object>> entries = pending.get(entity.getId());
+        if (entries == null) return;
+        entries.remove(key);
+        if (entries.isEmpty()) pending.remove(entity.getId());
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the entity has flushed entries
+     */
+    @Override
+    public void remove(T entity) {
+        for (String key : flushed.keySet()) {
+            checkNotFlushed(entity, key);
+        }
+        pending.remove(entity.getId());
+    }
+
+    private void checkNotFlushed(T entity, String key) {
+        final LongHashSet ids = flushed.get(key);
+        if (ids != null && ids.contains(entity.getId())) {
+            throw new UnsupportedOperationException("Entries of " + entity + " for " + key + " in batch index " + name + " were already flushed and can't be removed");
+        }
+    }
+
+    @Override
+    public void delete() {
+        throw new UnsupportedOperationException("Batch inserter indexes can't be deleted");
+    }
+
+    @Override
+    public IndexHits<T> get(String key, Object value) {
+        flush();
+        return new EntityIndexHits(index.get(key, value));
+    }
+
+    @Override
+    public IndexHits<T> query(String key, Object queryOrQueryObject) {
+        flush();
+        return new EntityIndexHits(index.query(key, queryOrQueryObject));
+    }
+
+    @Override
+    public IndexHits<T> query(Object queryOrQueryObject) {
+        flush();
+        return new EntityIndexHits(index.query(queryOrQueryObject));
+    }
+
+    @Override
+    public boolean isWriteable() {
+        return true;
+    }
+
+    /**
+     * writes the pending entries to the batch inserter index and makes them visible to queries
+     */
+    public void flush() {
+        if (pending.isEmpty()) return;
+        for (Map.Entry<Long, Map<String, Set<Object>>> entries : pending.entrySet()) {
+            final long id = entries.getKey();
+            for (Map.Entry<String, Set<Object>> entry : entries.getValue().entrySet()) {
+                final String key = entry.getKey();
+                for (Object value : entry.getValue()) {
+                    index.add(id, map(key, value));
+                }
+                flushedIds(key).add(id);
+            }
+        }
+        pending.clear();
+        index.flush();
+    }
+
+    private LongHashSet flushedIds(String key) {
+        LongHashSet ids = flushed.get(key);
+        if (ids == null) {
+            ids = new LongHashSet();
+            flushed.put(key, ids);
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T load(long id) {
+        if (Node.class.equals(entityType)) return (T) graphDatabase.getNodeById(id);
+        return (T) graphDatabase.getRelationshipById(id);
+    }
+
+    private class EntityIndexHits implements IndexHits<T> {
+        private final IndexHits<Long> ids;
+
+        private EntityIndexHits(IndexHits<Long> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public int size() {
+            return ids.size();
+        }
+
+        @Override
+        public void close() {
+            ids.close();
+        }
+
+        @Override
+        public T getSingle() {
+            final Long id = ids.getSingle();
+            return id == null ? null : load(id);
+        }
+
+        @Override
+        public float currentScore() {
+            return ids.currentScore();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return ids.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return load(ids.next());
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.mapping;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.springframework.data.neo4j.annotation.Cached;
+import org.springframework.data.neo4j.mapping.ManagedEntity;
+import org.springframework.data.neo4j.mapping.MappingPolicy;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Second level cache for entities of types annotated with {@link Cached}, it outlives single read operations and
+ * transactions. Entries are keyed by node or relationship, target type and {@link MappingPolicy}, evicted in LRU order
+ * when the maximum number of cached nodes and relationships is reached and reloaded after their time to live.
+ * <p/>
+ * The cached entities are never handed out, {@link #get} returns a copy of the cached entity and the entities loaded
+ * with it, so callers can modify their instances without affecting other callers or the cache.
+ * <p/>
+ * When registered with an embedded {@link GraphDatabaseService} (see {@link #registerWith}) committed changes to
+ * properties or relationships of a node or relationship invalidate its entries and the entries of all entities that
+ * loaded it (e.g. as fetched related entity), a rollback clears the whole cache. An entity that was loaded while a
+ * change was committed is not cached. Without transaction events (e.g. for the REST database) only the time to live
+ * limits staleness.
+ */
+public class EntityCache {
+    private static final Log log = LogFactory.getLog(EntityCache.class);
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_TIME_TO_LIVE_SECONDS = 60;
+    private static final long NOT_CACHED = -1;
+
+    private final int maxSize;
+    private final long timeToLiveMillis;
+    private final Map<StateKey, CachedState> entries;
+    private final Map<StateKey, Set<StateKey>> dependents = new HashMap<StateKey, Set<StateKey>>();
+    private final Map<Class<?>, Long> timeToLivePerType = new ConcurrentHashMap<Class<?>, Long>();
+    private final EntityCopier copier = new EntityCopier();
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public EntityCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE_SECONDS);
+    }
+
+    /**
+     * @param maxSize maximum number of nodes and relationships whose entities are cached
+     * @param timeToLiveSeconds default time after which a cached entity is reloaded
+     */
+    public EntityCache(final int maxSize, long timeToLiveSeconds) {
+        if (maxSize < 1) throw new IllegalArgumentException("Entity cache size must be positive but was " + maxSize);
+        this.maxSize = maxSize;
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLiveSeconds);
+        this.entries = new LinkedHashMap<StateKey, CachedState>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StateKey, CachedState> eldest) {
+                if (size() <= EntityCache.this.maxSize) return false;
+                evictions.incrementAndGet();
+                removeDependencies(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return true if entities of this type are kept in the cache
+     */
+    public boolean isCached(Class<?> type) {
+        return type != null && timeToLiveFor(type) != NOT_CACHED;
+    }
+
+    private long timeToLiveFor(Class<?> type) {
+        final Long cached = timeToLivePerType.get(type);
+        if (cached != null) return cached;
+        final Cached annotation = type.getAnnotation(Cached.class);
+        long timeToLive = NOT_CACHED;
+        if (annotation != null && !ManagedEntity.class.isAssignableFrom(type)) {
+            timeToLive = annotation.timeToLive() > 0 ? TimeUnit.SECONDS.toMillis(annotation.timeToLive()) : timeToLiveMillis;
+        }
+        timeToLivePerType.put(type, timeToLive);
+        return timeToLive;
+    }
+
+    /**
+     * @return a copy of the cached entity or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(PropertyContainer state, Class<T> type, MappingPolicy mappingPolicy) {
+        if (!isCached(type)) return null;
+        final StateKey stateKey = StateKey.of(state);
+        final EntryKey entryKey = new EntryKey(type, mappingPolicy);
+        final Entry entry;
+        synchronized (entries) {
+            final CachedState cachedState = entries.get(stateKey);
+            entry = cachedState == null ? null : cachedState.entries.get(entryKey);
+            if (entry != null && entry.isExpired()) {
+                cachedState.entries.remove(entryKey);
+                if (cachedState.entries.isEmpty()) remove(stateKey);
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return (T) copier.copy(entry.entity);
+    }
+
+    /**
+     * @return the current generation, to be passed to {@link #put} for an entity that is loaded afterwards
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the entity, the instance must not be handed out afterwards, use a {@link #copy} of it instead.
+     * @param dependencies nodes and relationships that were loaded with the entity, changes to them invalidate it too
+     * @param generation the generation before the entity was loaded, if something was invalidated since then the entity
+     *                   might be stale and is not cached
+     * @return true if the entity was cached
+     */
+    public <T> boolean put(PropertyContainer state, Class<T> type, MappingPolicy mappingPolicy, T entity, Collection<? extends PropertyContainer> dependencies, long generation) {
+        if (entity == null || !isCached(type)) return false;
+        final StateKey stateKey = StateKey.of(state);
+        final Entry entry = new Entry(entity, System.currentTimeMillis() + timeToLiveFor(type));
+        synchronized (entries) {
+            if (this.generation.get() != generation) return false;
+            CachedState cachedState = entries.get(stateKey);
+            if (cachedState == null) {
+                cachedState = new CachedState();
+                entries.put(stateKey, cachedState);
+            }
+            cachedState.entries.put(new EntryKey(type, mappingPolicy), entry);
+            if (dependencies != null) {
+                for (PropertyContainer dependency : dependencies) {
+                    addDependency(stateKey, cachedState, StateKey.of(dependency));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a copy of the entity and the entities loaded with it
+     */
+    public <T> T copy(T entity) {
+        return copier.copy(entity);
+    }
+
+    private void addDependency(StateKey stateKey, CachedState cachedState, StateKey dependency) {
+        if (dependency.equals(stateKey) || !cachedState.dependencies.add(dependency)) return;
+        Set<StateKey> stateKeys = dependents.get(dependency);
+        if (stateKeys == null) {
+            stateKeys = new HashSet<StateKey>(4);
+            dependents.put(dependency, stateKeys);
+        }
+        stateKeys.add(stateKey);
+    }
+
+    private void removeDependencies(StateKey stateKey, CachedState cachedState) {
+        for (StateKey dependency : cachedState.dependencies) {
+            final Set<StateKey> stateKeys = dependents.get(dependency);
+            if (stateKeys == null) continue;
+            stateKeys.remove(stateKey);
+            if (stateKeys.isEmpty()) dependents.remove(dependency);
+        }
+    }
+
+    private CachedState remove(StateKey stateKey) {
+        final CachedState removed = entries.remove(stateKey);
+        if (removed != null) removeDependencies(stateKey, removed);
+        return removed;
+    }
+
+    public void invalidate(PropertyContainer state) {
+        if (state == null) return;
+        invalidate(Collections.singleton(StateKey.of(state)));
+    }
+
+    /**
+     * Removes the entries of the states and of all entries that depend on them
+     */
+    private void invalidate(Collection<StateKey> stateKeys) {
+        int removed = 0;
+        synchronized (entries) {
+            generation.incrementAndGet();
+            final LinkedList<StateKey> pending = new LinkedList<StateKey>(stateKeys);
+            while (!pending.isEmpty()) {
+                final StateKey stateKey = pending.removeFirst();
+                final Set<StateKey> stateDependents = dependents.remove(stateKey);
+                if (stateDependents != null) pending.addAll(stateDependents);
+                if (remove(stateKey) != null) removed++;
+            }
+        }
+        invalidations.addAndGet(removed);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+            dependents.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    public double getHitRatio() {
+        final long hitCount = hits.get();
+        final long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Registers a transaction event handler that invalidates the entries of changed nodes and relationships on commit.
+     * @return false if the database doesn't support transaction events
+     */
+    public boolean registerWith(GraphDatabaseService graphDatabaseService) {
+        try {
+            graphDatabaseService.registerTransactionEventHandler(new InvalidatingTransactionEventHandler());
+            return true;
+        } catch (UnsupportedOperationException uoe) {
+            log.warn("Transaction events not supported by " + graphDatabaseService + ", cached entities are only refreshed after their time to live");
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EntityCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, invalidations=%d]",
+                size(), maxSize, getHitCount(), getMissCount(), getEvictionCount(), getInvalidationCount());
+    }
+
+    private class InvalidatingTransactionEventHandler implements TransactionEventHandler<Set<StateKey>> {
+        @Override
+        public Set<StateKey> beforeCommit(TransactionData data) throws Exception {
+            final Set<StateKey> changed = new HashSet<StateKey>();
+            for (Node node : data.deletedNodes()) changed.add(StateKey.of(node));
+            for (PropertyEntry<Node> entry : data.assignedNodeProperties()) changed.add(StateKey.of(entry.entity()));
+            for (PropertyEntry<Node> entry : data.removedNodeProperties()) changed.add(StateKey.of(entry.entity()));
+            for (PropertyEntry<Relationship> entry : data.assignedRelationshipProperties()) changed.add(StateKey.of(entry.entity()));
+            for (PropertyEntry<Relationship> entry : data.removedRelationshipProperties()) changed.add(StateKey.of(entry.entity()));
+            for (Relationship relationship : data.createdRelationships()) addWithNodes(changed, relationship);
+            for (Relationship relationship : data.deletedRelationships()) {
+                if (!addWithNodes(changed, relationship)) return null;
+            }
+            return changed;
+        }
+
+        private boolean addWithNodes(Set<StateKey> changed, Relationship relationship) {
+            try {
+                changed.add(StateKey.of(relationship));
+                changed.add(StateKey.of(relationship.getStartNode()));
+                changed.add(StateKey.of(relationship.getEndNode()));
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, Set<StateKey> changed) {
+            if (changed == null) { // not all changes could be determined
+                clear();
+                return;
+            }
+            if (!changed.isEmpty()) invalidate(changed);
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, Set<StateKey> changed) {
+            // entities read within the rolled back transaction might contain its changes
+            clear();
+        }
+    }
+
+    private static class StateKey {
+        private final boolean node;
+        private final long id;
+
+        private StateKey(boolean node, long id) {
+            this.node = node;
+            this.id = id;
+        }
+
+        static StateKey of(PropertyContainer state) {
+            if (state instanceof Node) return new StateKey(true, ((Node) state).getId());
+            if (state instanceof Relationship) return new StateKey(false, ((Relationship) state).getId());
+            throw new IllegalArgumentException("State has to be either a Node or a Relationship but was " + state);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StateKey)) return false;
+            final StateKey other = (StateKey) o;
+            return id == other.id && node == other.node;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (id ^ (id >>> 32)) + (node ? 1 : 0);
+        }
+    }
+
+    private static class EntryKey {
+        private final Class<?> type;
+        private final MappingPolicy mappingPolicy;
+
+        private EntryKey(Class<?> type, MappingPolicy mappingPolicy) {
+            this.type = type;
+            this.mappingPolicy = mappingPolicy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EntryKey)) return false;
+            final EntryKey other = (EntryKey) o;
+            return type.equals(other.type) && (mappingPolicy == null ? other.mappingPolicy == null : mappingPolicy.equals(other.mappingPolicy));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + (mappingPolicy == null ? 0 : mappingPolicy.hashCode());
+        }
+    }
+
+    private static class CachedState {
+        private final Map<EntryKey, Entry> entries = new HashMap<EntryKey, Entry>(4);
+        private final Set<StateKey> dependencies = new HashSet<StateKey>();
+    }
+
+    private static class Entry {
+        private final Object entity;
+        private final long expiresAt;
+
+        private Entry(Object entity, long expiresAt) {
+            this.entity = entity;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
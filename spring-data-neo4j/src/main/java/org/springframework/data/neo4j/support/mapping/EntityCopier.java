@@ -0,0 +1,161 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.mapping;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.annotation.RelationshipEntity;
+import org.springframework.data.neo4j.fieldaccess.DynamicProperties;
+import org.springframework.data.neo4j.fieldaccess.LazyRelationshipSet;
+import org.springframework.data.neo4j.fieldaccess.ManagedFieldAccessorSet;
+import org.springframework.data.neo4j.fieldaccess.ManagedPrefixedDynamicProperties;
+import org.springframework.util.ClassUtils;
+import sun.reflect.ReflectionFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies the graph of entities that was loaded for an entity, so that the instances kept in the {@link EntityCache}
+ * are never handed out. Entities and the collections and dynamic properties of their fields are copied, the managed
+ * collections and properties are bound to the copy of their entity. Other field values are shared.
+ */
+class EntityCopier {
+    private final Map<Class<?>, Constructor<?>> constructors = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+    private final Map<Class<?>, Field[]> fields = new ConcurrentHashMap<Class<?>, Field[]>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T copy(T entity) {
+        return (T) copyEntity(entity, new IdentityHashMap<Object, Object>());
+    }
+
+    private Object copyEntity(Object entity, Map<Object, Object> copies) {
+        final Object existing = copies.get(entity);
+        if (existing != null) return existing;
+        final Class<?> type = entity.getClass();
+        final Object copy = instantiate(type);
+        copies.put(entity, copy);
+        try {
+            for (Field field : fieldsOf(type)) {
+                field.set(copy, copyValue(field.get(entity), copy, copies));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Error copying entity of " + type, e);
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object copyValue(Object value, Object owner, Map<Object, Object> copies) {
+        if (value == null) return null;
+        if (value instanceof ManagedFieldAccessorSet) {
+            final ManagedFieldAccessorSet<Object> set = (ManagedFieldAccessorSet<Object>) value;
+            final Set<Object> elements = new HashSet<Object>(set.size());
+            for (Object element : set) {
+                elements.add(copyValue(element, owner, copies));
+            }
+            return set.copyFor(owner, elements);
+        }
+        if (value instanceof LazyRelationshipSet) {
+            return ((LazyRelationshipSet<?>) value).copyFor(owner);
+        }
+        if (value instanceof ManagedPrefixedDynamicProperties) {
+            return ((ManagedPrefixedDynamicProperties) value).copyFor(owner);
+        }
+        if (value instanceof DynamicProperties) {
+            final DynamicProperties properties = (DynamicProperties) value;
+            return properties.createFrom(properties.asMap());
+        }
+        if (isEntity(value.getClass())) {
+            return copyEntity(value, copies);
+        }
+        if (value instanceof Collection) {
+            final Collection<Object> collection = (Collection<Object>) newInstance(value.getClass());
+            if (collection == null) return value;
+            for (Object element : (Collection<Object>) value) {
+                collection.add(copyValue(element, owner, copies));
+            }
+            return collection;
+        }
+        if (value instanceof Map) {
+            final Map<Object, Object> map = (Map<Object, Object>) newInstance(value.getClass());
+            if (map == null) return value;
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+                map.put(entry.getKey(), copyValue(entry.getValue(), owner, copies));
+            }
+            return map;
+        }
+        return value;
+    }
+
+    private boolean isEntity(Class<?> type) {
+        return AnnotationUtils.findAnnotation(type, NodeEntity.class) != null
+                || AnnotationUtils.findAnnotation(type, RelationshipEntity.class) != null;
+    }
+
+    /**
+     * @return a new instance if the type has a public no-arg constructor (like the JDK collections), otherwise null
+     */
+    private Object newInstance(Class<?> type) {
+        final Constructor<?> constructor = ClassUtils.getConstructorIfAvailable(type);
+        if (constructor == null || !Modifier.isPublic(type.getModifiers())) return null;
+        try {
+            return constructor.newInstance();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Entities are created without invoking a constructor, their fields are all set from the original.
+     */
+    private Object instantiate(Class<?> type) {
+        Constructor<?> constructor = constructors.get(type);
+        if (constructor == null) {
+            try {
+                constructor = ReflectionFactory.getReflectionFactory().newConstructorForSerialization(type, Object.class.getDeclaredConstructor());
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+            constructors.put(type, constructor);
+        }
+        try {
+            return constructor.newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException("Error instantiating copy of " + type, e);
+        }
+    }
+
+    private Field[] fieldsOf(Class<?> type) {
+        Field[] result = fields.get(type);
+        if (result != null) return result;
+        final List<Field> list = new ArrayList<Field>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                field.setAccessible(true);
+                list.add(field);
+            }
+        }
+        result = list.toArray(new Field[list.size()]);
+        fields.put(type, result);
+        return result;
+    }
+}
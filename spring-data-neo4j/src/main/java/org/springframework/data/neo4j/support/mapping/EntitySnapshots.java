@@ -0,0 +1,309 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.support.mapping;
+
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.springframework.data.neo4j.fieldaccess.LazyRelatedSet;
+import org.springframework.data.neo4j.fieldaccess.ManagedFieldAccessorSet;
+import org.springframework.data.neo4j.fieldaccess.PropertySnapshot;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
+import org.springframework.data.neo4j.mapping.RelationshipInfo;
+import org.springframework.data.neo4j.support.LongHashSet;
+import org.springframework.data.neo4j.support.Neo4jTemplate;
+import org.springframework.data.neo4j.support.relationship.RelationshipChanges;
+import org.springframework.util.ObjectUtils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the property values of simple mapped entities as they were last read from or written to the graph, so that
+ * saving an entity only writes the properties and relationships that changed since. Entities are held weakly and by
+ * identity.
+ * <p/>
+ * Only values whose changes can be detected reliably are compared: immutable values, dates and arrays (copied), related
+ * entities (by identity) and collections of related node entities (memberships by identity). Any other value is always
+ * considered dirty, as are collections of relationship entities, so saving them still cascades to their elements.
+ * <p/>
+ * Next to the entity value the snapshot keeps what was stored in the graph (the property value or the ids of the
+ * related nodes). A value only counts as clean if the graph still holds that, so changes made through other instances
+ * or transactions in the meantime are overwritten by a save just like before. Whether relationships of the node were
+ * created or deleted since is looked up in the {@link RelationshipChanges} of the template in constant time, only
+ * without transaction events the relationships are iterated and compared with the remembered ids.
+ */
+class EntitySnapshots {
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+    private final ConcurrentMap<EntityReference, Snapshot> snapshots = new ConcurrentHashMap<EntityReference, Snapshot>();
+
+    static class Snapshot {
+        /**
+         * graph value of live views that always reflect the graph
+         */
+        private static final Object LIVE = new Object();
+
+        private final PropertyContainer state;
+        private final Neo4jTemplate template;
+        private final RelationshipChanges changes;
+        /**
+         * sequence number of the relationship changes before the entity was read
+         */
+        private final long since;
+        private final Map<Neo4jPersistentProperty, Object> values = new HashMap<Neo4jPersistentProperty, Object>();
+        private final Map<Neo4jPersistentProperty, Object> graphValues = new HashMap<Neo4jPersistentProperty, Object>();
+
+        Snapshot(PropertyContainer state, Neo4jTemplate template) {
+            this.state = state;
+            this.template = template;
+            final RelationshipChanges changes = template.getEntityStateHandler().getRelationshipLookup().getChanges();
+            this.changes = changes != null && changes.isTracking() ? changes : null;
+            this.since = this.changes != null ? this.changes.current() : -1;
+        }
+
+        /**
+         * Records the value that was just read from the graph.
+         */
+        void add(Neo4jPersistentProperty property, Object value) {
+            add(property, value, since, null);
+        }
+
+        /**
+         * Records the value that was just written to the graph, the relationships written by the running transaction
+         * don't count as later changes.
+         */
+        void addWritten(Neo4jPersistentProperty property, Object value) {
+            if (changes == null) {
+                add(property, value, -1, null);
+            } else {
+                add(property, value, changes.current(), changes.currentTransaction());
+            }
+        }
+
+        private void add(Neo4jPersistentProperty property, Object value, long since, RelationshipChanges.TransactionStamp commit) {
+            if (!isTracked(property, value)) return;
+            final Object graphValue = property.isRelationship() ? relatedNodes(value, since, commit) : storedValue(property, value);
+            if (graphValue == null) return;
+            values.put(property, copyOf(property, value));
+            graphValues.put(property, graphValue);
+        }
+
+        /**
+         * Takes over the value of a property that was clean in the previous snapshot and therefore not written.
+         */
+        void keep(Neo4jPersistentProperty property, Snapshot previous) {
+            values.put(property, previous.values.get(property));
+            graphValues.put(property, previous.graphValues.get(property));
+        }
+
+        boolean isClean(Neo4jPersistentProperty property, Object value) {
+            if (!values.containsKey(property) || !isTracked(property, value)) return false;
+            final Object snapshot = values.get(property);
+            if (property.isRelationship()) {
+                if (value instanceof Collection && !(value instanceof LazyRelatedSet)) {
+                    if (!(snapshot instanceof Collection && sameMembers((Collection<?>) snapshot, (Collection<?>) value))) return false;
+                } else if (snapshot != value) {
+                    return false;
+                }
+                final Object graphValue = graphValues.get(property);
+                return graphValue == LIVE || !isChanged(property, (RelatedNodes) graphValue);
+            }
+            return ObjectUtils.nullSafeEquals(snapshot, value) && ObjectUtils.nullSafeEquals(unwrap(graphValues.get(property)), state.getProperty(property.getNeo4jPropertyName(), null));
+        }
+
+        boolean isFor(PropertyContainer state) {
+            return this.state.equals(state);
+        }
+
+        /**
+         * @return the stored value, or null if the property is not to be tracked: a missing property only matches a null
+         * value, a default value read for it has still to be written
+         */
+        private Object storedValue(Neo4jPersistentProperty property, Object value) {
+            final String key = property.getNeo4jPropertyName();
+            final Map<String, Object> properties = PropertySnapshot.get(state);
+            final Object stored = properties != null ? properties.get(key) : state.getProperty(key, null);
+            if (stored == null) return value == null ? MISSING : null;
+            return stored.getClass().isArray() ? copyOfArray(stored) : stored;
+        }
+
+        /**
+         * @return the ids of the related nodes, or null if they are not known for all of them
+         */
+        private Object relatedNodes(Object value, long since, RelationshipChanges.TransactionStamp commit) {
+            if (value instanceof LazyRelatedSet) return LIVE;
+            if (!(state instanceof Node)) return null;
+            if (value instanceof ManagedFieldAccessorSet) {
+                final LongHashSet ids = ((ManagedFieldAccessorSet<?>) value).getTargetNodeIds();
+                if (ids != null) return new RelatedNodes(ids, since, commit);
+            }
+            final Collection<?> related = value == null ? Collections.emptySet() : value instanceof Collection ? (Collection<?>) value : Collections.singleton(value);
+            final LongHashSet ids = new LongHashSet(related.size());
+            for (Object element : related) {
+                final PropertyContainer relatedState = template.getPersistentState(element);
+                if (!(relatedState instanceof Node)) return null;
+                ids.add(((Node) relatedState).getId());
+            }
+            return new RelatedNodes(ids, since, commit);
+        }
+
+        private boolean isChanged(Neo4jPersistentProperty property, RelatedNodes relatedNodes) {
+            final Node node = (Node) state;
+            if (changes != null && relatedNodes.since != -1) return changes.isChangedSince(node, relatedNodes.since, relatedNodes.commit);
+            final RelationshipInfo info = property.getRelationshipInfo();
+            final LongHashSet seen = new LongHashSet(relatedNodes.ids.size());
+            for (Relationship relationship : node.getRelationships(DynamicRelationshipType.withName(info.getType()), info.getDirection())) {
+                final long id = relationship.getOtherNode(node).getId();
+                if (!relatedNodes.ids.contains(id) || !seen.add(id)) return true;
+            }
+            return seen.size() != relatedNodes.ids.size();
+        }
+    }
+
+    /**
+     * graph value of a relationship property: the ids of the related nodes and when they were known to be current
+     */
+    private static class RelatedNodes {
+        private final LongHashSet ids;
+        /**
+         * sequence number of the {@link RelationshipChanges}, -1 if changes are not tracked
+         */
+        private final long since;
+        /**
+         * commit of the transaction that wrote the relationships, null if they were read
+         */
+        private final RelationshipChanges.TransactionStamp commit;
+
+        private RelatedNodes(LongHashSet ids, long since, RelationshipChanges.TransactionStamp commit) {
+            this.ids = ids;
+            this.since = since;
+            this.commit = commit;
+        }
+    }
+
+    /**
+     * graph value of a property that is not stored
+     */
+    private static final Object MISSING = new Object();
+
+    private static Object unwrap(Object graphValue) {
+        return graphValue == MISSING ? null : graphValue;
+    }
+
+    Snapshot get(Object entity, PropertyContainer state) {
+        purge();
+        final Snapshot snapshot = snapshots.get(new EntityReference(entity, null));
+        if (snapshot == null || !snapshot.isFor(state)) return null;
+        return snapshot;
+    }
+
+    void put(Object entity, Snapshot snapshot) {
+        purge();
+        snapshots.put(new EntityReference(entity, queue), snapshot);
+    }
+
+    void remove(Object entity) {
+        purge();
+        snapshots.remove(new EntityReference(entity, null));
+    }
+
+    int size() {
+        purge();
+        return snapshots.size();
+    }
+
+    private void purge() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            snapshots.remove(reference);
+        }
+    }
+
+    private static boolean isTracked(Neo4jPersistentProperty property, Object value) {
+        if (property.isRelationship()) {
+            if (!property.getRelationshipInfo().targetsNodes()) return false;
+            return value == null || !(value instanceof Collection) || value instanceof Set;
+        }
+        if (value == null) return true;
+        if (value instanceof String || value instanceof Boolean || value instanceof Character || value instanceof Enum) return true;
+        if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) return true;
+        if (value instanceof Float || value instanceof Double || value instanceof BigInteger || value instanceof BigDecimal) return true;
+        if (value instanceof Date) return value.getClass() == Date.class;
+        return value.getClass().isArray() && isTrackedArrayComponent(value.getClass().getComponentType());
+    }
+
+    private static boolean isTrackedArrayComponent(Class<?> type) {
+        return type.isPrimitive() || type == String.class || Number.class.isAssignableFrom(type) && type.getName().startsWith("java.lang.");
+    }
+
+    private static Object copyOf(Neo4jPersistentProperty property, Object value) {
+        if (value == null) return null;
+        if (property.isRelationship()) {
+            if (!(value instanceof Collection) || value instanceof LazyRelatedSet) return value;
+            final Set<Object> members = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+            members.addAll((Collection<?>) value);
+            return members;
+        }
+        if (value instanceof Date) return new Date(((Date) value).getTime());
+        if (value.getClass().isArray()) return copyOfArray(value);
+        return value;
+    }
+
+    private static Object copyOfArray(Object value) {
+        final int length = Array.getLength(value);
+        final Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return copy;
+    }
+
+    private static boolean sameMembers(Collection<?> snapshot, Collection<?> value) {
+        if (snapshot.size() != value.size()) return false;
+        for (Object member : value) {
+            if (!snapshot.contains(member)) return false;
+        }
+        return true;
+    }
+
+    private static class EntityReference extends WeakReference<Object> {
+        private final int hash;
+
+        EntityReference(Object entity, ReferenceQueue<Object> queue) {
+            super(entity, queue);
+            this.hash = System.identityHashCode(entity);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EntityReference)) return false;
+            final Object entity = get();
+            return entity != null && entity == ((EntityReference) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.neo4j.graphdb.*;
 import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.neo4j.core.GraphDatabase;
 import org.springframework.data.neo4j.mapping.*;
+import org.springframework.data.neo4j.support.relationship.RelationshipLookup;
 
 /**
  * @author mh
@@ -28,10 +29,20 @@ public class EntityStateHandler {
 
     private Neo4jMappingContext mappingContext;
     private final GraphDatabase graphDatabase;
+    private RelationshipLookup relationshipLookup;
 
     public EntityStateHandler(Neo4jMappingContext mappingContext, GraphDatabase graphDatabase) {
         this.mappingContext = mappingContext;
         this.graphDatabase = graphDatabase;
+        this.relationshipLookup = new RelationshipLookup(graphDatabase);
+    }
+
+    public RelationshipLookup getRelationshipLookup() {
+        return relationshipLookup;
+    }
+
+    public void setRelationshipLookup(RelationshipLookup relationshipLookup) {
+        this.relationshipLookup = relationshipLookup;
     }
 
     @SuppressWarnings("unchecked")
@@ -59,6 +70,7 @@ public class EntityStateHandler {
     public boolean hasPersistentState(Object entity) {
         if (entity instanceof PropertyContainer) return true;
         if (isManaged(entity)) return ((ManagedEntity) entity).getPersistentState() != null;
+        if (PersistentStateContext.get(entity) != null) return true;
         return getId(entity) != null;
     }
 
@@ -81,6 +93,8 @@ public class EntityStateHandler {
         if (isManaged(entity)) {
             return ((ManagedEntity<S, Object>) entity).getPersistentState();
         }
+        final S boundState = PersistentStateContext.get(entity);
+        if (boundState != null) return boundState;
         final Number id = getId(entity);
         if (id == null) return null;
         long graphId = id.longValue();
@@ -128,7 +142,7 @@ public class EntityStateHandler {
         final Neo4jPersistentProperty endNodeProperty = relationshipProperties.getEndNodeProperty();
         Node endNode = (Node) getPersistentState(endNodeProperty.getValue(entity, endNodeProperty.getMappingPolicy()));
         RelationshipType relationshipType = getRelationshipType(persistentEntity,entity);
-        return (S) startNode.createRelationshipTo(endNode, relationshipType);
+        return (S) relationshipLookup.create(startNode, endNode, relationshipType);
     }
 
     private RelationshipType getRelationshipType(Neo4jPersistentEntity persistentEntity, Object entity) {
@@ -168,7 +182,7 @@ public class EntityStateHandler {
         if (sourceNode == null) throw new IllegalArgumentException("Source Node  is null");
         if (targetNode == null) throw new IllegalArgumentException("Target Node is null");
 
-        final Relationship relationship = sourceNode.createRelationshipTo(targetNode, DynamicRelationshipType.withName(type));
+        final Relationship relationship = relationshipLookup.create(sourceNode, targetNode, DynamicRelationshipType.withName(type));
         return new RelationshipResult(relationship, RelationshipResult.Type.NEW);
     }
 
@@ -182,7 +196,7 @@ public class EntityStateHandler {
     public RelationshipResult removeRelationshipTo(Object source, Object target, String relationshipType) {
         final Relationship relationship = getRelationshipBetween(source, target, relationshipType);
         if (relationship!=null) {
-           relationship.delete();
+           relationshipLookup.delete(relationship);
            return new RelationshipResult(relationship, RelationshipResult.Type.DELETED);
         }
         return null;
@@ -195,13 +209,12 @@ public class EntityStateHandler {
         Node node = getPersistentState(source);
         Node targetNode = getPersistentState(target);
         if (node == null || targetNode == null) return null;
-        Iterable<Relationship> relationships = node.getRelationships(DynamicRelationshipType.withName(type),Direction.OUTGOING);
-        for (Relationship relationship : relationships) {
-            if (relationship.getOtherNode(node).equals(targetNode)) return relationship;
-        }
-        return null;
+        return relationshipLookup.find(node, targetNode, DynamicRelationshipType.withName(type), Direction.OUTGOING);
     }
 
+    /**
+     * Uses the state bound to the entities for a running mapping operation, if any, instead of looking it up.
+     */
     public final boolean equals(Object first, Object second) {
         if (second == first) return true;
         if (second == null) return false;
@@ -213,6 +226,7 @@ public class EntityStateHandler {
     }
 
     /**
+     * Uses the state bound to the entity for a running mapping operation, if any, instead of looking it up.
      * @return result of the hashCode of the underlying node (if any, otherwise identityHashCode)
      */
     public final int hashCode(Object entity) {
@@ -0,0 +1,398 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.mapping;
+
+import net.sf.cglib.core.ReflectUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Generates (with ASM, which comes with cglib) one class per entity class that reads and writes its properties with
+ * plain method and field instructions. Getters and setters are invoked directly, so private fields with accessor
+ * methods are covered too; fields without accessors are only accessed directly if they are not private or final.
+ * The class is defined in the class loader and package of the entity, all members that are not visible there are
+ * left to reflection. Each entity class is generated once for all generators (i.e. mapping contexts) of the class loader.
+ */
+class FieldAccessGenerator {
+    private static final Log log = LogFactory.getLog(FieldAccessGenerator.class);
+    private static final String CLASS_SUFFIX = "$$Neo4jFieldAccess";
+
+    /**
+     * generated classes of all generators, neither the weak keys nor the weak values keep an entity class and its class
+     * loader from being unloaded, the generators that use a generated class hold it strongly
+     */
+    private static final Map<Class<?>, Reference<GeneratedClass>> sharedClasses = new WeakHashMap<Class<?>, Reference<GeneratedClass>>();
+    private static int regenerated;
+
+    private final Map<Class<?>, GeneratedClass> generatedClasses = new HashMap<Class<?>, GeneratedClass>();
+    private final boolean available;
+
+    FieldAccessGenerator() {
+        this.available = ClassUtils.isPresent("org.objectweb.asm.ClassWriter", getClass().getClassLoader());
+    }
+
+    /**
+     * @return direct access to the field of an entity of the owner type, or null if it has to be accessed by reflection
+     */
+    public GeneratedFieldAccess fieldAccessFor(Class<?> owner, Field field) {
+        final GeneratedClass generatedClass = classFor(owner);
+        if (generatedClass == null) return null;
+        return generatedClass.accessFor(field, field, field.getType());
+    }
+
+    /**
+     * Access with the semantics of a bean wrapper: the getter and setter of the descriptor are used if present, the
+     * field otherwise.
+     *
+     * @return direct access to the property of an entity of the owner type, or null if it has to be accessed by reflection
+     */
+    public GeneratedFieldAccess propertyAccessFor(Class<?> owner, Field field, PropertyDescriptor descriptor) {
+        final GeneratedClass generatedClass = classFor(owner);
+        if (generatedClass == null) return null;
+        final Method readMethod = descriptor == null ? null : descriptor.getReadMethod();
+        final Method writeMethod = descriptor == null ? null : descriptor.getWriteMethod();
+        final Member getter = readMethod != null ? readMethod : field;
+        if (writeMethod == null) return generatedClass.accessFor(getter, field, field.getType());
+        return generatedClass.accessFor(getter, writeMethod, writeMethod.getParameterTypes()[0]);
+    }
+
+    private synchronized GeneratedClass classFor(Class<?> owner) {
+        if (!available) return null;
+        GeneratedClass generatedClass = generatedClasses.get(owner);
+        if (generatedClass == null) {
+            generatedClass = sharedClassFor(owner);
+            generatedClasses.put(owner, generatedClass);
+        }
+        return generatedClass;
+    }
+
+    /**
+     * A class that was collected after all its generators were, is still defined in the class loader of the entity, so
+     * it is generated again with a new name.
+     */
+    private static GeneratedClass sharedClassFor(Class<?> owner) {
+        synchronized (sharedClasses) {
+            final Reference<GeneratedClass> reference = sharedClasses.get(owner);
+            GeneratedClass generatedClass = reference == null ? null : reference.get();
+            if (generatedClass == null) {
+                final String className = owner.getName() + CLASS_SUFFIX + (reference == null ? "" : "$" + (++regenerated));
+                generatedClass = generate(owner, className);
+                sharedClasses.put(owner, new WeakReference<GeneratedClass>(generatedClass));
+            }
+            return generatedClass;
+        }
+    }
+
+    private static GeneratedClass generate(Class<?> type, String className) {
+        final List<Member> getters = new ArrayList<Member>();
+        final List<Member> setters = new ArrayList<Member>();
+        if (type.getClassLoader() != null && !type.isInterface() && isAccessible(type, type)) {
+            collectFields(type, getters, setters);
+            collectAccessors(type, getters, setters);
+        }
+        if (getters.isEmpty() && setters.isEmpty()) return new GeneratedClass(null, getters, setters);
+        try {
+            final byte[] bytes = Bytecode.generate(className, type, getters, setters);
+            return new GeneratedClass((IndexedFieldAccess) ReflectUtils.defineClass(className, bytes, type.getClassLoader()).newInstance(), getters, setters);
+        } catch (Throwable t) {
+            log.warn("Could not generate field access for " + type + ", falling back to reflection", t);
+            return new GeneratedClass(null, getters, setters);
+        }
+    }
+
+    private static void collectFields(Class<?> type, List<Member> getters, List<Member> setters) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!isDirectlyAccessible(field, type)) continue;
+                getters.add(field);
+                if (!Modifier.isFinal(field.getModifiers())) setters.add(field);
+            }
+        }
+    }
+
+    private static void collectAccessors(Class<?> type, List<Member> getters, List<Member> setters) {
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+            final Method readMethod = descriptor.getReadMethod();
+            if (readMethod != null && isDirectlyAccessible(readMethod, type)) getters.add(readMethod);
+            final Method writeMethod = descriptor.getWriteMethod();
+            if (writeMethod != null && isDirectlyAccessible(writeMethod, type)) setters.add(writeMethod);
+        }
+    }
+
+    private static boolean isDirectlyAccessible(Field field, Class<?> owner) {
+        final int modifiers = field.getModifiers();
+        if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers) || field.isSynthetic()) return false;
+        if (!isVisible(field, owner)) return false;
+        return isAccessible(field.getType(), owner);
+    }
+
+    private static boolean isDirectlyAccessible(Method method, Class<?> owner) {
+        final int modifiers = method.getModifiers();
+        if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers)) return false;
+        if (!isVisible(method, owner)) return false;
+        if (!isAccessible(method.getReturnType(), owner)) return false;
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isAccessible(parameterType, owner)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * protected and package visible members are only accessible if declared in the package of the owner, methods are
+     * invoked on the owner type but fields are referenced on their declaring class
+     */
+    private static boolean isVisible(Member member, Class<?> owner) {
+        if (!Modifier.isPublic(member.getModifiers())) return isSamePackage(member.getDeclaringClass(), owner);
+        return member instanceof Method || isAccessible(member.getDeclaringClass(), owner);
+    }
+
+    private static boolean isAccessible(Class<?> type, Class<?> from) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) return true;
+        final int modifiers = type.getModifiers();
+        if (Modifier.isPublic(modifiers)) return true;
+        if (Modifier.isPrivate(modifiers)) return false;
+        return isSamePackage(type, from);
+    }
+
+    private static boolean isSamePackage(Class<?> type, Class<?> from) {
+        return type.getClassLoader() == from.getClassLoader() && packageOf(type).equals(packageOf(from));
+    }
+
+    private static String packageOf(Class<?> type) {
+        final String name = type.getName();
+        final int idx = name.lastIndexOf('.');
+        return idx == -1 ? "" : name.substring(0, idx);
+    }
+
+    private static class GeneratedClass {
+        private final IndexedFieldAccess access;
+        private final List<Member> getters;
+        private final List<Member> setters;
+
+        private GeneratedClass(IndexedFieldAccess access, List<Member> getters, List<Member> setters) {
+            this.access = access;
+            this.getters = getters;
+            this.setters = setters;
+        }
+
+        public GeneratedFieldAccess accessFor(Member getter, Member setter, Class<?> valueType) {
+            if (access == null) return null;
+            final int getIndex = getters.indexOf(getter);
+            final int setIndex = setters.indexOf(setter);
+            if (getIndex == -1 && setIndex == -1) return null;
+            return new GeneratedFieldAccess(access, getIndex, setIndex, valueType);
+        }
+    }
+
+    /**
+     * Direct access to a single property, one of reading and writing may still require reflection, see
+     * {@link #canGet()}. Values that reflection would have to convert or reject (e.g. null for primitive
+     * fields) are not handled here, see {@link #canSet(Object)}.
+     */
+    static class GeneratedFieldAccess {
+        private final IndexedFieldAccess access;
+        private final int getIndex;
+        private final int setIndex;
+        private final Class<?> valueType;
+        private final boolean primitive;
+
+        GeneratedFieldAccess(IndexedFieldAccess access, int getIndex, int setIndex, Class<?> valueType) {
+            this.access = access;
+            this.getIndex = getIndex;
+            this.setIndex = setIndex;
+            this.primitive = valueType.isPrimitive();
+            this.valueType = primitive ? ClassUtils.resolvePrimitiveIfNecessary(valueType) : valueType;
+        }
+
+        public boolean canGet() {
+            return getIndex != -1;
+        }
+
+        public Object get(Object entity) {
+            return access.get(entity, getIndex);
+        }
+
+        public boolean canSet(Object value) {
+            if (setIndex == -1) return false;
+            if (value == null) return !primitive;
+            return primitive ? value.getClass() == valueType : valueType.isInstance(value);
+        }
+
+        public void set(Object entity, Object value) {
+            access.set(entity, setIndex, value);
+        }
+    }
+
+    /**
+     * Only loaded if ASM is available.
+     */
+    private static class Bytecode implements Opcodes {
+        private static final String ACCESS_INTERFACE = Type.getInternalName(IndexedFieldAccess.class);
+        private static final String OBJECT = "java/lang/Object";
+
+        static byte[] generate(String className, Class<?> type, List<Member> getters, List<Member> setters) {
+            final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            cw.visit(V1_5, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, className.replace('.', '/'), null, OBJECT, new String[]{ACCESS_INTERFACE});
+            generateConstructor(cw);
+            generateGet(cw, Type.getInternalName(type), getters);
+            generateSet(cw, Type.getInternalName(type), setters);
+            cw.visitEnd();
+            return cw.toByteArray();
+        }
+
+        private static void generateConstructor(ClassWriter cw) {
+            final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V");
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private static void generateGet(ClassWriter cw, String owner, List<Member> getters) {
+            final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "get", "(Ljava/lang/Object;I)Ljava/lang/Object;", null, null);
+            mv.visitCode();
+            final Label unknown = new Label();
+            final Label[] labels = switchOnIndex(mv, getters.size(), unknown);
+            for (int i = 0; i < labels.length; i++) {
+                final Member member = getters.get(i);
+                mv.visitLabel(labels[i]);
+                mv.visitVarInsn(ALOAD, 1);
+                if (member instanceof Field) {
+                    final Field field = (Field) member;
+                    final String declaringClass = Type.getInternalName(field.getDeclaringClass());
+                    mv.visitTypeInsn(CHECKCAST, declaringClass);
+                    mv.visitFieldInsn(GETFIELD, declaringClass, field.getName(), Type.getDescriptor(field.getType()));
+                    box(mv, field.getType());
+                } else {
+                    final Method method = (Method) member;
+                    mv.visitTypeInsn(CHECKCAST, owner);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method));
+                    box(mv, method.getReturnType());
+                }
+                mv.visitInsn(ARETURN);
+            }
+            mv.visitLabel(unknown);
+            throwUnknownIndex(mv);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private static void generateSet(ClassWriter cw, String owner, List<Member> setters) {
+            final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "set", "(Ljava/lang/Object;ILjava/lang/Object;)V", null, null);
+            mv.visitCode();
+            final Label unknown = new Label();
+            final Label[] labels = switchOnIndex(mv, setters.size(), unknown);
+            for (int i = 0; i < labels.length; i++) {
+                final Member member = setters.get(i);
+                mv.visitLabel(labels[i]);
+                mv.visitVarInsn(ALOAD, 1);
+                if (member instanceof Field) {
+                    final Field field = (Field) member;
+                    final String declaringClass = Type.getInternalName(field.getDeclaringClass());
+                    mv.visitTypeInsn(CHECKCAST, declaringClass);
+                    mv.visitVarInsn(ALOAD, 3);
+                    unbox(mv, field.getType());
+                    mv.visitFieldInsn(PUTFIELD, declaringClass, field.getName(), Type.getDescriptor(field.getType()));
+                } else {
+                    final Method method = (Method) member;
+                    mv.visitTypeInsn(CHECKCAST, owner);
+                    mv.visitVarInsn(ALOAD, 3);
+                    unbox(mv, method.getParameterTypes()[0]);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method));
+                    discard(mv, method.getReturnType());
+                }
+                mv.visitInsn(RETURN);
+            }
+            mv.visitLabel(unknown);
+            throwUnknownIndex(mv);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private static Label[] switchOnIndex(MethodVisitor mv, int count, Label unknown) {
+            final Label[] labels = labels(count);
+            if (count == 0) return labels;
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitTableSwitchInsn(0, count - 1, unknown, labels);
+            return labels;
+        }
+
+        /**
+         * drops the return value of fluent setters
+         */
+        private static void discard(MethodVisitor mv, Class<?> type) {
+            if (type == void.class) return;
+            mv.visitInsn(type == long.class || type == double.class ? POP2 : POP);
+        }
+
+        private static Label[] labels(int count) {
+            final Label[] labels = new Label[count];
+            for (int i = 0; i < count; i++) {
+                labels[i] = new Label();
+            }
+            return labels;
+        }
+
+        private static void throwUnknownIndex(MethodVisitor mv) {
+            mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "()V");
+            mv.visitInsn(ATHROW);
+        }
+
+        private static void box(MethodVisitor mv, Class<?> type) {
+            if (!type.isPrimitive()) return;
+            final String wrapper = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+            mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + Type.getDescriptor(type) + ")L" + wrapper + ";");
+        }
+
+        private static void unbox(MethodVisitor mv, Class<?> type) {
+            if (!type.isPrimitive()) {
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+                return;
+            }
+            final String wrapper = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+            mv.visitTypeInsn(CHECKCAST, wrapper);
+            mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, type.getName() + "Value", "()" + Type.getDescriptor(type));
+        }
+    }
+}
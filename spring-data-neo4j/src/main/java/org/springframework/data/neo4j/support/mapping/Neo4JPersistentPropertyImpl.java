@@ -50,6 +50,8 @@ class Neo4jPersistentPropertyImpl extends AbstractPersistentProperty<Neo4jPersis
     private Map<Class<? extends Annotation>, ? extends Annotation> annotations;
     private Association<Neo4jPersistentProperty> myAssociation;
     private String defaultValue;
+    private final FieldAccessGenerator.GeneratedFieldAccess generatedFieldAccess;
+    private final FieldAccessGenerator.GeneratedFieldAccess generatedPropertyAccess;
 
     public Neo4jPersistentPropertyImpl(Field field, PropertyDescriptor propertyDescriptor,
                                        PersistentEntity<?, Neo4jPersistentProperty> owner, SimpleTypeHolder simpleTypeHolder, Neo4jMappingContext ctx) {
@@ -60,6 +62,18 @@ class Neo4jPersistentPropertyImpl extends AbstractPersistentProperty<Neo4jPersis
         this.isIdProperty = annotations.containsKey(GraphId.class);
         this.defaultValue = extractDefaultValue();
         this.myAssociation = isAssociation() ? super.getAssociation() == null ? createAssociation() : super.getAssociation() : null;
+        if (!field.isAccessible()) field.setAccessible(true);
+        final FieldAccessGenerator generator = isSyntheticField() ? null : ctx.getFieldAccessGenerator();
+        this.generatedFieldAccess = generator == null ? null : generator.fieldAccessFor(owner.getType(), field);
+        this.generatedPropertyAccess = generator == null ? null : generator.propertyAccessFor(owner.getType(), field, propertyDescriptor);
+    }
+
+    /**
+     * @return generated access that uses the getter and setter of the property if present (like a bean wrapper does)
+     * and the field otherwise, or null if the property can only be accessed by reflection
+     */
+    FieldAccessGenerator.GeneratedFieldAccess getGeneratedPropertyAccess() {
+        return generatedPropertyAccess;
     }
 
     private String extractDefaultValue() {
@@ -113,8 +127,11 @@ class Neo4jPersistentPropertyImpl extends AbstractPersistentProperty<Neo4jPersis
 
     @Override
     public void setValue(Object entity, Object newValue) {
+        if (generatedFieldAccess != null && generatedFieldAccess.canSet(newValue)) {
+            generatedFieldAccess.set(entity, newValue);
+            return;
+        }
         try {
-            if (!field.isAccessible()) field.setAccessible(true);
             field.set(entity, newValue);
         } catch (IllegalAccessException e) {
             throw new MappingException("Could not access field "+field+" for setting value "+newValue+" on "+this);
@@ -214,9 +231,8 @@ class Neo4jPersistentPropertyImpl extends AbstractPersistentProperty<Neo4jPersis
 
     @Override
     public Object getValueFromEntity(Object entity, final MappingPolicy mappingPolicy) {
+        if (generatedFieldAccess != null && generatedFieldAccess.canGet()) return generatedFieldAccess.get(entity);
         try {
-            final Field field = getField();
-            if (!field.isAccessible()) field.setAccessible(true);
             return field.get(entity);
         } catch (IllegalAccessException e) {
             throw new MappingException("Could not access field "+field);
@@ -20,6 +20,7 @@ import org.neo4j.graphdb.PropertyContainer;
 import org.neo4j.graphdb.Relationship;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.mapping.model.BeanWrapper;
+import org.springframework.data.neo4j.fieldaccess.LazyRelatedSet;
 import org.springframework.data.neo4j.mapping.MappingPolicy;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentEntity;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
@@ -51,6 +52,7 @@ public class Neo4jEntityFetchHandler {
         //MappingPolicy mappingPolicy = mappingPolicy.combineWith(property.getMappingPolicy());
         final MappingPolicy mappingPolicy = property.getMappingPolicy();
         if (!mappingPolicy.shouldLoad()) return value;
+        if (value instanceof LazyRelatedSet) return value;
         if (property.getTypeInformation().isCollectionLike()) {
             List<Object> replacement = new ArrayList<Object>();
             for (Object inner : ((Iterable) value)) {
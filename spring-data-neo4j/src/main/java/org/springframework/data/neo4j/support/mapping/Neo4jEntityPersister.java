@@ -22,6 +22,8 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.neo4j.mapping.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,14 +38,21 @@ public class Neo4jEntityPersister implements EntityPersister, Neo4jEntityConvert
     private final Neo4jMappingContext mappingContext;
 
     public Neo4jEntityPersister(ConversionService conversionService, EntityTools<Node> nodeEntityTools, EntityTools<Relationship> relationshipEntityTools, Neo4jMappingContext mappingContext, EntityStateHandler entityStateHandler) {
+        this(conversionService, nodeEntityTools, relationshipEntityTools, mappingContext, entityStateHandler, null);
+    }
+
+    /**
+     * @param entityCache optional second level cache for entities of {@link org.springframework.data.neo4j.annotation.Cached} types, may be null
+     */
+    public Neo4jEntityPersister(ConversionService conversionService, EntityTools<Node> nodeEntityTools, EntityTools<Relationship> relationshipEntityTools, Neo4jMappingContext mappingContext, EntityStateHandler entityStateHandler, EntityCache entityCache) {
         this.mappingContext = mappingContext;
         this.entityStateHandler = entityStateHandler;
 
         Neo4jEntityFetchHandler fetchHandler=new Neo4jEntityFetchHandler(entityStateHandler, conversionService, nodeEntityTools.getSourceStateTransmitter(), relationshipEntityTools.getSourceStateTransmitter());
 
-        this.nodeConverter = new CachedConverter<Node>(new Neo4jEntityConverterImpl<Object,Node>(mappingContext, conversionService, entityStateHandler, fetchHandler, nodeEntityTools));
+        this.nodeConverter = new CachedConverter<Node>(new Neo4jEntityConverterImpl<Object,Node>(mappingContext, conversionService, entityStateHandler, fetchHandler, nodeEntityTools), entityCache);
 
-        this.relationshipConverter = new CachedConverter<Relationship>(new Neo4jEntityConverterImpl<Object,Relationship>(mappingContext, conversionService, entityStateHandler, fetchHandler, relationshipEntityTools));
+        this.relationshipConverter = new CachedConverter<Relationship>(new Neo4jEntityConverterImpl<Object,Relationship>(mappingContext, conversionService, entityStateHandler, fetchHandler, relationshipEntityTools), entityCache);
 
     }
 
@@ -113,6 +122,31 @@ public class Neo4jEntityPersister implements EntityPersister, Neo4jEntityConvert
             return stackedEntityCache.get();
         }
 
+        /**
+         * Starts a separate cache for the current thread, so that an entity that is put into the second level cache
+         * doesn't share instances with the surrounding read.
+         * @return the current cache to be passed to {@link #restore}
+         */
+        public static StackedEntityCache isolate() {
+            final StackedEntityCache current = cache();
+            final StackedEntityCache isolated = new StackedEntityCache();
+            isolated.depth = 1;
+            stackedEntityCache.set(isolated);
+            return current;
+        }
+
+        /**
+         * @return the states that were read since {@link #isolate}
+         */
+        public static Collection<PropertyContainer> restore(StackedEntityCache previous) {
+            final Collection<PropertyContainer> states = new ArrayList<PropertyContainer>(cache().objects.size());
+            for (Entry entry : cache().objects.keySet()) {
+                states.add(entry.state);
+            }
+            stackedEntityCache.set(previous);
+            return states;
+        }
+
         public static boolean contains(PropertyContainer state, MappingPolicy mappingPolicy) {
             return cache().objects.containsKey(new Entry(state,mappingPolicy));
         }
@@ -139,9 +173,15 @@ public class Neo4jEntityPersister implements EntityPersister, Neo4jEntityConvert
     }
     public static class CachedConverter<S extends PropertyContainer> implements Neo4jEntityConverter<Object,S> {
         private final Neo4jEntityConverter<Object,S> delegate;
+        private final EntityCache entityCache;
 
         public CachedConverter(Neo4jEntityConverter<Object, S> delegate) {
+            this(delegate, null);
+        }
+
+        public CachedConverter(Neo4jEntityConverter<Object, S> delegate, EntityCache entityCache) {
             this.delegate = delegate;
+            this.entityCache = entityCache;
         }
 
         @Override
@@ -165,14 +205,38 @@ public class Neo4jEntityPersister implements EntityPersister, Neo4jEntityConvert
                 if (state==null) throw new IllegalArgumentException("State must not be null");
                 StackedEntityCache.push();
                 if (StackedEntityCache.contains(state, mappingPolicy)) return StackedEntityCache.get(state,mappingPolicy);
+                if (entityCache != null && entityCache.isCached(type)) {
+                    final R cached = entityCache.get(state, type, mappingPolicy);
+                    if (cached != null) return StackedEntityCache.add(state, cached, mappingPolicy);
+                    return StackedEntityCache.add(state, readAndCache(type, state, mappingPolicy), mappingPolicy);
+                }
                 return StackedEntityCache.add(state, delegate.read(type, state,mappingPolicy),mappingPolicy);
             } finally {
                 StackedEntityCache.pop();
             }
         }
 
+        /**
+         * The entity is read in isolation, the states it loaded become its dependencies in the cache. A cached entity is
+         * never handed out, the caller gets a copy.
+         */
+        private <R> R readAndCache(Class<R> type, S state, MappingPolicy mappingPolicy) {
+            final long generation = entityCache.getGeneration();
+            final StackedEntityCache previous = StackedEntityCache.isolate();
+            final R entity;
+            Collection<PropertyContainer> loaded;
+            try {
+                entity = delegate.read(type, state, mappingPolicy);
+            } finally {
+                loaded = StackedEntityCache.restore(previous);
+            }
+            if (!entityCache.put(state, type, mappingPolicy, entity, loaded, generation)) return entity;
+            return entityCache.copy(entity);
+        }
+
         @Override
         public void write(Object source, S sink,MappingPolicy mappingPolicy) {
+            if (entityCache != null) entityCache.invalidate(sink);
             delegate.write(source,sink,mappingPolicy);
         }
     }
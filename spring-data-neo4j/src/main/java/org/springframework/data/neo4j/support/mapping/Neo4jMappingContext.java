@@ -28,6 +28,9 @@ import org.springframework.data.util.TypeInformation;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Neo4J specific {@link MappingContext} implementation. Simply creates {@link Neo4jPersistentEntityImpl} and
@@ -37,6 +40,20 @@ import java.lang.reflect.Field;
  */
 public class Neo4jMappingContext extends AbstractMappingContext<Neo4jPersistentEntityImpl<?>, Neo4jPersistentProperty> {
 
+    private FieldAccessGenerator fieldAccessGenerator = new FieldAccessGenerator();
+
+    /**
+     * @param generatedFieldAccess if true (the default) properties of entity classes are read and written by generated classes
+     *                             instead of reflection where possible, only affects entity types that are not yet known
+     */
+    public void setGeneratedFieldAccess(boolean generatedFieldAccess) {
+        this.fieldAccessGenerator = generatedFieldAccess ? new FieldAccessGenerator() : null;
+    }
+
+    FieldAccessGenerator getFieldAccessGenerator() {
+        return fieldAccessGenerator;
+    }
+
     protected <T> Neo4jPersistentEntityImpl<?> createPersistentEntity(TypeInformation<T> typeInformation) {
         final Class<T> type = typeInformation.getType();
         if (type.isAnnotationPresent(NodeEntity.class)) {
@@ -70,6 +87,18 @@ public class Neo4jMappingContext extends AbstractMappingContext<Neo4jPersistentE
         }
     }
 
+    /**
+     * @return the known entity types that are subtypes of the given type, not including the type itself
+     */
+    public Collection<Class<?>> getSubTypes(Class<?> type) {
+        final List<Class<?>> subTypes = new ArrayList<Class<?>>();
+        for (Neo4jPersistentEntityImpl<?> entity : getPersistentEntities()) {
+            final Class<?> entityType = entity.getType();
+            if (entityType != type && type.isAssignableFrom(entityType)) subTypes.add(entityType);
+        }
+        return subTypes;
+    }
+
     public void setPersistentState(Object entity, PropertyContainer pc) {
         final Neo4jPersistentEntityImpl<?> persistentEntity = getPersistentEntity(entity.getClass());
         persistentEntity.setPersistentState(entity, pc);
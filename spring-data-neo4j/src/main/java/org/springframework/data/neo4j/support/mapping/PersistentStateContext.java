@@ -0,0 +1,63 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.support.mapping;
+
+import org.neo4j.graphdb.PropertyContainer;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Thread bound entity to node/relationship bindings for the duration of a mapping operation. While an entity is
+ * copied from or to its state, the field accessors ask for its persistent state over and over again, for non-managed
+ * entities this would mean reading the id field and looking up the node or relationship every time
+ * (a round trip in REST mode).
+ * <p/>
+ * Bindings can be nested (e.g. cascading saves), {@link #unbind} restores the previous binding of the entity.
+ */
+class PersistentStateContext {
+    private static ThreadLocal<Map<Object, PropertyContainer>> states = new ThreadLocal<Map<Object, PropertyContainer>>();
+
+    /**
+     * @return the state the entity was bound to before, to be passed to {@link #unbind}
+     */
+    static PropertyContainer bind(Object entity, PropertyContainer state) {
+        Map<Object, PropertyContainer> map = states.get();
+        if (map == null) {
+            map = new IdentityHashMap<Object, PropertyContainer>();
+            states.set(map);
+        }
+        return map.put(entity, state);
+    }
+
+    static void unbind(Object entity, PropertyContainer previous) {
+        final Map<Object, PropertyContainer> map = states.get();
+        if (map == null) return;
+        if (previous != null) {
+            map.put(entity, previous);
+            return;
+        }
+        map.remove(entity);
+        if (map.isEmpty()) states.remove();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S extends PropertyContainer> S get(Object entity) {
+        final Map<Object, PropertyContainer> map = states.get();
+        if (map == null) return null;
+        return (S) map.get(entity);
+    }
+}
@@ -23,14 +23,21 @@ import org.springframework.data.mapping.PropertyHandler;
 import org.springframework.data.mapping.model.BeanWrapper;
 import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.neo4j.core.EntityState;
+import org.springframework.data.neo4j.fieldaccess.PropertySnapshot;
+import org.springframework.data.neo4j.mapping.ManagedEntity;
 import org.springframework.data.neo4j.mapping.MappingPolicy;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentEntity;
 import org.springframework.data.neo4j.mapping.Neo4jPersistentProperty;
 import org.springframework.data.neo4j.support.DoReturn;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 import org.springframework.data.neo4j.support.node.EntityStateFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
 
+import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
 
 /**
  * @author mh
@@ -38,6 +45,7 @@ import java.lang.reflect.InvocationTargetException;
  */
 public class SourceStateTransmitter<S extends PropertyContainer> {
     private final EntityStateFactory<S> entityStateFactory;
+    private final EntitySnapshots snapshots = new EntitySnapshots();
 
     public SourceStateTransmitter(EntityStateFactory<S> entityStateFactory) {
         this.entityStateFactory = entityStateFactory;
@@ -51,19 +59,30 @@ public class SourceStateTransmitter<S extends PropertyContainer> {
             final EntityState<S> entityState = entityStateFactory.getEntityState(entity, false);
             entityState.setPersistentState(source);
 //            entityState.persist();
-            persistentEntity.doWithProperties(new PropertyHandler<Neo4jPersistentProperty>() {
-                @Override
-                public void doWithPersistentProperty(Neo4jPersistentProperty property) {
-                    copyEntityStatePropertyValue(property, entityState, wrapper, property.getMappingPolicy());  // TODO intelligent mappingPolicy.combineWith(property.getMappingPolicy())
-                }
-            });
-            persistentEntity.doWithAssociations(new AssociationHandler<Neo4jPersistentProperty>() {
-                @Override
-                public void doWithAssociation(Association<Neo4jPersistentProperty> association) {
-                    final Neo4jPersistentProperty property = association.getInverse();
-                    copyEntityStatePropertyValue(property, entityState, wrapper, property.getMappingPolicy());  // TODO intelligent mappingPolicy.combineWith(property.getMappingPolicy())
-                }
-            });
+            final EntitySnapshots.Snapshot snapshot = isDirtyChecked(entity) ? new EntitySnapshots.Snapshot(source, getTemplate()) : null;
+            final PropertyContainer previousState = PersistentStateContext.bind(entity, source);
+            final Map<String, Object> previousSnapshot = PropertySnapshot.bind(source, PropertySnapshot.read(source));
+            try {
+                persistentEntity.doWithProperties(new PropertyHandler<Neo4jPersistentProperty>() {
+                    @Override
+                    public void doWithPersistentProperty(Neo4jPersistentProperty property) {
+                        final Object value = copyEntityStatePropertyValue(property, entityState, wrapper, property.getMappingPolicy());  // TODO intelligent mappingPolicy.combineWith(property.getMappingPolicy())
+                        if (snapshot != null) snapshot.add(property, value);
+                    }
+                });
+                persistentEntity.doWithAssociations(new AssociationHandler<Neo4jPersistentProperty>() {
+                    @Override
+                    public void doWithAssociation(Association<Neo4jPersistentProperty> association) {
+                        final Neo4jPersistentProperty property = association.getInverse();
+                        final Object value = copyEntityStatePropertyValue(property, entityState, wrapper, property.getMappingPolicy());  // TODO intelligent mappingPolicy.combineWith(property.getMappingPolicy())
+                        if (snapshot != null) snapshot.add(property, value);
+                    }
+                });
+            } finally {
+                PropertySnapshot.unbind(source, previousSnapshot);
+                PersistentStateContext.unbind(entity, previousState);
+            }
+            if (snapshot != null) snapshots.put(entity, snapshot);
   //          tx.success();
             return entity;
 /*        } finally {
@@ -72,10 +91,42 @@ public class SourceStateTransmitter<S extends PropertyContainer> {
 */
     }
 
-    private <R> void setEntityStateValue(Neo4jPersistentProperty property, EntityState<S> entityState, BeanWrapper<Neo4jPersistentEntity<R>, R> wrapper, final MappingPolicy mappingPolicy) {
+    /**
+     * Writes the property unless both its value and what is stored in the graph are unchanged since the entity was
+     * last read or saved.
+     * @param previous snapshot of the last read or save, null if unknown
+     * @param snapshot collects the written values, null if the entity is not dirty checked
+     */
+    private <R> void setEntityStateValue(Neo4jPersistentProperty property, EntityState<S> entityState, BeanWrapper<Neo4jPersistentEntity<R>, R> wrapper, final MappingPolicy mappingPolicy, EntitySnapshots.Snapshot previous, EntitySnapshots.Snapshot snapshot) {
         if (!entityState.isWritable(property)) return;
         final Object value = getProperty(wrapper, property);
+        if (previous != null && previous.isClean(property, value)) {
+            if (snapshot != null) snapshot.keep(property, previous);
+            return;
+        }
         entityState.setValue(property, value, mappingPolicy);
+        if (snapshot != null) snapshot.addWritten(property, value);
+    }
+
+    private boolean isDirtyChecked(Object entity) {
+        return !(entity instanceof ManagedEntity);
+    }
+
+    /**
+     * The snapshot of a save is only valid once the transaction has committed, within a transaction that is not
+     * synchronized with spring the next save writes all properties again.
+     */
+    private void rememberSnapshot(final Object entity, final EntitySnapshots.Snapshot snapshot, boolean transactionWasRunning) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) snapshots.put(entity, snapshot);
+                }
+            });
+        } else if (!transactionWasRunning) {
+            snapshots.put(entity, snapshot);
+        }
     }
 
     private Neo4jTemplate getTemplate() {
@@ -92,7 +143,18 @@ public class SourceStateTransmitter<S extends PropertyContainer> {
         }
     }
 
+    /**
+     * properties are read by generated getter or field access where possible, otherwise properties without accessor
+     * methods are read from the field directly, the bean wrapper would use reflection
+     */
     private <R> Object getProperty(BeanWrapper<Neo4jPersistentEntity<R>, R> wrapper, Neo4jPersistentProperty property) {
+        final FieldAccessGenerator.GeneratedFieldAccess access = generatedAccess(property);
+        if (access != null && access.canGet()) {
+            return access.get(wrapper.getBean());
+        }
+        if (isFieldOnly(property.getPropertyDescriptor(), false)) {
+            return property.getValueFromEntity(wrapper.getBean(), property.getMappingPolicy());
+        }
         try {
             return wrapper.getProperty(property);
         } catch (IllegalAccessException e) {
@@ -103,6 +165,15 @@ public class SourceStateTransmitter<S extends PropertyContainer> {
     }
 
     public <R> void setProperty(BeanWrapper<Neo4jPersistentEntity<R>, ?> wrapper, Neo4jPersistentProperty property, Object value) {
+        final FieldAccessGenerator.GeneratedFieldAccess access = generatedAccess(property);
+        if (access != null && access.canSet(value)) {
+            access.set(wrapper.getBean(), value);
+            return;
+        }
+        if (isFieldOnly(property.getPropertyDescriptor(), true) && ClassUtils.isAssignableValue(property.getType(), value)) {
+            property.setValue(wrapper.getBean(), value);
+            return;
+        }
         try {
             wrapper.setProperty(property,value);
         } catch (IllegalAccessException e) {
@@ -112,6 +183,16 @@ public class SourceStateTransmitter<S extends PropertyContainer> {
         }
     }
 
+    private FieldAccessGenerator.GeneratedFieldAccess generatedAccess(Neo4jPersistentProperty property) {
+        if (!(property instanceof Neo4jPersistentPropertyImpl)) return null;
+        return ((Neo4jPersistentPropertyImpl) property).getGeneratedPropertyAccess();
+    }
+
+    private boolean isFieldOnly(PropertyDescriptor descriptor, boolean write) {
+        if (descriptor == null) return true;
+        return (write ? descriptor.getWriteMethod() : descriptor.getReadMethod()) == null;
+    }
+
     private <R> Object copyEntityStatePropertyValue(Neo4jPersistentProperty property, EntityState<S> nodeState, BeanWrapper<Neo4jPersistentEntity<R>, R> wrapper, final MappingPolicy mappingPolicy) {
         final Object value = DoReturn.unwrap(nodeState.getValue(property, mappingPolicy));
         setProperty(wrapper, property, value);
@@ -119,31 +200,43 @@ public class SourceStateTransmitter<S extends PropertyContainer> {
     }
 
     public <R> void copyPropertiesTo(final BeanWrapper<Neo4jPersistentEntity<R>, R> wrapper, S target, Neo4jPersistentEntity<R> persistentEntity, MappingPolicy mappingPolicy) {
+        final R entity = wrapper.getBean();
+        final boolean dirtyChecked = isDirtyChecked(entity);
+        final EntitySnapshots.Snapshot previous = dirtyChecked ? snapshots.get(entity, target) : null;
+        final EntitySnapshots.Snapshot snapshot = dirtyChecked ? new EntitySnapshots.Snapshot(target, getTemplate()) : null;
+        if (dirtyChecked) snapshots.remove(entity);
+        final boolean transactionWasRunning = getTemplate().transactionIsRunning();
         final Transaction tx = getTemplate().beginTx();
         try {
             //final Node targetNode = useGetOrCreateNode(node, persistentEntity, wrapper);
-            final EntityState<S> entityState = entityStateFactory.getEntityState(wrapper.getBean(), false);
+            final EntityState<S> entityState = entityStateFactory.getEntityState(entity, false);
             entityState.setPersistentState(target);
             entityState.persist();
-            // todo take mapping policies for attributes into account
-            persistentEntity.doWithProperties(new PropertyHandler<Neo4jPersistentProperty>() {
-                @Override
-                public void doWithPersistentProperty(Neo4jPersistentProperty property) {
-                    setEntityStateValue(property, entityState, wrapper, property.getMappingPolicy());
-                }
-            });
-            // todo take mapping policies for relationships into account
-            persistentEntity.doWithAssociations(new AssociationHandler<Neo4jPersistentProperty>() {
-                @Override
-                public void doWithAssociation(Association<Neo4jPersistentProperty> association) {
-                    final Neo4jPersistentProperty property = association.getInverse();
-                    setEntityStateValue(property, entityState, wrapper, property.getMappingPolicy());
-                }
-            });
+            final PropertyContainer previousState = PersistentStateContext.bind(entity, target);
+            try {
+                // todo take mapping policies for attributes into account
+                persistentEntity.doWithProperties(new PropertyHandler<Neo4jPersistentProperty>() {
+                    @Override
+                    public void doWithPersistentProperty(Neo4jPersistentProperty property) {
+                        setEntityStateValue(property, entityState, wrapper, property.getMappingPolicy(), previous, snapshot);
+                    }
+                });
+                // todo take mapping policies for relationships into account
+                persistentEntity.doWithAssociations(new AssociationHandler<Neo4jPersistentProperty>() {
+                    @Override
+                    public void doWithAssociation(Association<Neo4jPersistentProperty> association) {
+                        final Neo4jPersistentProperty property = association.getInverse();
+                        setEntityStateValue(property, entityState, wrapper, property.getMappingPolicy(), previous, snapshot);
+                    }
+                });
+            } finally {
+                PersistentStateContext.unbind(entity, previousState);
+            }
             tx.success();
         } finally {
             tx.finish();
         }
+        if (snapshot != null) rememberSnapshot(entity, snapshot, transactionWasRunning);
     }
 
 }
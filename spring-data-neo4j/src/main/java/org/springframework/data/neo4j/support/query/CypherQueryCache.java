@@ -0,0 +1,111 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.query;
+
+import org.neo4j.cypher.commands.Query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of parsed cypher queries keyed by their statement text. Parsing is left to the caller
+ * so that a miss never happens while holding the lock, at worst a statement is parsed twice concurrently.
+ */
+public class CypherQueryCache {
+    public static final int DEFAULT_SIZE = 500;
+
+    private final int maxSize;
+    private final Map<String, Query> queries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CypherQueryCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    public CypherQueryCache(final int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Query cache size must be positive but was " + maxSize);
+        this.maxSize = maxSize;
+        this.queries = new LinkedHashMap<String, Query>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+                return size() > CypherQueryCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param statement cypher statement text
+     * @return the cached parsed query or null if it was not (yet) cached, updates the hit and miss counters
+     */
+    public Query get(String statement) {
+        final Query query;
+        synchronized (queries) {
+            query = queries.get(statement);
+        }
+        if (query == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return query;
+    }
+
+    public void put(String statement, Query query) {
+        synchronized (queries) {
+            queries.put(statement, query);
+        }
+    }
+
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    public int size() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public double getHitRatio() {
+        final long hitCount = hits.get();
+        final long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CypherQueryCache[size=%d/%d, hits=%d, misses=%d]", size(), maxSize, getHitCount(), getMissCount());
+    }
+}
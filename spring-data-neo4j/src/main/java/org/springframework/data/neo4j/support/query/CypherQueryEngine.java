@@ -34,6 +34,7 @@ public class CypherQueryEngine implements QueryEngine<Map<String,Object>> {
 
     final ExecutionEngine executionEngine;
     private ResultConverter resultConverter;
+    private final CypherQueryCache queryCache;
 
     public CypherQueryEngine(GraphDatabaseService graphDatabaseService) {
         this(graphDatabaseService, new DefaultConverter());
@@ -41,7 +42,12 @@ public class CypherQueryEngine implements QueryEngine<Map<String,Object>> {
 
 
     public CypherQueryEngine(GraphDatabaseService graphDatabaseService, ResultConverter resultConverter) {
+        this(graphDatabaseService, resultConverter, new CypherQueryCache());
+    }
+
+    public CypherQueryEngine(GraphDatabaseService graphDatabaseService, ResultConverter resultConverter, CypherQueryCache queryCache) {
         this.resultConverter = resultConverter != null ? resultConverter : new DefaultConverter();
+        this.queryCache = queryCache != null ? queryCache : new CypherQueryCache();
         this.executionEngine = new ExecutionEngine(graphDatabaseService);
     }
 
@@ -58,11 +64,18 @@ public class CypherQueryEngine implements QueryEngine<Map<String,Object>> {
 
     private ExecutionResult parseAndExecuteQuery(String statement, Map<String, Object> params) {
         try {
-            CypherParser parser = new CypherParser();
-            Query query = parser.parse(statement);
+            Query query = queryCache.get(statement);
+            if (query == null) {
+                query = new CypherParser().parse(statement);
+                queryCache.put(statement, query);
+            }
             return executionEngine.execute(query,params==null ? Collections.<String,Object>emptyMap() : params);
         } catch(Exception e) {
             throw new InvalidDataAccessResourceUsageException("Error executing statement " + statement, e);
         }
     }
+
+    public CypherQueryCache getQueryCache() {
+        return queryCache;
+    }
 }
\ No newline at end of file
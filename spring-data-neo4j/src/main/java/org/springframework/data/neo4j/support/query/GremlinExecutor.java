@@ -31,29 +31,50 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Executes gremlin scripts against a graph database. Every thread gets its own script engine so that
+ * executions don't contend on a single engine, each engine keeps a bounded LRU cache of the scripts it compiled, keyed
+ * by their text, so repeated statements are not recompiled. The groovy engine holds on to the classes of all scripts
+ * it ever compiled, so an engine (and with it its classes) is dropped and recreated after it compiled
+ * {@link #getMaxCompilations() maxCompilations} scripts. Cached statements never cause an engine to be recreated.
+ * <p/>
+ * The graph is bound as variable "g", there is a single {@link Neo4jGraph} wrapper per executor and graph database.
+ */
 public class GremlinExecutor {
 
-    public static final int REFRESH_ENGINE_COUNT = 10000;
+    public static final int DEFAULT_SCRIPT_CACHE_SIZE = 200;
+    public static final int DEFAULT_MAX_COMPILATIONS = 5000;
     private static final String GRAPH_VARIABLE = "g";
-    private volatile ScriptEngine engine;
 
-    private ScriptEngine createScriptEngine() {
-        return new ScriptEngineManager().getEngineByName("gremlin");
-    }
-
-    private static final AtomicInteger executionCount = new AtomicInteger();
     private final GraphDatabaseService graphDatabaseService;
+    private final int scriptCacheSize;
+    private final int maxCompilations;
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ThreadLocal<EngineHolder> engines = new ThreadLocal<EngineHolder>();
+    private volatile Neo4jGraph graph;
 
     public GremlinExecutor(GraphDatabaseService graphDatabaseService) {
+        this(graphDatabaseService, DEFAULT_SCRIPT_CACHE_SIZE, DEFAULT_MAX_COMPILATIONS);
+    }
+
+    /**
+     * @param scriptCacheSize number of compiled scripts cached per engine
+     * @param maxCompilations number of scripts an engine compiles before it is recreated to release their classes,
+     *                        must not be smaller than the cache size
+     */
+    public GremlinExecutor(GraphDatabaseService graphDatabaseService, int scriptCacheSize, int maxCompilations) {
+        if (scriptCacheSize < 1) throw new IllegalArgumentException("Script cache size must be positive but was " + scriptCacheSize);
+        if (maxCompilations < scriptCacheSize) throw new IllegalArgumentException("Max compilations " + maxCompilations + " must not be smaller than the script cache size " + scriptCacheSize);
         this.graphDatabaseService = graphDatabaseService;
+        this.scriptCacheSize = scriptCacheSize;
+        this.maxCompilations = maxCompilations;
     }
 
     @SuppressWarnings("unchecked")
     public Iterable<Object> query(String statement, Map<String,Object> params) {
         try {
             final Bindings bindings = createBindings(params);
-            final ScriptEngine engine = engine();
-            final Object result = engine.eval(statement, bindings);
+            final Object result = engine().eval(statement, bindings);
             return getRepresentation(result);
         } catch (final ScriptException e) {
             throw new RuntimeException("Error executing statement " + statement, e);
@@ -62,7 +83,7 @@ public class GremlinExecutor {
 
     private Bindings createBindings(Map<String, Object> params) {
         final Bindings bindings = new SimpleBindings();
-        bindings.put(GRAPH_VARIABLE, new Neo4jGraph(graphDatabaseService));
+        bindings.put(GRAPH_VARIABLE, graph());
         if (params==null) return bindings;
         for (Map.Entry<String, Object> entry : params.entrySet()) {
             bindings.put(entry.getKey(),entry.getValue());
@@ -70,14 +91,92 @@ public class GremlinExecutor {
         return bindings;
     }
 
-    private ScriptEngine engine() {
-        if (engine == null || executionCount.incrementAndGet() > REFRESH_ENGINE_COUNT) {
-            executionCount.set(0);
-            this.engine = createScriptEngine();
+    private Neo4jGraph graph() {
+        Neo4jGraph result = graph;
+        if (result != null) return result;
+        synchronized (this) {
+            if (graph == null) graph = new Neo4jGraph(graphDatabaseService);
+            return graph;
         }
-        return this.engine;
     }
 
+    /**
+     * releases the script engines and the classes they compiled, new ones are created on the next query. Engines of
+     * other threads are dropped on their next use or when the thread ends.
+     */
+    public void dispose() {
+        generation.incrementAndGet();
+        engines.remove();
+    }
+
+    private EngineHolder engine() {
+        final EngineHolder holder = engines.get();
+        if (holder != null && holder.isUsable(generation.get())) return holder;
+        final EngineHolder newHolder = new EngineHolder(createScriptEngine(), generation.get(), scriptCacheSize, maxCompilations);
+        engines.set(newHolder);
+        return newHolder;
+    }
+
+    private ScriptEngine createScriptEngine() {
+        return new ScriptEngineManager().getEngineByName("gremlin");
+    }
+
+    public int getScriptCacheSize() {
+        return scriptCacheSize;
+    }
+
+    public int getMaxCompilations() {
+        return maxCompilations;
+    }
+
+    /**
+     * @return the number of scripts cached by the current thread's engine
+     */
+    public int getCachedScriptCount() {
+        final EngineHolder holder = engines.get();
+        return holder == null ? 0 : holder.scripts.size();
+    }
+
+    /**
+     * A script engine confined to a single thread with its compiled scripts, so no locking is needed.
+     */
+    private static class EngineHolder {
+        private final ScriptEngine engine;
+        private final int generation;
+        private final int maxCompilations;
+        private final Map<String, CompiledScript> scripts;
+        private int compilations;
+
+        private EngineHolder(ScriptEngine engine, int generation, final int cacheSize, int maxCompilations) {
+            this.engine = engine;
+            this.generation = generation;
+            this.maxCompilations = maxCompilations;
+            this.scripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        }
+
+        private boolean isUsable(int currentGeneration) {
+            return generation == currentGeneration && compilations < maxCompilations;
+        }
+
+        private Object eval(String statement, Bindings bindings) throws ScriptException {
+            if (!(engine instanceof Compilable)) {
+                compilations++;
+                return engine.eval(statement, bindings);
+            }
+            CompiledScript script = scripts.get(statement);
+            if (script == null) {
+                compilations++;
+                script = ((Compilable) engine).compile(statement);
+                scripts.put(statement, script);
+            }
+            return script.eval(bindings);
+        }
+    }
 
     @SuppressWarnings("unchecked")
     public static Iterable getRepresentation(final Object result) {
@@ -17,6 +17,7 @@
 package org.springframework.data.neo4j.support.query;
 
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.data.neo4j.conversion.DefaultConverter;
 import org.springframework.data.neo4j.conversion.Result;
@@ -25,7 +26,7 @@ import org.springframework.data.neo4j.conversion.ResultConverter;
 
 import java.util.Map;
 
-public class GremlinQueryEngine implements QueryEngine<Object> {
+public class GremlinQueryEngine implements QueryEngine<Object>, DisposableBean {
 
     private final GremlinExecutor gremlinExecutor;
     private final ResultConverter resultConverter;
@@ -50,4 +51,9 @@ public class GremlinQueryEngine implements QueryEngine<Object> {
             throw new InvalidDataAccessResourceUsageException("Error executing statement " + statement, e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void destroy() {
+        gremlinExecutor.dispose();
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.query;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.neo4j.annotation.QueryType;
+import org.springframework.data.neo4j.conversion.ResultConverter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the query engines of a graph database per query type and result converter, so that their (costly) setup
+ * happens only once. Engines that implement {@link DisposableBean} are destroyed on {@link #dispose()}.
+ */
+public class QueryEngineCache {
+    private static final Log log = LogFactory.getLog(QueryEngineCache.class);
+
+    private final ConcurrentMap<Key, QueryEngine<?>> engines = new ConcurrentHashMap<Key, QueryEngine<?>>();
+
+    @SuppressWarnings("unchecked")
+    public <T> QueryEngine<T> get(QueryType type, ResultConverter resultConverter) {
+        return (QueryEngine<T>) engines.get(new Key(type, resultConverter));
+    }
+
+    /**
+     * @return the engine that is registered for type and converter, the given one unless another thread was faster
+     */
+    @SuppressWarnings("unchecked")
+    public <T> QueryEngine<T> add(QueryType type, ResultConverter resultConverter, QueryEngine<T> engine) {
+        final QueryEngine<?> existing = engines.putIfAbsent(new Key(type, resultConverter), engine);
+        if (existing == null) return engine;
+        dispose(engine);
+        return (QueryEngine<T>) existing;
+    }
+
+    public void dispose() {
+        for (Key key : engines.keySet()) {
+            final QueryEngine<?> engine = engines.remove(key);
+            if (engine != null) dispose(engine);
+        }
+    }
+
+    private void dispose(QueryEngine<?> engine) {
+        if (!(engine instanceof DisposableBean)) return;
+        try {
+            ((DisposableBean) engine).destroy();
+        } catch (Exception e) {
+            log.warn("Error disposing query engine " + engine, e);
+        }
+    }
+
+    private static class Key {
+        private final QueryType type;
+        private final ResultConverter resultConverter;
+
+        private Key(QueryType type, ResultConverter resultConverter) {
+            this.type = type;
+            this.resultConverter = resultConverter;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key key = (Key) o;
+            return type == key.type && resultConverter == key.resultConverter;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + System.identityHashCode(resultConverter);
+        }
+    }
+}
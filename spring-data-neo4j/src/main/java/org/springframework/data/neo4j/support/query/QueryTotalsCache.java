@@ -0,0 +1,343 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.query;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.TypeAliasRegistry;
+import org.springframework.util.ClassUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of the totals of count queries keyed by statement and parameters, used for the totals of
+ * {@link org.springframework.data.domain.Page} results.
+ * <p/>
+ * Each total records the entity types it counts. When registered with an embedded {@link GraphDatabaseService} (see
+ * {@link #registerWith}) a commit invalidates the totals of the types of the changed nodes and relationships (and of the
+ * nodes of changed relationships) as recorded in their type property, totals without recorded types are invalidated by
+ * every commit that changes something. Type aliases are resolved with the {@link #setTypeAliasRegistry alias registry},
+ * if the types of the changes can't be determined, the whole cache is cleared.
+ * A total that was counted while a commit happened is not cached. Totals counted within a transaction that is rolled
+ * back before it is committed may contain its changes, so counting within writing transactions should be avoided.
+ */
+public class QueryTotalsCache {
+    private static final Log log = LogFactory.getLog(QueryTotalsCache.class);
+
+    public static final int DEFAULT_SIZE = 1000;
+    private static final String TYPE_PROPERTY_NAME = IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME;
+
+    private final int maxSize;
+    private final Map<Key, Entry> totals;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile boolean ignoreUntypedNodes = true;
+    private volatile TypeAliasRegistry typeAliasRegistry;
+
+    public QueryTotalsCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    public QueryTotalsCache(final int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Totals cache size must be positive but was " + maxSize);
+        this.maxSize = maxSize;
+        this.totals = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > QueryTotalsCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param ignoreUntypedNodes true if entities are recognized by their type property, so that changes of nodes
+     * without it (e.g. the reference node or counter nodes) don't invalidate totals. Has to be false for type
+     * representation strategies that don't store the type property.
+     */
+    public void setIgnoreUntypedNodes(boolean ignoreUntypedNodes) {
+        this.ignoreUntypedNodes = ignoreUntypedNodes;
+    }
+
+    /**
+     * @param typeAliasRegistry resolves the aliases stored in the type property, without it a change of an entity with
+     * an aliased type clears the whole cache
+     */
+    public void setTypeAliasRegistry(TypeAliasRegistry typeAliasRegistry) {
+        this.typeAliasRegistry = typeAliasRegistry;
+    }
+
+    /**
+     * @return the current generation, to be passed to {@link #put} for a total that is counted afterwards
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return the cached total or null if it was not (yet) cached, updates the hit and miss counters
+     */
+    public Long get(String statement, Map<String, Object> params) {
+        final Entry entry;
+        synchronized (totals) {
+            entry = totals.get(new Key(statement, params));
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.total;
+    }
+
+    /**
+     * @param types the entity types the total counts, null if unknown
+     * @param generation the generation before the total was counted, if something was committed since then the total
+     * is not cached
+     */
+    public void put(String statement, Map<String, Object> params, Collection<Class<?>> types, long total, long generation) {
+        final Entry entry = new Entry(total, types == null ? null : new ArrayList<Class<?>>(types));
+        synchronized (totals) {
+            if (this.generation.get() != generation) return;
+            totals.put(new Key(statement, params), entry);
+        }
+    }
+
+    /**
+     * Removes the totals that count any of the given types or their supertypes and those without recorded types.
+     * @param typeNames names of the changed types, null to clear the whole cache
+     */
+    public void invalidate(Collection<String> typeNames) {
+        final Collection<Class<?>> types = resolveTypes(typeNames);
+        synchronized (totals) {
+            generation.incrementAndGet();
+            if (types == null) {
+                totals.clear();
+                return;
+            }
+            for (Iterator<Entry> it = totals.values().iterator(); it.hasNext(); ) {
+                if (it.next().isAffectedBy(types)) it.remove();
+            }
+        }
+    }
+
+    private Collection<Class<?>> resolveTypes(Collection<String> typeNames) {
+        if (typeNames == null) return null;
+        final List<Class<?>> types = new ArrayList<Class<?>>(typeNames.size());
+        for (String typeName : typeNames) {
+            final Class<?> type = resolveType(typeName);
+            if (type == null) return null;
+            types.add(type);
+        }
+        return types;
+    }
+
+    private Class<?> resolveType(String typeName) {
+        final TypeAliasRegistry aliasRegistry = typeAliasRegistry;
+        final Class<?> aliased = aliasRegistry != null ? aliasRegistry.getType(typeName) : null;
+        if (aliased != null) return aliased;
+        try {
+            return ClassUtils.forName(typeName, ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null; // e.g. an unknown type alias
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    public void clear() {
+        synchronized (totals) {
+            generation.incrementAndGet();
+            totals.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    public int size() {
+        synchronized (totals) {
+            return totals.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Registers a transaction event handler that invalidates the totals of changed types on commit.
+     * @return false if the database doesn't support transaction events
+     */
+    public boolean registerWith(GraphDatabaseService graphDatabaseService) {
+        try {
+            graphDatabaseService.registerTransactionEventHandler(new InvalidatingTransactionEventHandler());
+            return true;
+        } catch (UnsupportedOperationException uoe) {
+            log.warn("Transaction events not supported by " + graphDatabaseService + ", query totals are not cached");
+            return false;
+        }
+    }
+
+    /**
+     * @return the type names of the changes, null if they can't be determined
+     */
+    Set<String> getChangedTypes(TransactionData data) {
+        final Map<Long, String> deletedNodeTypes = new HashMap<Long, String>();
+        for (PropertyEntry<Node> entry : data.removedNodeProperties()) {
+            if (TYPE_PROPERTY_NAME.equals(entry.key())) deletedNodeTypes.put(entry.entity().getId(), String.valueOf(entry.previouslyCommitedValue()));
+        }
+        final Set<String> types = new HashSet<String>(deletedNodeTypes.values());
+        for (PropertyEntry<Relationship> entry : data.removedRelationshipProperties()) {
+            if (TYPE_PROPERTY_NAME.equals(entry.key())) types.add(String.valueOf(entry.previouslyCommitedValue()));
+        }
+        for (Node node : data.deletedNodes()) {
+            if (!deletedNodeTypes.containsKey(node.getId()) && !ignoreUntypedNodes) return null;
+        }
+        for (Node node : data.createdNodes()) {
+            if (!addType(types, node, deletedNodeTypes)) return null;
+        }
+        for (PropertyEntry<Node> entry : data.assignedNodeProperties()) {
+            if (!addType(types, entry.entity(), deletedNodeTypes)) return null;
+        }
+        for (PropertyEntry<Node> entry : data.removedNodeProperties()) {
+            if (!addType(types, entry.entity(), deletedNodeTypes)) return null;
+        }
+        for (Relationship relationship : data.createdRelationships()) {
+            if (!addTypes(types, relationship, deletedNodeTypes)) return null;
+        }
+        for (Relationship relationship : data.deletedRelationships()) {
+            if (!addTypes(types, relationship, deletedNodeTypes)) return null;
+        }
+        for (PropertyEntry<Relationship> entry : data.assignedRelationshipProperties()) {
+            if (!addTypes(types, entry.entity(), deletedNodeTypes)) return null;
+        }
+        for (PropertyEntry<Relationship> entry : data.removedRelationshipProperties()) {
+            if (!addTypes(types, entry.entity(), deletedNodeTypes)) return null;
+        }
+        return types;
+    }
+
+    private boolean addTypes(Set<String> types, Relationship relationship, Map<Long, String> deletedNodeTypes) {
+        try {
+            final Object type = relationship.getProperty(TYPE_PROPERTY_NAME, null);
+            if (type != null) types.add(type.toString());
+            return addType(types, relationship.getStartNode(), deletedNodeTypes) && addType(types, relationship.getEndNode(), deletedNodeTypes);
+        } catch (RuntimeException e) {
+            return false; // deleted relationship
+        }
+    }
+
+    private boolean addType(Set<String> types, Node node, Map<Long, String> deletedNodeTypes) {
+        if (deletedNodeTypes.containsKey(node.getId())) return true;
+        final Object type = getType(node);
+        if (type == null) return ignoreUntypedNodes;
+        types.add(type.toString());
+        return true;
+    }
+
+    private Object getType(PropertyContainer state) {
+        try {
+            return state.getProperty(TYPE_PROPERTY_NAME, null);
+        } catch (RuntimeException e) {
+            return null; // deleted without type
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryTotalsCache[size=%d/%d, hits=%d, misses=%d]", size(), maxSize, getHitCount(), getMissCount());
+    }
+
+    private class InvalidatingTransactionEventHandler implements TransactionEventHandler<Set<String>> {
+        @Override
+        public Set<String> beforeCommit(TransactionData data) throws Exception {
+            return getChangedTypes(data);
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, Set<String> types) {
+            if (types != null && types.isEmpty()) return;
+            invalidate(types);
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, Set<String> types) {
+            // totals counted within the rolled back transaction might contain its changes
+            invalidate(null);
+        }
+    }
+
+    private static class Key {
+        private final String statement;
+        private final Map<String, Object> params;
+
+        private Key(String statement, Map<String, Object> params) {
+            this.statement = statement;
+            this.params = params == null ? Collections.<String, Object>emptyMap() : new HashMap<String, Object>(params);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key other = (Key) o;
+            return statement.equals(other.statement) && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * statement.hashCode() + params.hashCode();
+        }
+    }
+
+    private static class Entry {
+        private final long total;
+        private final Collection<Class<?>> types;
+
+        private Entry(long total, Collection<Class<?>> types) {
+            this.total = total;
+            this.types = types;
+        }
+
+        boolean isAffectedBy(Collection<Class<?>> changedTypes) {
+            if (types == null) return true;
+            for (Class<?> changedType : changedTypes) {
+                for (Class<?> type : types) {
+                    if (type.isAssignableFrom(changedType)) return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.support.relationship;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.springframework.data.neo4j.support.LongHashSet;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stamps nodes with an increasing sequence number when relationships are created or deleted at them, so that a view of
+ * the relationships of a node taken at some sequence number can be checked for changes in constant time instead of
+ * iterating the relationships. Nodes share the slots of a fixed size table, a collision only makes an unchanged node
+ * look changed.
+ * <p/>
+ * Nodes are stamped after each commit that changed their relationships, which requires transaction events (see
+ * {@link #registerWith}), without them {@link #isTracking()} is false and changes have to be detected by iterating the
+ * relationships. Relationships created and deleted through {@link RelationshipLookup} are additionally stamped right
+ * away, so that other views within the running transaction see them. The stamp of a commit is handed to the
+ * {@link TransactionStamp} of the transaction, a view written by the transaction itself isn't outdated by it.
+ */
+public class RelationshipChanges {
+    private static final Log log = LogFactory.getLog(RelationshipChanges.class);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray stamps;
+    private final int mask;
+    /**
+     * stamp of all nodes, set when the nodes of a committed change could not be determined
+     */
+    private final AtomicLong allStamp = new AtomicLong();
+    private volatile boolean tracking;
+    private final ThreadLocal<TransactionStamp> transactionStamps = new ThreadLocal<TransactionStamp>();
+
+    public RelationshipChanges() {
+        this(4096);
+    }
+
+    /**
+     * @param slots number of slots shared by the nodes, rounded up to a power of two
+     */
+    public RelationshipChanges(int slots) {
+        int size = 1;
+        while (size < slots) size <<= 1;
+        this.stamps = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * @return the current sequence number, to be taken before the relationships are read
+     */
+    public long current() {
+        return sequence.get();
+    }
+
+    /**
+     * @return the stamp that the commit of the running transaction of the current thread will receive
+     */
+    public TransactionStamp currentTransaction() {
+        TransactionStamp transactionStamp = transactionStamps.get();
+        if (transactionStamp == null) {
+            transactionStamp = new TransactionStamp();
+            transactionStamps.set(transactionStamp);
+        }
+        return transactionStamp;
+    }
+
+    /**
+     * @param ownCommit stamp of the transaction that wrote the view, its commit doesn't count as change, may be null
+     * @return true if relationships of the node might have been created or deleted after the sequence number
+     */
+    public boolean isChangedSince(Node node, long since, TransactionStamp ownCommit) {
+        if (allStamp.get() > since) return true;
+        final long stamp = stamps.get(slot(node.getId()));
+        return stamp > since && (ownCommit == null || stamp != ownCommit.stamp);
+    }
+
+    /**
+     * Stamps the nodes of a relationship that is created or deleted in the running transaction.
+     */
+    public void changed(Relationship relationship) {
+        if (!tracking) return;
+        stamp(sequence.incrementAndGet(), relationship.getStartNode().getId(), relationship.getEndNode().getId());
+    }
+
+    private void stamp(long stamp, long... nodeIds) {
+        for (long nodeId : nodeIds) {
+            final int slot = slot(nodeId);
+            long current;
+            do {
+                current = stamps.get(slot);
+            } while (current < stamp && !stamps.compareAndSet(slot, current, stamp));
+        }
+    }
+
+    private int slot(long nodeId) {
+        final long hash = nodeId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Registers a transaction event handler that stamps the nodes of created and deleted relationships on commit.
+     * @return false if the database doesn't support transaction events
+     */
+    public boolean registerWith(GraphDatabaseService graphDatabaseService) {
+        try {
+            graphDatabaseService.registerTransactionEventHandler(new StampingTransactionEventHandler());
+            tracking = true;
+            return true;
+        } catch (UnsupportedOperationException uoe) {
+            log.warn("Transaction events not supported by " + graphDatabaseService + ", relationship changes are detected by iterating the relationships");
+            return false;
+        }
+    }
+
+    /**
+     * Stamp of the commit of a transaction, known once it committed.
+     */
+    public static class TransactionStamp {
+        private volatile long stamp = -1;
+    }
+
+    private static class Commit {
+        private final TransactionStamp transactionStamp;
+        private final LongHashSet nodeIds;
+
+        private Commit(TransactionStamp transactionStamp, LongHashSet nodeIds) {
+            this.transactionStamp = transactionStamp;
+            this.nodeIds = nodeIds;
+        }
+    }
+
+    private class StampingTransactionEventHandler implements TransactionEventHandler<Commit> {
+        @Override
+        public Commit beforeCommit(TransactionData data) throws Exception {
+            final TransactionStamp transactionStamp = transactionStamps.get();
+            transactionStamps.remove();
+            final LongHashSet nodeIds = new LongHashSet();
+            for (Relationship relationship : data.createdRelationships()) {
+                if (!addNodes(nodeIds, relationship)) return new Commit(transactionStamp, null);
+            }
+            for (Relationship relationship : data.deletedRelationships()) {
+                if (!addNodes(nodeIds, relationship)) return new Commit(transactionStamp, null);
+            }
+            return new Commit(transactionStamp, nodeIds);
+        }
+
+        private boolean addNodes(LongHashSet nodeIds, Relationship relationship) {
+            try {
+                nodeIds.add(relationship.getStartNode().getId());
+                nodeIds.add(relationship.getEndNode().getId());
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Stamps after the commit, so that a view taken at a later sequence number already contains the changes.
+         */
+        @Override
+        public void afterCommit(TransactionData data, Commit commit) {
+            if (commit.nodeIds != null && commit.nodeIds.isEmpty()) return;
+            final long stamp = sequence.incrementAndGet();
+            if (commit.transactionStamp != null) commit.transactionStamp.stamp = stamp;
+            if (commit.nodeIds == null) { // not all changed nodes could be determined
+                long current;
+                do {
+                    current = allStamp.get();
+                } while (current < stamp && !allStamp.compareAndSet(current, stamp));
+                return;
+            }
+            stamp(stamp, commit.nodeIds.toArray());
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, Commit commit) {
+            transactionStamps.remove();
+        }
+    }
+}
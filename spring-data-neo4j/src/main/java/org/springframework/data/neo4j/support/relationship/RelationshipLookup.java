@@ -0,0 +1,219 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.support.relationship;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.graphdb.index.IndexHits;
+import org.neo4j.kernel.AbstractGraphDatabase;
+import org.springframework.data.neo4j.core.GraphDatabase;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+import org.springframework.data.neo4j.support.index.IndexType;
+import org.springframework.data.neo4j.support.index.NoSuchIndexException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Finds, creates and deletes the relationships between two given nodes.
+ * <p/>
+ * Without further configuration the relationships of both nodes are iterated alternately, so that a lookup costs at
+ * most twice the degree of the node with fewer relationships instead of the degree of the start node (which might be a
+ * node with millions of relationships).
+ * <p/>
+ * For relationship types declared as high fan-out the relationships are additionally kept in a relationship index keyed
+ * by type, start and end node, which makes the lookup a single index query. Relationships of these types have to be
+ * created and deleted through this class (or the template and graph database) to keep the index up to date. When a type
+ * with existing relationships is declared high fan-out, these have to be added with {@link #reindex(RelationshipType, int)}
+ * before lookups of the type are correct, single relationships created elsewhere with {@link #created(Relationship)}.
+ * <p/>
+ * Created and deleted relationships are reported to the {@link RelationshipChanges} if there are any.
+ */
+public class RelationshipLookup {
+    public static final String INDEX_NAME = "__relationships_between__";
+
+    private final GraphDatabase graphDatabase;
+    private final Set<String> highFanOutTypes;
+    private volatile Index<Relationship> index;
+    private RelationshipChanges changes;
+
+    public RelationshipLookup(GraphDatabase graphDatabase) {
+        this(graphDatabase, Collections.<String>emptySet());
+    }
+
+    /**
+     * @param highFanOutTypes names of the relationship types to maintain in the relationship index
+     */
+    public RelationshipLookup(GraphDatabase graphDatabase, Collection<String> highFanOutTypes) {
+        this.graphDatabase = graphDatabase;
+        this.highFanOutTypes = highFanOutTypes == null ? Collections.<String>emptySet() : new HashSet<String>(highFanOutTypes);
+    }
+
+    public RelationshipChanges getChanges() {
+        return changes;
+    }
+
+    public void setChanges(RelationshipChanges changes) {
+        this.changes = changes;
+    }
+
+    public boolean isHighFanOut(RelationshipType type) {
+        return highFanOutTypes.contains(type.name());
+    }
+
+    /**
+     * @param direction OUTGOING for start to end, INCOMING for end to start, BOTH for either
+     * @return a relationship of the type between the two nodes or null if there is none
+     */
+    public Relationship find(Node start, Node end, RelationshipType type, Direction direction) {
+        if (direction == Direction.INCOMING) return find(end, start, type, Direction.OUTGOING);
+        if (isHighFanOut(type)) {
+            final Relationship relationship = findIndexed(start, end, type);
+            if (relationship != null || direction == Direction.OUTGOING) return relationship;
+            return findIndexed(end, start, type);
+        }
+        return findByIteration(start, end, type, direction);
+    }
+
+    /**
+     * If one side is exhausted all its relationships have been checked, so there is none between the two nodes.
+     */
+    private Relationship findByIteration(Node start, Node end, RelationshipType type, Direction direction) {
+        final Iterator<Relationship> fromStart = start.getRelationships(type, direction).iterator();
+        final Iterator<Relationship> fromEnd = end.getRelationships(type, direction.reverse()).iterator();
+        while (fromStart.hasNext() && fromEnd.hasNext()) {
+            final Relationship startRelationship = fromStart.next();
+            if (startRelationship.getOtherNode(start).equals(end)) return startRelationship;
+            final Relationship endRelationship = fromEnd.next();
+            if (endRelationship.getOtherNode(end).equals(start)) return endRelationship;
+        }
+        return null;
+    }
+
+    private Relationship findIndexed(Node start, Node end, RelationshipType type) {
+        final IndexHits<Relationship> hits = index().get(type.name(), key(start, end));
+        try {
+            for (Relationship relationship : hits) {
+                if (relationship.getStartNode().equals(start) && relationship.getEndNode().equals(end)) return relationship;
+            }
+            return null;
+        } finally {
+            hits.close();
+        }
+    }
+
+    public Relationship create(Node start, Node end, RelationshipType type) {
+        return created(start.createRelationshipTo(end, type));
+    }
+
+    /**
+     * Adds a relationship that was created elsewhere to the index if its type is declared high fan-out.
+     */
+    public Relationship created(Relationship relationship) {
+        if (changes != null) changes.changed(relationship);
+        if (isHighFanOut(relationship.getType())) {
+            index().add(relationship, relationship.getType().name(), key(relationship.getStartNode(), relationship.getEndNode()));
+        }
+        return relationship;
+    }
+
+    /**
+     * Adds the existing relationships of a high fan-out type to the relationship index, in the current transaction.
+     * Scans the outgoing relationships of the nodes with the next chunkSize node ids and keeps the next node id in a
+     * property of the reference node, so the backfill continues where it stopped, also after a restart. Relationships
+     * that are already indexed are skipped. Call it in separate transactions until it returns 0.
+     * @return the number of scanned node ids
+     */
+    public int reindex(RelationshipType type, int chunkSize) {
+        if (!isHighFanOut(type)) throw new IllegalArgumentException("Relationship type " + type.name() + " is not declared as high fan-out");
+        final Node referenceNode = graphDatabase.getReferenceNode();
+        final String progressKey = INDEX_NAME + type.name();
+        final long highestNodeId = getHighestNodeId();
+        long nodeId = ((Number) referenceNode.getProperty(progressKey, 0L)).longValue();
+        int scanned = 0;
+        for (; scanned < chunkSize && nodeId <= highestNodeId; scanned++, nodeId++) {
+            final Node node = findNode(nodeId);
+            if (node == null) continue;
+            for (Relationship relationship : node.getRelationships(type, Direction.OUTGOING)) {
+                if (!isIndexed(relationship)) {
+                    index().add(relationship, type.name(), key(node, relationship.getEndNode()));
+                }
+            }
+        }
+        if (scanned > 0) referenceNode.setProperty(progressKey, nodeId);
+        return scanned;
+    }
+
+    private boolean isIndexed(Relationship relationship) {
+        final IndexHits<Relationship> hits = index().get(relationship.getType().name(), key(relationship.getStartNode(), relationship.getEndNode()));
+        try {
+            for (Relationship hit : hits) {
+                if (hit.equals(relationship)) return true;
+            }
+            return false;
+        } finally {
+            hits.close();
+        }
+    }
+
+    private Node findNode(long nodeId) {
+        try {
+            return graphDatabase.getNodeById(nodeId);
+        } catch (NotFoundException nfe) {
+            return null;
+        }
+    }
+
+    private long getHighestNodeId() {
+        if (graphDatabase instanceof DelegatingGraphDatabase) {
+            final GraphDatabaseService graphDatabaseService = ((DelegatingGraphDatabase) graphDatabase).getGraphDatabaseService();
+            if (graphDatabaseService instanceof AbstractGraphDatabase) {
+                return ((AbstractGraphDatabase) graphDatabaseService).getConfig().getGraphDbModule().getNodeManager().getHighestPossibleIdInUse(Node.class);
+            }
+        }
+        throw new UnsupportedOperationException("Reindexing relationships needs an embedded graph database");
+    }
+
+    public void delete(Relationship relationship) {
+        if (changes != null) changes.changed(relationship);
+        if (isHighFanOut(relationship.getType())) {
+            index().remove(relationship);
+        }
+        relationship.delete();
+    }
+
+    private static String key(Node start, Node end) {
+        return start.getId() + ":" + end.getId();
+    }
+
+    private Index<Relationship> index() {
+        if (index != null) return index;
+        try {
+            index = graphDatabase.getIndex(INDEX_NAME);
+        } catch (NoSuchIndexException nsie) {
+            index = graphDatabase.createIndex(Relationship.class, INDEX_NAME, IndexType.SIMPLE);
+        }
+        return index;
+    }
+}
@@ -15,35 +15,104 @@
  */
 package org.springframework.data.neo4j.support.typerepresentation;
 
-import org.neo4j.graphdb.NotFoundException;
+import org.springframework.util.ClassUtils;
 
-
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Resolves the type names stored in the graph to classes of the given class loader. Names that can't be resolved are
+ * cached as well, so that stale type names don't cause a class lookup on every load; they are looked up again once
+ * the retry interval has passed, in case the class became available. Aliases map alternative names to their classes.
+ *
  * @author mh
  * @since 22.09.11
  */
 class EntityTypeCache {
-    private final Map<String, Class<?>> cache = new WeakHashMap<String, Class<?>>();
+    static final long DEFAULT_UNRESOLVED_RETRY_MILLIS = 10 * 1000;
+
+    private final ClassLoader classLoader;
+    private final long unresolvedRetryMillis;
+    private final ConcurrentMap<String, Object> types = new ConcurrentHashMap<String, Object>();
+    private final ConcurrentMap<String, Class<?>> aliases = new ConcurrentHashMap<String, Class<?>>();
+
+    /**
+     * Cache entry of a name that couldn't be resolved.
+     */
+    private static class Unresolved {
+        private final long retryAt;
+
+        private Unresolved(long retryAt) {
+            this.retryAt = retryAt;
+        }
+    }
+
+    EntityTypeCache() {
+        this(ClassUtils.getDefaultClassLoader());
+    }
+
+    EntityTypeCache(ClassLoader classLoader) {
+        this(classLoader, DEFAULT_UNRESOLVED_RETRY_MILLIS);
+    }
+
+    EntityTypeCache(ClassLoader classLoader, long unresolvedRetryMillis) {
+        this.classLoader = classLoader;
+        this.unresolvedRetryMillis = unresolvedRetryMillis;
+    }
 
+    /**
+     * @return the class for the name or alias, null if it can't be resolved
+     */
     @SuppressWarnings({"unchecked"})
-    <Object> Class<Object> getClassForName(String className) {
-        try {
-            Class<Object> result = (Class<Object>) cache.get(className);
-            if (result != null) return result;
-            synchronized (cache) {
-                result = (Class<Object>) cache.get(className);
-                if (result != null) return result;
-                result = (Class<Object>) Class.forName(className);
-                cache.put(className, result);
-                return result;
+    <T> Class<T> getClassForName(String typeName) {
+        if (typeName == null) return null;
+        Object type = types.get(typeName);
+        if (type == null) {
+            type = resolve(typeName);
+            final Object existing = types.putIfAbsent(typeName, type);
+            if (existing != null) type = existing;
+        } else if (type instanceof Unresolved && ((Unresolved) type).retryAt <= System.currentTimeMillis()) {
+            final Object resolved = resolve(typeName);
+            if (types.replace(typeName, type, resolved)) {
+                type = resolved;
+            } else {
+                type = types.get(typeName);
             }
-        } catch (NotFoundException e) {
-            return null;
+        }
+        return type instanceof Class ? (Class<T>) type : null;
+    }
+
+    private Object resolve(String typeName) {
+        final Class<?> aliased = aliases.get(typeName);
+        if (aliased != null) return aliased;
+        try {
+            return ClassUtils.forName(typeName, classLoader);
         } catch (ClassNotFoundException e) {
-            return null;
+            return new Unresolved(System.currentTimeMillis() + unresolvedRetryMillis);
+        } catch (LinkageError e) {
+            return new Unresolved(System.currentTimeMillis() + unresolvedRetryMillis);
+        }
+    }
+
+    /**
+     * Registers an alternative name for the type, it replaces whatever was cached for that name before.
+     */
+    void registerAlias(String alias, Class<?> type) {
+        aliases.put(alias, type);
+        types.put(alias, type);
+    }
+
+    /**
+     * Forgets the names that couldn't be resolved, e.g. after new classes became available.
+     */
+    void clearUnresolved() {
+        for (Iterator<Object> it = types.values().iterator(); it.hasNext(); ) {
+            if (it.next() instanceof Unresolved) it.remove();
         }
     }
+
+    int size() {
+        return types.size();
+    }
 }
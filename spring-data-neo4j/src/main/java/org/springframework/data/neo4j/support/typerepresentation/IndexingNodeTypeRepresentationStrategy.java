@@ -16,6 +16,11 @@
 
 package org.springframework.data.neo4j.support.typerepresentation;
 
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryParser.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.TermQuery;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.index.Index;
 import org.neo4j.graphdb.index.IndexHits;
@@ -25,18 +30,68 @@ import org.springframework.data.neo4j.core.GraphDatabase;
 import org.springframework.data.neo4j.core.NodeTypeRepresentationStrategy;
 import org.springframework.data.neo4j.support.index.ClosableIndexHits;
 import org.springframework.data.neo4j.support.index.IndexType;
+import org.springframework.data.neo4j.support.mapping.Neo4jMappingContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class IndexingNodeTypeRepresentationStrategy implements NodeTypeRepresentationStrategy {
 
     public static final String INDEX_NAME = "__types__";
     public static final String TYPE_PROPERTY_NAME = "__type__";
     public static final String INDEX_KEY = "className";
+    public static final String COUNTER_PREFIX = "COUNTER_";
     private GraphDatabase graphDb;
     private final EntityTypeCache typeCache;
+    private final TypeCounter typeCounter;
+    private final TypeCounter staleCounters;
+    private final Set<String> staleTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final TypeIdCache typeIdCache;
+    private final TypeAliasRegistry aliasRegistry;
+    private Neo4jMappingContext mappingContext;
 
     public IndexingNodeTypeRepresentationStrategy(GraphDatabase graphDb) {
+        this(graphDb, 0);
+    }
+
+    /**
+     * @param counterShards if positive, the number of instances per type is maintained in counter nodes with that many
+     *                      shards, so that {@link #count(Class)} doesn't have to iterate the type index
+     */
+    public IndexingNodeTypeRepresentationStrategy(GraphDatabase graphDb, int counterShards) {
+        this(graphDb, counterShards, null);
+    }
+
+    /**
+     * @param typeIdCache caches the type per node id, may be null
+     */
+    public IndexingNodeTypeRepresentationStrategy(GraphDatabase graphDb, int counterShards, TypeIdCache typeIdCache) {
 		this.graphDb = graphDb;
         typeCache = new EntityTypeCache();
+        typeCounter = counterShards > 0 ? new TypeCounter(graphDb, COUNTER_PREFIX, counterShards) : null;
+        staleCounters = counterShards > 0 ? null : new TypeCounter(graphDb, COUNTER_PREFIX, 1);
+        this.typeIdCache = typeIdCache;
+        this.aliasRegistry = new TypeAliasRegistry(graphDb);
+    }
+
+    public TypeAliasRegistry getTypeAliasRegistry() {
+        return aliasRegistry;
+    }
+
+    /**
+     * New nodes are then only indexed with their concrete type instead of once per @NodeEntity superclass. Lookups
+     * of a type query the entries of all its subtypes known to the mapping context, so subtypes that the mapping context
+     * doesn't know yet (not part of its initial entity set and not used since startup) are not found. Nodes indexed
+     * per superclass before are still found.
+     * @param mappingContext provides the subtypes of a type, null indexes every @NodeEntity superclass
+     */
+    public void setConcreteTypeIndex(Neo4jMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
     }
 
 	private Index<Node> getNodeTypesIndex() {
@@ -46,48 +101,223 @@ public class IndexingNodeTypeRepresentationStrategy implements NodeTypeRepresent
 
 	@Override
 	public void postEntityCreation(Node state, Class<?> type) {
+        incrementCounters(type);
         addToNodeTypesIndex(state, type);
-        state.setProperty(TYPE_PROPERTY_NAME, type.getName());
+        state.setProperty(TYPE_PROPERTY_NAME, aliasRegistry.register(type));
 	}
 
     private void addToNodeTypesIndex(Node node, Class<?> entityClass) {
+        if (mappingContext != null) {
+            getNodeTypesIndex().add(node, INDEX_KEY, aliasRegistry.register(entityClass));
+            return;
+        }
 		Class<?> klass = entityClass;
 		while (klass.getAnnotation(NodeEntity.class) != null) {
-			getNodeTypesIndex().add(node, INDEX_KEY, klass.getName());
+			getNodeTypesIndex().add(node, INDEX_KEY, aliasRegistry.register(klass));
 			klass = klass.getSuperclass();
 		}
 	}
 
+    /**
+     * Only updates existing counters, which are created by {@link #initializeCounter(Class)}.
+     */
+    private void incrementCounters(Class<?> entityClass) {
+        if (typeCounter == null) {
+            markCountersStale(entityClass);
+            return;
+        }
+        Class<?> klass = entityClass;
+        while (klass.getAnnotation(NodeEntity.class) != null) {
+            final Node counterNode = typeCounter.findCounterNode(klass.getName());
+            if (counterNode != null && !typeCounter.isStale(counterNode)) {
+                typeCounter.increment(counterNode);
+            }
+            klass = klass.getSuperclass();
+        }
+    }
+
+    private void decrementCounters(Node state) {
+        if (!state.hasProperty(TYPE_PROPERTY_NAME)) return;
+        if (typeCounter == null) {
+            markCountersStale(getJavaType(state));
+            return;
+        }
+        Class<?> klass = getJavaType(state);
+        while (klass != null && klass.getAnnotation(NodeEntity.class) != null) {
+            final Node counterNode = typeCounter.findCounterNode(klass.getName());
+            if (counterNode != null && !typeCounter.isStale(counterNode)) {
+                typeCounter.decrement(counterNode);
+            }
+            klass = klass.getSuperclass();
+        }
+    }
+
+    /**
+     * Counters that exist while counting is disabled miss the updates, so they are marked stale once per type and
+     * strategy when the first instance of the type is created or removed. Stale counters are not used until they are
+     * initialized again.
+     */
+    private void markCountersStale(Class<?> entityClass) {
+        Class<?> klass = entityClass;
+        while (klass != null && klass.getAnnotation(NodeEntity.class) != null) {
+            if (staleTypes.add(klass.getName())) staleCounters.markStale(klass.getName());
+            klass = klass.getSuperclass();
+        }
+    }
+
+    /**
+     * Creates the counter of the type with the current number of instances in the type index, or resets an existing
+     * (e.g. stale) counter to it, in the current transaction. Counters are not created on the write path, so this has to
+     * be called once per counted type after counting is enabled for a graph with existing instances of the type, and
+     * after it was disabled for a while. Instances of the type must not be created or removed concurrently, otherwise
+     * they might be missed.
+     * @return the number of instances of the type
+     */
+    public long initializeCounter(Class<?> entityClass) {
+        if (typeCounter == null) throw new IllegalStateException("Counting instances per type is not enabled");
+        final long count = countIndexed(entityClass);
+        typeCounter.initialize(entityClass.getName(), count);
+        return count;
+    }
+
     @Override
     public <U> ClosableIterable<Node> findAll(Class<U> clazz) {
         return findAllNodeBacked(clazz);
     }
 
     private <Object> ClosableIterable<Node> findAllNodeBacked(Class<Object> clazz) {
-		final IndexHits<Node> allEntitiesOfType = getNodeTypesIndex().get(INDEX_KEY, clazz.getName());
+		final IndexHits<Node> allEntitiesOfType = getIndexHits(clazz);
         return new ClosableIndexHits<Node>(allEntitiesOfType);
 	}
 
+    /**
+     * @return the values of all index entries of the type, which are the class name and the alias (nodes that were not
+     *         yet migrated to the alias are still indexed with the class name) and with a concrete type index those of
+     *         its subtypes
+     */
+    public Set<String> getIndexKeys(Class<?> type) {
+        final Set<String> indexKeys = new LinkedHashSet<String>();
+        addIndexKeys(indexKeys, type);
+        if (mappingContext != null) {
+            for (Class<?> subType : mappingContext.getSubTypes(type)) {
+                addIndexKeys(indexKeys, subType);
+            }
+        }
+        return indexKeys;
+    }
+
+    /**
+     * @return the index query string for all {@link #getIndexKeys index entries} of the type, e.g. to start a cypher
+     *         query at {@code node:__types__({query})}
+     */
+    public String getIndexQuery(Class<?> type) {
+        return toIndexQuery(INDEX_KEY, getIndexKeys(type));
+    }
+
+    static String toIndexQuery(String key, Collection<String> values) {
+        final StringBuilder query = new StringBuilder();
+        for (String value : values) {
+            if (query.length() > 0) query.append(' ');
+            query.append(key).append(':').append(QueryParser.escape(value));
+        }
+        return query.toString();
+    }
+
+    private IndexHits<Node> getIndexHits(Class<?> type) {
+        final Set<String> indexKeys = getIndexKeys(type);
+        if (indexKeys.size() == 1) return getNodeTypesIndex().get(INDEX_KEY, type.getName());
+        final BooleanQuery query = new BooleanQuery();
+        for (String indexKey : indexKeys) {
+            query.add(new TermQuery(new Term(INDEX_KEY, indexKey)), BooleanClause.Occur.SHOULD);
+        }
+        return getNodeTypesIndex().query(query);
+    }
+
+    private void addIndexKeys(Set<String> indexKeys, Class<?> type) {
+        indexKeys.add(type.getName());
+        final String alias = TypeAliasRegistry.getAlias(type);
+        if (alias != null) indexKeys.add(alias);
+    }
+
     @Override
     public long count(Class<?> entityClass) {
-        long count = 0;
-        for (Object o : getNodeTypesIndex().get(INDEX_KEY, entityClass.getName())) {
-            count += 1;
+        if (typeCounter != null) {
+            final Node counterNode = typeCounter.findCounterNode(entityClass.getName());
+            if (counterNode != null && !typeCounter.isStale(counterNode)) return typeCounter.count(counterNode);
         }
-		return count;
+        return countIndexed(entityClass);
 	}
 
+    private long countIndexed(Class<?> entityClass) {
+        long count = 0;
+        final IndexHits<Node> hits = getIndexHits(entityClass);
+        try {
+            while (hits.hasNext()) {
+                hits.next();
+                count++;
+            }
+        } finally {
+            hits.close();
+        }
+        return count;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public Class<?> getJavaType(Node node) {
 		if (node == null) throw new IllegalArgumentException("Node is null");
-        String className = (String) node.getProperty(TYPE_PROPERTY_NAME);
-        return typeCache.getClassForName(className);
+        if (typeIdCache != null) {
+            final Class<?> cached = typeIdCache.get(node.getId());
+            if (cached != null) return cached;
+        }
+        String typeKey = (String) node.getProperty(TYPE_PROPERTY_NAME);
+        final Class<?> type = resolveType(typeKey);
+        if (typeIdCache != null) typeIdCache.put(node.getId(), type);
+        return type;
+    }
+
+    private Class<?> resolveType(String typeKey) {
+        final Class<?> type = typeCache.getClassForName(typeKey);
+        if (type != null) return type;
+        final Class<?> aliased = aliasRegistry.getType(typeKey);
+        if (aliased != null) typeCache.registerAlias(typeKey, aliased);
+        return aliased;
+    }
+
+    /**
+     * Rewrites up to chunkSize nodes of the type (or its subtypes) that still use the class name of the {@link
+     * org.springframework.data.neo4j.annotation.TypeAlias} annotated type in their type property and index entries, in
+     * the current transaction. Call it in separate transactions until it returns 0 to migrate all existing nodes.
+     * @return the number of migrated nodes
+     */
+    public int migrateToAlias(Class<?> type, int chunkSize) {
+        if (TypeAliasRegistry.getAlias(type) == null) {
+            throw new IllegalArgumentException(type + " has no type alias");
+        }
+        final List<Node> nodes = new ArrayList<Node>(chunkSize);
+        final IndexHits<Node> hits = getNodeTypesIndex().get(INDEX_KEY, type.getName());
+        try {
+            while (hits.hasNext() && nodes.size() < chunkSize) {
+                nodes.add(hits.next());
+            }
+        } finally {
+            hits.close();
+        }
+        for (Node node : nodes) {
+            final Class<?> nodeType = getJavaType(node);
+            if (nodeType == null) throw new IllegalStateException("Unable to get type for node: " + node);
+            getNodeTypesIndex().remove(node);
+            addToNodeTypesIndex(node, nodeType);
+            node.setProperty(TYPE_PROPERTY_NAME, aliasRegistry.register(nodeType));
+        }
+        return nodes.size();
     }
 
     @Override
 	public void preEntityRemoval(Node state) {
+        decrementCounters(state);
         getNodeTypesIndex().remove(state);
+        if (typeIdCache != null) typeIdCache.remove(state.getId());
 	}
 
 }
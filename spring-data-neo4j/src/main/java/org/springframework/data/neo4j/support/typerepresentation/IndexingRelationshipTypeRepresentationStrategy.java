@@ -16,6 +16,11 @@
 
 package org.springframework.data.neo4j.support.typerepresentation;
 
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.TermQuery;
+import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.index.Index;
 import org.neo4j.graphdb.index.IndexHits;
@@ -25,18 +30,58 @@ import org.springframework.data.neo4j.core.GraphDatabase;
 import org.springframework.data.neo4j.core.RelationshipTypeRepresentationStrategy;
 import org.springframework.data.neo4j.support.index.ClosableIndexHits;
 import org.springframework.data.neo4j.support.index.IndexType;
+import org.springframework.data.neo4j.support.mapping.Neo4jMappingContext;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class IndexingRelationshipTypeRepresentationStrategy implements RelationshipTypeRepresentationStrategy {
 
     public static final String INDEX_NAME = "__rel_types__";
     public static final String TYPE_PROPERTY_NAME = "__type__";
     public static final String INDEX_KEY = "className";
+    public static final String COUNTER_PREFIX = "REL_COUNTER_";
     private GraphDatabase graphDb;
     private final EntityTypeCache typeCache;
+    private final TypeCounter typeCounter;
+    private final TypeCounter staleCounters;
+    private final Set<String> staleTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final TypeIdCache typeIdCache;
+    private Neo4jMappingContext mappingContext;
 
     public IndexingRelationshipTypeRepresentationStrategy(GraphDatabase graphDb) {
+        this(graphDb, 0);
+    }
+
+    /**
+     * @param counterShards if positive, the number of instances per type is maintained in counter nodes with that many
+     *                      shards, so that {@link #count(Class)} doesn't have to iterate the type index
+     */
+    public IndexingRelationshipTypeRepresentationStrategy(GraphDatabase graphDb, int counterShards) {
+        this(graphDb, counterShards, null);
+    }
+
+    /**
+     * @param typeIdCache caches the type per relationship id, may be null
+     */
+    public IndexingRelationshipTypeRepresentationStrategy(GraphDatabase graphDb, int counterShards, TypeIdCache typeIdCache) {
 		this.graphDb = graphDb;
         typeCache = new EntityTypeCache();
+        typeCounter = counterShards > 0 ? new TypeCounter(graphDb, COUNTER_PREFIX, counterShards) : null;
+        staleCounters = counterShards > 0 ? null : new TypeCounter(graphDb, COUNTER_PREFIX, 1);
+        this.typeIdCache = typeIdCache;
+    }
+
+    /**
+     * New relationships are then only indexed with their concrete type instead of once per @RelationshipEntity
+     * superclass. Lookups of a type query the entries of all its subtypes known to the mapping context, so subtypes that
+     * the mapping context doesn't know yet are not found.
+     * @param mappingContext provides the subtypes of a type, null indexes every @RelationshipEntity superclass
+     */
+    public void setConcreteTypeIndex(Neo4jMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
     }
 
 	private Index<Relationship> getRelTypesIndex() {
@@ -45,11 +90,16 @@ public class IndexingRelationshipTypeRepresentationStrategy implements Relations
 
 	@Override
 	public void postEntityCreation(Relationship state, Class<?> type) {
+        incrementCounters(type);
         addToTypesIndex(state, type);
         state.setProperty(TYPE_PROPERTY_NAME, type.getName());
 	}
 
     private void addToTypesIndex(Relationship node, Class<?> entityClass) {
+        if (mappingContext != null) {
+            getRelTypesIndex().add(node, INDEX_KEY, entityClass.getName());
+            return;
+        }
 		Class<?> type = entityClass;
 		while (type.getAnnotation(RelationshipEntity.class) != null) {
 			getRelTypesIndex().add(node, INDEX_KEY, type.getName());
@@ -57,40 +107,154 @@ public class IndexingRelationshipTypeRepresentationStrategy implements Relations
 		}
 	}
 
+    /**
+     * Only updates existing counters, which are created by {@link #initializeCounter(Class)}.
+     */
+    private void incrementCounters(Class<?> entityClass) {
+        if (typeCounter == null) {
+            markCountersStale(entityClass);
+            return;
+        }
+        Class<?> type = entityClass;
+        while (type.getAnnotation(RelationshipEntity.class) != null) {
+            final Node counterNode = typeCounter.findCounterNode(type.getName());
+            if (counterNode != null && !typeCounter.isStale(counterNode)) {
+                typeCounter.increment(counterNode);
+            }
+            type = type.getSuperclass();
+        }
+    }
+
+    private void decrementCounters(Relationship state) {
+        if (!state.hasProperty(TYPE_PROPERTY_NAME)) return;
+        if (typeCounter == null) {
+            markCountersStale(getJavaType(state));
+            return;
+        }
+        Class<?> type = getJavaType(state);
+        while (type != null && type.getAnnotation(RelationshipEntity.class) != null) {
+            final Node counterNode = typeCounter.findCounterNode(type.getName());
+            if (counterNode != null && !typeCounter.isStale(counterNode)) {
+                typeCounter.decrement(counterNode);
+            }
+            type = type.getSuperclass();
+        }
+    }
+
+    /**
+     * Counters that exist while counting is disabled miss the updates, so they are marked stale once per type and
+     * strategy when the first instance of the type is created or removed. Stale counters are not used until they are
+     * initialized again.
+     */
+    private void markCountersStale(Class<?> entityClass) {
+        Class<?> type = entityClass;
+        while (type != null && type.getAnnotation(RelationshipEntity.class) != null) {
+            if (staleTypes.add(type.getName())) staleCounters.markStale(type.getName());
+            type = type.getSuperclass();
+        }
+    }
+
+    /**
+     * Creates the counter of the type with the current number of instances in the type index, or resets an existing
+     * (e.g. stale) counter to it, in the current transaction. Counters are not created on the write path, so this has to
+     * be called once per counted type after counting is enabled for a graph with existing instances of the type, and
+     * after it was disabled for a while. Instances of the type must not be created or removed concurrently, otherwise
+     * they might be missed.
+     * @return the number of instances of the type
+     */
+    public long initializeCounter(Class<?> entityClass) {
+        if (typeCounter == null) throw new IllegalStateException("Counting instances per type is not enabled");
+        final long count = countIndexed(entityClass);
+        typeCounter.initialize(entityClass.getName(), count);
+        return count;
+    }
+
     @Override
     public <U> ClosableIterable<Relationship> findAll(Class<U> clazz) {
         return findAllRelBacked(clazz);
     }
 
     private <Object> ClosableIterable<Relationship> findAllRelBacked(Class<Object> clazz) {
-        final IndexHits<Relationship> allEntitiesOfType = getRelTypesIndex().get(INDEX_KEY, clazz.getName());
+        final IndexHits<Relationship> allEntitiesOfType = getIndexHits(clazz);
         return new ClosableIndexHits<Relationship>(allEntitiesOfType);
     }
 
 
     @Override
     public long count(Class<?> entityClass) {
-        long count = 0;
-        final IndexHits<Relationship> hits = getRelTypesIndex().get(INDEX_KEY, entityClass.getName());
-        while (hits.hasNext()) {
-            hits.next();
-            count++;
+        if (typeCounter != null) {
+            final Node counterNode = typeCounter.findCounterNode(entityClass.getName());
+            if (counterNode != null && !typeCounter.isStale(counterNode)) return typeCounter.count(counterNode);
         }
-		return count;
+        return countIndexed(entityClass);
 	}
 
+    /**
+     * @return the values of all index entries of the type, its class name and with a concrete type index those of all
+     *         its known subtypes
+     */
+    public Set<String> getIndexKeys(Class<?> type) {
+        final Set<String> typeNames = new LinkedHashSet<String>();
+        typeNames.add(type.getName());
+        if (mappingContext != null) {
+            for (Class<?> subType : mappingContext.getSubTypes(type)) {
+                typeNames.add(subType.getName());
+            }
+        }
+        return typeNames;
+    }
+
+    /**
+     * @return the index query string for all {@link #getIndexKeys index entries} of the type
+     */
+    public String getIndexQuery(Class<?> type) {
+        return IndexingNodeTypeRepresentationStrategy.toIndexQuery(INDEX_KEY, getIndexKeys(type));
+    }
+
+    private IndexHits<Relationship> getIndexHits(Class<?> type) {
+        final Set<String> typeNames = getIndexKeys(type);
+        if (typeNames.size() == 1) return getRelTypesIndex().get(INDEX_KEY, type.getName());
+        final BooleanQuery query = new BooleanQuery();
+        for (String typeName : typeNames) {
+            query.add(new TermQuery(new Term(INDEX_KEY, typeName)), BooleanClause.Occur.SHOULD);
+        }
+        return getRelTypesIndex().query(query);
+    }
+
+    private long countIndexed(Class<?> entityClass) {
+        long count = 0;
+        final IndexHits<Relationship> hits = getIndexHits(entityClass);
+        try {
+            while (hits.hasNext()) {
+                hits.next();
+                count++;
+            }
+        } finally {
+            hits.close();
+        }
+        return count;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Class<?> getJavaType(Relationship relationship) {
 		if (relationship == null) throw new IllegalArgumentException("Relationship is null");
+        if (typeIdCache != null) {
+            final Class<?> cached = typeIdCache.get(relationship.getId());
+            if (cached != null) return cached;
+        }
         String className = (String) relationship.getProperty(TYPE_PROPERTY_NAME);
-        return typeCache.getClassForName(className);
+        final Class<?> type = typeCache.getClassForName(className);
+        if (typeIdCache != null) typeIdCache.put(relationship.getId(), type);
+        return type;
     }
 
 
     @Override
     public void preEntityRemoval(Relationship state) {
+        decrementCounters(state);
         getRelTypesIndex().remove(state);
+        if (typeIdCache != null) typeIdCache.remove(state.getId());
     }
 
 }
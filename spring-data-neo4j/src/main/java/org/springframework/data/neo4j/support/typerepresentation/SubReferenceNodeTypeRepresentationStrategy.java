@@ -51,10 +51,31 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
 
 	private GraphDatabase graphDatabase;
     private final EntityTypeCache typeCache;
+    private final TypeCounter typeCounter;
+    private final TypeIdCache typeIdCache;
 
     public SubReferenceNodeTypeRepresentationStrategy(GraphDatabase graphDatabase) {
+        this(graphDatabase, 1);
+    }
+
+    /**
+     * @param counterShards with more than one shard the instance counters of each subreference node are spread over that
+     *                      many shard nodes, so that concurrent inserts of types sharing a superclass don't serialize on
+     *                      the superclass' subreference node. Subreference nodes that already have shards keep using
+     *                      them with fewer configured shards, so their count stays the sum of all shards.
+     */
+    public SubReferenceNodeTypeRepresentationStrategy(GraphDatabase graphDatabase, int counterShards) {
+        this(graphDatabase, counterShards, null);
+    }
+
+    /**
+     * @param typeIdCache caches the type per node id, may be null
+     */
+    public SubReferenceNodeTypeRepresentationStrategy(GraphDatabase graphDatabase, int counterShards, TypeIdCache typeIdCache) {
 		this.graphDatabase = graphDatabase;
         typeCache = new EntityTypeCache();
+        typeCounter = new TypeCounter(graphDatabase, SUBREF_PREFIX, Math.max(counterShards, 1));
+        this.typeIdCache = typeIdCache;
     }
 
     public static Node getSingleOtherNode(Node node, RelationshipType type,
@@ -65,7 +86,7 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
 
     public static Integer incrementAndGetCounter(Node node, String propertyKey) {
         acquireWriteLock(node);
-        int value = (Integer) node.getProperty(propertyKey, 0);
+        int value = ((Number) node.getProperty(propertyKey, 0)).intValue();
         value++;
         node.setProperty(propertyKey, value);
         return value;
@@ -73,7 +94,7 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
 
     public static Integer decrementAndGetCounter(Node node, String propertyKey,
                                                  int notLowerThan) {
-        int value = (Integer) node.getProperty(propertyKey, 0);
+        int value = ((Number) node.getProperty(propertyKey, 0)).intValue();
         value--;
         value = value < notLowerThan ? notLowerThan : value;
         node.setProperty(propertyKey, value);
@@ -90,10 +111,10 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
     public void postEntityCreation(Node state, Class<?> type) {
 	    final Node subReference = obtainSubreferenceNode(type);
         state.createRelationshipTo(subReference, INSTANCE_OF_RELATIONSHIP_TYPE);
-	    subReference.setProperty(SUBREF_CLASS_KEY, type.getName());
+        setClassName(subReference, type);
 	    if (log.isDebugEnabled()) log.debug("Created link to subref node: " + subReference + " with type: " + type.getName());
 
-        incrementAndGetCounter(subReference, SUBREFERENCE_NODE_COUNTER_KEY);
+        incrementCounter(subReference);
 
 	    updateSuperClassSubrefs(type, subReference);
     }
@@ -105,24 +126,52 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
 		    if (getSingleOtherNode(subReference, SUBCLASS_OF_RELATIONSHIP_TYPE, Direction.OUTGOING) == null) {
 			    subReference.createRelationshipTo(superClassSubref, SUBCLASS_OF_RELATIONSHIP_TYPE);
 		    }
-		    superClassSubref.setProperty(SUBREF_CLASS_KEY, superClass.getName());
-		    Integer count = incrementAndGetCounter(superClassSubref, SUBREFERENCE_NODE_COUNTER_KEY);
+		    setClassName(superClassSubref, superClass);
+		    long count = incrementCounter(superClassSubref);
 		    if (log.isDebugEnabled()) log.debug("count on ref " + superClassSubref + " for class " + superClass.getSimpleName() + " = " + count);
 		    updateSuperClassSubrefs(superClass, superClassSubref);
 	    }
 	}
 
+    private void setClassName(Node subReference, Class<?> type) {
+        // only write if necessary, writing locks the subreference node
+        if (!type.getName().equals(subReference.getProperty(SUBREF_CLASS_KEY, null))) {
+            subReference.setProperty(SUBREF_CLASS_KEY, type.getName());
+        }
+    }
+
+    private long incrementCounter(Node subReference) {
+        if (isSharded(subReference)) return typeCounter.increment(subReference);
+        return incrementAndGetCounter(subReference, SUBREFERENCE_NODE_COUNTER_KEY);
+    }
+
+    private long decrementCounter(Node subReference) {
+        if (isSharded(subReference)) return typeCounter.decrement(subReference);
+        return decrementAndGetCounter(subReference, SUBREFERENCE_NODE_COUNTER_KEY, 0);
+    }
+
+    /**
+     * Subreference nodes written with counter shards keep them even if the strategy is configured without shards later.
+     */
+    private boolean isSharded(Node subReference) {
+        return typeCounter.getShards() > 1 || subReference.hasProperty(TypeCounter.SHARDS_KEY);
+    }
+
 	@Override
     public long count(final Class<?> entityClass) {
         final Node subrefNode = findSubreferenceNode(entityClass);
         if (subrefNode == null) return 0;
-        return (Integer) subrefNode.getProperty(SUBREFERENCE_NODE_COUNTER_KEY, 0);
+        return typeCounter.count(subrefNode);
     }
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> Class<T> getJavaType(Node node) {
         if (node == null) throw new IllegalArgumentException("Node is null");
+        if (typeIdCache != null) {
+            final Class<T> cached = typeIdCache.get(node.getId());
+            if (cached != null) return cached;
+        }
         Relationship instanceOfRelationship = node.getSingleRelationship(INSTANCE_OF_RELATIONSHIP_TYPE, Direction.OUTGOING);
         if (instanceOfRelationship == null)
             throw new IllegalArgumentException("The node " + node + " is not attached to a type hierarchy.");
@@ -130,6 +179,7 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
         final String typeName = (String) subrefNode.getProperty(SUBREF_CLASS_KEY);
         Class<T> clazz = resolveType(node, typeName);
         if (log.isDebugEnabled()) log.debug("Found class " + clazz.getSimpleName() + " for node: " + node);
+        if (typeIdCache != null) typeIdCache.put(node.getId(), clazz);
         return clazz;
     }
 
@@ -153,10 +203,11 @@ public class SubReferenceNodeTypeRepresentationStrategy implements NodeTypeRepre
             log.debug("Removed link to subref node: " + subReference + " with type: " + clazz.getName());
         TraversalDescription traversal = Traversal.description().depthFirst().relationships(SUBCLASS_OF_RELATIONSHIP_TYPE, Direction.OUTGOING);
         for (Node node : traversal.traverse(subReference).nodes()) {
-            Integer count = (Integer) node.getProperty(SUBREFERENCE_NODE_COUNTER_KEY);
-            Integer newCount = decrementAndGetCounter(node, SUBREFERENCE_NODE_COUNTER_KEY, 0);
+            Object count = node.getProperty(SUBREFERENCE_NODE_COUNTER_KEY, 0);
+            long newCount = decrementCounter(node);
             if (log.isDebugEnabled()) log.debug("count on ref " + node + " was " + count + " new " + newCount);
         }
+        if (typeIdCache != null) typeIdCache.remove(state.getId());
     }
 
     @Override
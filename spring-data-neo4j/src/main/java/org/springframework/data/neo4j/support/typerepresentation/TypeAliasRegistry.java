@@ -0,0 +1,122 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.neo4j.annotation.TypeAlias;
+import org.springframework.data.neo4j.core.GraphDatabase;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the mapping of {@link TypeAlias} aliases to class names in a registry node attached to the reference node, so
+ * that aliases written to the graph can be resolved without having loaded the annotated class. The alias of a class only
+ * depends on its annotation, registering it is idempotent and happens within the transaction that creates the first entity
+ * of the class.
+ */
+public class TypeAliasRegistry {
+    public static final RelationshipType TYPE_ALIASES_RELATIONSHIP_TYPE = DynamicRelationshipType.withName("TYPE_ALIASES");
+    private static final String RESERVED_PREFIX = "__";
+
+    private final GraphDatabase graphDatabase;
+    private final EntityTypeCache typeCache = new EntityTypeCache();
+    private final ConcurrentMap<String, Class<?>> types = new ConcurrentHashMap<String, Class<?>>();
+
+    public TypeAliasRegistry(GraphDatabase graphDatabase) {
+        this.graphDatabase = graphDatabase;
+    }
+
+    /**
+     * @return the alias of the annotated type or null if the type has no {@link TypeAlias} annotation
+     */
+    public static String getAlias(Class<?> type) {
+        final TypeAlias typeAlias = type.getAnnotation(TypeAlias.class);
+        if (typeAlias == null) return null;
+        final String alias = typeAlias.value();
+        if (alias.length() == 0 || alias.startsWith(RESERVED_PREFIX)) {
+            throw new MappingException("Invalid type alias '" + alias + "' of " + type);
+        }
+        return alias;
+    }
+
+    /**
+     * @return the value that represents the type in the graph, its alias or otherwise its class name
+     */
+    public static String getTypeKey(Class<?> type) {
+        final String alias = getAlias(type);
+        return alias != null ? alias : type.getName();
+    }
+
+    /**
+     * Makes sure the alias of the type is stored in the registry, must be called within a transaction.
+     * @return the value that represents the type in the graph, its alias or otherwise its class name
+     */
+    public String register(Class<?> type) {
+        final String alias = getAlias(type);
+        if (alias == null) return type.getName();
+        final Node registry = obtainRegistryNode();
+        final Object registered = registry.getProperty(alias, null);
+        if (type.getName().equals(registered)) return alias;
+        SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(registry);
+        final Object existing = registry.getProperty(alias, null);
+        if (existing != null && !existing.equals(type.getName())) {
+            throw new MappingException("Type alias '" + alias + "' of " + type + " is already used by " + existing);
+        }
+        if (existing == null) registry.setProperty(alias, type.getName());
+        return alias;
+    }
+
+    /**
+     * @return the class registered for the alias or null if it is no (known) alias
+     */
+    public Class<?> getType(String alias) {
+        if (alias == null) return null;
+        final Class<?> type = types.get(alias);
+        if (type != null) return type;
+        final Node registry = findRegistryNode();
+        if (registry == null) return null;
+        final Object className = registry.getProperty(alias, null);
+        if (!(className instanceof String)) return null;
+        final Class<?> resolved = typeCache.getClassForName((String) className);
+        if (resolved == null) return null;
+        types.put(alias, resolved);
+        return resolved;
+    }
+
+    private Node findRegistryNode() {
+        final Relationship relationship = graphDatabase.getReferenceNode().getSingleRelationship(TYPE_ALIASES_RELATIONSHIP_TYPE, Direction.OUTGOING);
+        return relationship != null ? relationship.getEndNode() : null;
+    }
+
+    private Node obtainRegistryNode() {
+        final Node registry = findRegistryNode();
+        if (registry != null) return registry;
+        final Node referenceNode = graphDatabase.getReferenceNode();
+        SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(referenceNode);
+        final Node existing = findRegistryNode();
+        if (existing != null) return existing;
+        final Node newRegistry = graphDatabase.createNode(null);
+        referenceNode.createRelationshipTo(newRegistry, TYPE_ALIASES_RELATIONSHIP_TYPE);
+        return newRegistry;
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.springframework.data.neo4j.core.GraphDatabase;
+
+/**
+ * Keeps the number of entities per type in counter nodes attached to the reference node, so that counting doesn't have
+ * to iterate over all instances. The counter of a type can be split into several shard nodes, concurrent updates then
+ * lock different shards (chosen by thread) instead of all serializing on a single node. The count is the sum of all shards.
+ * <p/>
+ * Counters are updated within the transaction that creates or removes the entity. A counter that missed updates (e.g.
+ * while counting was disabled) is marked stale until it is {@link #initialize initialized} again.
+ */
+public class TypeCounter {
+    public static final RelationshipType SHARD_RELATIONSHIP_TYPE = DynamicRelationshipType.withName("COUNTER_SHARD");
+    public static final String COUNTER_KEY = "count";
+    public static final String SHARDS_KEY = "shards";
+    public static final String TYPE_KEY = "type";
+    public static final String STALE_KEY = "stale";
+
+    private final GraphDatabase graphDatabase;
+    private final String prefix;
+    private final int shards;
+
+    /**
+     * @param graphDatabase database holding the counter nodes
+     * @param prefix relationship type prefix for the counter nodes, distinguishes e.g. node and relationship counters
+     * @param shards number of shard nodes per counter, 1 for a single counter node
+     */
+    public TypeCounter(GraphDatabase graphDatabase, String prefix, int shards) {
+        if (shards < 1) throw new IllegalArgumentException("Number of counter shards must be positive but was " + shards);
+        this.graphDatabase = graphDatabase;
+        this.prefix = prefix;
+        this.shards = shards;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * @return the counter node of the type or null if there is none yet
+     */
+    public Node findCounterNode(String typeName) {
+        final Relationship relationship = graphDatabase.getReferenceNode().getSingleRelationship(counterRelationshipType(typeName), Direction.OUTGOING);
+        return relationship != null ? relationship.getEndNode() : null;
+    }
+
+    /**
+     * @return true if a counter for the type exists, {@link #count(String)} is accurate unless it is {@link #isStale stale}
+     */
+    public boolean exists(String typeName) {
+        return findCounterNode(typeName) != null;
+    }
+
+    /**
+     * Creates the counter for the type unless it exists, a new counter starts at the given initial count.
+     */
+    public Node obtainCounterNode(String typeName, long initialCount) {
+        final Node counterNode = findCounterNode(typeName);
+        if (counterNode != null) return counterNode;
+        final Node referenceNode = graphDatabase.getReferenceNode();
+        SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(referenceNode);
+        final Node existing = findCounterNode(typeName);
+        if (existing != null) return existing;
+        return createCounterNode(referenceNode, typeName, initialCount);
+    }
+
+    private Node createCounterNode(Node referenceNode, String typeName, long initialCount) {
+        final Node counterNode = graphDatabase.createNode(null);
+        counterNode.setProperty(TYPE_KEY, typeName);
+        counterNode.setProperty(COUNTER_KEY, initialCount);
+        createShards(counterNode);
+        referenceNode.createRelationshipTo(counterNode, counterRelationshipType(typeName));
+        return counterNode;
+    }
+
+    private long[] createShards(Node counterNode) {
+        final long[] shardIds = new long[shards];
+        shardIds[0] = counterNode.getId();
+        for (int i = 1; i < shards; i++) {
+            final Node shard = graphDatabase.createNode(null);
+            shard.setProperty(COUNTER_KEY, 0L);
+            counterNode.createRelationshipTo(shard, SHARD_RELATIONSHIP_TYPE);
+            shardIds[i] = shard.getId();
+        }
+        counterNode.setProperty(SHARDS_KEY, shardIds);
+        return shardIds;
+    }
+
+    /**
+     * Creates the counter for the type or resets an existing one to the given count, which also makes a stale counter
+     * accurate again.
+     */
+    public Node initialize(String typeName, long count) {
+        final Node counterNode = obtainCounterNode(typeName, count);
+        SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(counterNode);
+        for (long shardId : obtainShardIds(counterNode)) {
+            final Node shard = shardId == counterNode.getId() ? counterNode : graphDatabase.getNodeById(shardId);
+            shard.setProperty(COUNTER_KEY, shard == counterNode ? count : 0L);
+        }
+        counterNode.removeProperty(STALE_KEY);
+        return counterNode;
+    }
+
+    /**
+     * Marks an existing counter of the type as stale, so that it is no longer used until it is initialized again.
+     */
+    public void markStale(String typeName) {
+        final Node counterNode = findCounterNode(typeName);
+        if (counterNode == null || isStale(counterNode)) return;
+        counterNode.setProperty(STALE_KEY, true);
+    }
+
+    public boolean isStale(Node counterNode) {
+        return counterNode.hasProperty(STALE_KEY);
+    }
+
+    /**
+     * Counter nodes that were not created by this counter (e.g. existing subreference nodes) get their shards on the
+     * first update, their current count stays in the first shard which is the counter node itself.
+     */
+    private long[] obtainShardIds(Node counterNode) {
+        final Object shardIds = counterNode.getProperty(SHARDS_KEY, null);
+        if (shardIds != null) return (long[]) shardIds;
+        SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(counterNode);
+        final Object existing = counterNode.getProperty(SHARDS_KEY, null);
+        if (existing != null) return (long[]) existing;
+        return createShards(counterNode);
+    }
+
+    public long increment(Node counterNode) {
+        return add(counterNode, 1);
+    }
+
+    public long decrement(Node counterNode) {
+        return add(counterNode, -1);
+    }
+
+    private long add(Node counterNode, long delta) {
+        final Node shard = selectShard(counterNode);
+        SubReferenceNodeTypeRepresentationStrategy.acquireWriteLock(shard);
+        long value = ((Number) shard.getProperty(COUNTER_KEY, 0L)).longValue() + delta;
+        shard.setProperty(COUNTER_KEY, value);
+        return value;
+    }
+
+    private Node selectShard(Node counterNode) {
+        final long[] shardIds = obtainShardIds(counterNode);
+        if (shardIds.length == 1) return counterNode;
+        final int shard = (int) (Thread.currentThread().getId() % shardIds.length);
+        if (shard == 0) return counterNode;
+        return graphDatabase.getNodeById(shardIds[shard]);
+    }
+
+    /**
+     * @return the sum of all shards of the type's counter, 0 if there is no counter
+     */
+    public long count(String typeName) {
+        final Node counterNode = findCounterNode(typeName);
+        if (counterNode == null) return 0;
+        return count(counterNode);
+    }
+
+    /**
+     * @return the sum of all shards of the counter node
+     */
+    public long count(Node counterNode) {
+        final long[] shardIds = (long[]) counterNode.getProperty(SHARDS_KEY, null);
+        if (shardIds == null) return ((Number) counterNode.getProperty(COUNTER_KEY, 0L)).longValue();
+        long count = 0;
+        for (long shardId : shardIds) {
+            final Node shard = shardId == counterNode.getId() ? counterNode : graphDatabase.getNodeById(shardId);
+            count += ((Number) shard.getProperty(COUNTER_KEY, 0L)).longValue();
+        }
+        return count < 0 ? 0 : count;
+    }
+
+    private RelationshipType counterRelationshipType(String typeName) {
+        return DynamicRelationshipType.withName(prefix + typeName);
+    }
+}
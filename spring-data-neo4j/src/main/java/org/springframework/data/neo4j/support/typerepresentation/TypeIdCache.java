@@ -0,0 +1,198 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.springframework.data.neo4j.support.LongHashSet;
+import org.springframework.data.neo4j.support.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Remembers the entity type of node or relationship ids, so that the type representation strategies can resolve the type
+ * of known elements without reading the store. Types are stored as small ordinals in a primitive map, which costs a few
+ * bytes per cached id. The cache is bounded, it is cleared when it would grow beyond its maximum size.
+ * <p/>
+ * Ids are only cached when the type of an element was read from the store, not when an entity is created, so the ids of
+ * entities whose creation is rolled back don't stay cached. They are evicted when the mapping layer removes an entity
+ * and, when registered with an embedded {@link GraphDatabaseService} (see {@link #registerWith}), when a commit deletes
+ * the element or changes its type property by other means (e.g. Cypher or {@code Neo4jHelper.cleanDb}), a rollback
+ * clears the whole cache.
+ */
+public class TypeIdCache {
+    private static final Log log = LogFactory.getLog(TypeIdCache.class);
+    private static final int UNKNOWN = -1;
+
+    private final int maxSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap typeIds = new LongIntHashMap();
+    private final List<Class<?>> types = new ArrayList<Class<?>>();
+    private final Map<Class<?>, Integer> ordinals = new HashMap<Class<?>, Integer>();
+
+    /**
+     * @param maxSize maximum number of cached ids
+     */
+    public TypeIdCache(int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Type id cache size must be positive but was " + maxSize);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cached type of the element with the id or null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Class<T> get(long id) {
+        lock.readLock().lock();
+        try {
+            final int ordinal = typeIds.get(id, UNKNOWN);
+            return ordinal == UNKNOWN ? null : (Class<T>) types.get(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(long id, Class<?> type) {
+        if (type == null) return;
+        lock.writeLock().lock();
+        try {
+            if (typeIds.size() >= maxSize && !typeIds.containsKey(id)) typeIds.clear();
+            typeIds.put(id, ordinalOf(type));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int ordinalOf(Class<?> type) {
+        final Integer ordinal = ordinals.get(type);
+        if (ordinal != null) return ordinal;
+        types.add(type);
+        ordinals.put(type, types.size() - 1);
+        return types.size() - 1;
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            typeIds.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            typeIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return typeIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private void removeAll(LongHashSet ids) {
+        if (ids.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            for (long id : ids.toArray()) {
+                typeIds.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registers a transaction event handler that evicts the ids of deleted or retyped elements after each commit.
+     *
+     * @param elementType {@link Node} or {@link Relationship}, the kind of element whose ids are cached
+     * @return false if the database doesn't support transaction events, then only the mapping layer evicts ids
+     */
+    public boolean registerWith(GraphDatabaseService graphDatabaseService, Class<? extends PropertyContainer> elementType) {
+        try {
+            graphDatabaseService.registerTransactionEventHandler(new InvalidatingTransactionEventHandler(Node.class.isAssignableFrom(elementType)));
+            return true;
+        } catch (UnsupportedOperationException uoe) {
+            log.warn("Transaction events not supported by " + graphDatabaseService + ", cached type ids are only evicted when entities are removed by the mapping layer");
+            return false;
+        }
+    }
+
+    private class InvalidatingTransactionEventHandler implements TransactionEventHandler<LongHashSet> {
+        private final boolean nodes;
+
+        private InvalidatingTransactionEventHandler(boolean nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public LongHashSet beforeCommit(TransactionData data) throws Exception {
+            final LongHashSet changed = new LongHashSet();
+            if (nodes) {
+                for (Node node : data.deletedNodes()) changed.add(node.getId());
+                addRetyped(changed, data.assignedNodeProperties());
+                addRetyped(changed, data.removedNodeProperties());
+            } else {
+                for (Relationship relationship : data.deletedRelationships()) changed.add(relationship.getId());
+                addRetyped(changed, data.assignedRelationshipProperties());
+                addRetyped(changed, data.removedRelationshipProperties());
+            }
+            return changed;
+        }
+
+        private <T extends PropertyContainer> void addRetyped(LongHashSet changed, Iterable<PropertyEntry<T>> entries) {
+            for (PropertyEntry<T> entry : entries) {
+                if (!IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME.equals(entry.key())) continue;
+                changed.add(nodes ? ((Node) entry.entity()).getId() : ((Relationship) entry.entity()).getId());
+            }
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, LongHashSet changed) {
+            removeAll(changed);
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, LongHashSet changed) {
+            clear();
+        }
+    }
+}
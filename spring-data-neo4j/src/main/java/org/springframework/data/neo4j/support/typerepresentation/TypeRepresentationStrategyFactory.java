@@ -23,11 +23,16 @@ import org.neo4j.graphdb.index.Index;
 import org.springframework.data.neo4j.core.GraphDatabase;
 import org.springframework.data.neo4j.core.NodeTypeRepresentationStrategy;
 import org.springframework.data.neo4j.core.RelationshipTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
 import org.springframework.data.neo4j.support.index.NoSuchIndexException;
+import org.springframework.data.neo4j.support.mapping.Neo4jMappingContext;
 
 public class TypeRepresentationStrategyFactory {
     private GraphDatabase graphDatabaseService;
     private Strategy strategy;
+    private int counterShards;
+    private int typeIdCacheSize;
+    private Neo4jMappingContext concreteTypeIndexContext;
 
     public TypeRepresentationStrategyFactory(GraphDatabase graphDatabaseService) {
         this(graphDatabaseService,chooseStrategy(graphDatabaseService));
@@ -61,51 +66,98 @@ public class TypeRepresentationStrategyFactory {
         return false;
     }
 
+    /**
+     * @param counterShards for the indexed strategies: if positive, entity counts per type are kept in counter nodes
+     *                      split into that many shards, 0 (the default) counts by iterating the type index. Types
+     *                      are counted by iterating the type index until their counter is initialized, see
+     *                      {@link IndexingNodeTypeRepresentationStrategy#initializeCounter(Class)}.
+     *                      For the subreference strategy: with more than one shard the counters of each subreference
+     *                      node are split into that many shard nodes.
+     */
+    public void setCounterShards(int counterShards) {
+        this.counterShards = counterShards;
+    }
+
+    /**
+     * @param typeIdCacheSize if positive, the strategies remember the types of up to that many node and relationship ids
+     *                        each, so that resolving the type of a known entity doesn't read the store. 0 (the default)
+     *                        disables the cache.
+     */
+    public void setTypeIdCacheSize(int typeIdCacheSize) {
+        this.typeIdCacheSize = typeIdCacheSize;
+    }
+
+    /**
+     * @param mappingContext if not null, the indexing strategies index new entities only with their concrete type and
+     *                       resolve lookups of a supertype with the subtypes known to this mapping context
+     * @see IndexingNodeTypeRepresentationStrategy#setConcreteTypeIndex(Neo4jMappingContext)
+     */
+    public void setConcreteTypeIndex(Neo4jMappingContext mappingContext) {
+        this.concreteTypeIndexContext = mappingContext;
+    }
+
+    private TypeIdCache createTypeIdCache(Class<? extends PropertyContainer> elementType) {
+        if (typeIdCacheSize <= 0) return null;
+        final TypeIdCache typeIdCache = new TypeIdCache(typeIdCacheSize);
+        if (graphDatabaseService instanceof DelegatingGraphDatabase) {
+            typeIdCache.registerWith(((DelegatingGraphDatabase) graphDatabaseService).getGraphDatabaseService(), elementType);
+        }
+        return typeIdCache;
+    }
+
     public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy() {
-        return strategy.getNodeTypeRepresentationStrategy(graphDatabaseService);
+        final NodeTypeRepresentationStrategy result = strategy.getNodeTypeRepresentationStrategy(graphDatabaseService, counterShards, createTypeIdCache(Node.class));
+        if (concreteTypeIndexContext != null && result instanceof IndexingNodeTypeRepresentationStrategy) {
+            ((IndexingNodeTypeRepresentationStrategy) result).setConcreteTypeIndex(concreteTypeIndexContext);
+        }
+        return result;
     }
 
     public RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy() {
-        return strategy.getRelationshipTypeRepresentationStrategy(graphDatabaseService);
+        final RelationshipTypeRepresentationStrategy result = strategy.getRelationshipTypeRepresentationStrategy(graphDatabaseService, counterShards, createTypeIdCache(Relationship.class));
+        if (concreteTypeIndexContext != null && result instanceof IndexingRelationshipTypeRepresentationStrategy) {
+            ((IndexingRelationshipTypeRepresentationStrategy) result).setConcreteTypeIndex(concreteTypeIndexContext);
+        }
+        return result;
     }
 
     private enum Strategy {
         SubRef {
             @Override
-            public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabase graphDatabaseService) {
-                return new SubReferenceNodeTypeRepresentationStrategy(graphDatabaseService);
+            public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabase graphDatabaseService, int counterShards, TypeIdCache typeIdCache) {
+                return new SubReferenceNodeTypeRepresentationStrategy(graphDatabaseService, counterShards, typeIdCache);
             }
 
             @Override
-            public RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabase graphDatabaseService) {
+            public RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabase graphDatabaseService, int counterShards, TypeIdCache typeIdCache) {
                 return new NoopRelationshipTypeRepresentationStrategy();
             }
         },
         Indexed {
             @Override
-            public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabase graphDatabaseService) {
-                return new IndexingNodeTypeRepresentationStrategy(graphDatabaseService);
+            public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabase graphDatabaseService, int counterShards, TypeIdCache typeIdCache) {
+                return new IndexingNodeTypeRepresentationStrategy(graphDatabaseService, counterShards, typeIdCache);
             }
 
             @Override
-            public RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabase graphDatabaseService) {
-                return new IndexingRelationshipTypeRepresentationStrategy(graphDatabaseService);
+            public RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabase graphDatabaseService, int counterShards, TypeIdCache typeIdCache) {
+                return new IndexingRelationshipTypeRepresentationStrategy(graphDatabaseService, counterShards, typeIdCache);
             }
         },
         Noop {
             @Override
-            public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabase graphDatabaseService) {
+            public NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabase graphDatabaseService, int counterShards, TypeIdCache typeIdCache) {
                 return new NoopNodeTypeRepresentationStrategy();
             }
 
             @Override
-            public RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabase graphDatabaseService) {
+            public RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabase graphDatabaseService, int counterShards, TypeIdCache typeIdCache) {
                 return new NoopRelationshipTypeRepresentationStrategy();
             }
         };
 
-        public abstract NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabase graphDatabaseService);
+        public abstract NodeTypeRepresentationStrategy getNodeTypeRepresentationStrategy(GraphDatabase graphDatabaseService, int counterShards, TypeIdCache typeIdCache);
 
-        public abstract RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabase graphDatabaseService);
+        public abstract RelationshipTypeRepresentationStrategy getRelationshipTypeRepresentationStrategy(GraphDatabase graphDatabaseService, int counterShards, TypeIdCache typeIdCache);
     }
 }
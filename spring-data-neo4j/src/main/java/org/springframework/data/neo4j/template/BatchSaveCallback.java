@@ -0,0 +1,32 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.template;
+
+/**
+ * Notified after each chunk of a batch save was committed, can be used for progress reporting and timing.
+ *
+ * @see Neo4jOperations#saveAll(Iterable, int, BatchSaveCallback)
+ */
+public interface BatchSaveCallback {
+    /**
+     * @param chunk number of the committed chunk, starting with 1
+     * @param entitiesInChunk number of entities saved in this chunk, equals the chunk size except for the last chunk
+     * @param totalSaved number of entities saved so far, including this chunk
+     * @param chunkMillis time it took to save and commit this chunk
+     */
+    void chunkSaved(int chunk, int entitiesInChunk, long totalSaved, long chunkMillis);
+}
@@ -238,6 +238,19 @@ public interface Neo4jOperations {
      */
     <T> T save(T entity);
 
+    /**
+     * Stores the given entities like {@link #save(Object)} but commits a transaction every chunkSize entities instead of
+     * one per entity, which is much faster for bulk loads. Chunks join a surrounding transaction if there is one.
+     * @return the number of saved entities
+     */
+    <T> long saveAll(Iterable<T> entities, int chunkSize);
+
+    /**
+     * @see #saveAll(Iterable, int)
+     * @param callback notified after each committed chunk, may be null
+     */
+    <T> long saveAll(Iterable<T> entities, int chunkSize, BatchSaveCallback callback);
+
     /**
      * Removes the given node or relationship entity or node or relationship from the graph, the entity is first removed
      * from all indexes and then deleted.
@@ -17,6 +17,11 @@ package org.springframework.data.neo4j.conversion;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.neo4j.helpers.collection.IteratorUtil;
+import org.springframework.data.neo4j.mapping.MappingPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
@@ -69,4 +74,29 @@ public class QueryResultBuilderTest {
     public void testIterator() throws Exception {
 
     }
+
+    @Test
+    public void testSliceConvertsOnlyTheWindow() throws Exception {
+        final List<Integer> converted = new ArrayList<Integer>();
+        final ResultConverter<Integer, String> converter = new ResultConverter<Integer, String>() {
+            @Override
+            public String convert(Integer value, Class<String> type) {
+                return convert(value, type, null);
+            }
+
+            @Override
+            public String convert(Integer value, Class<String> type, MappingPolicy mappingPolicy) {
+                converted.add(value);
+                return String.valueOf(value);
+            }
+        };
+        final Result<Integer> slice = from(1, 2, 3, 4, 5).slice(1, 2);
+        assertThat(IteratorUtil.addToCollection(slice.to(String.class, converter), new ArrayList<String>()), is(asList("2", "3")));
+        assertThat(converted, is(asList(2, 3)));
+    }
+
+    @Test
+    public void testSliceBeyondEnd() throws Exception {
+        assertThat(IteratorUtil.count(from(1, 2, 3).slice(5, 2)), is(0));
+    }
 }
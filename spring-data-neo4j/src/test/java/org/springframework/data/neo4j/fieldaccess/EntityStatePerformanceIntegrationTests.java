@@ -0,0 +1,81 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentTestBase;
+import org.springframework.data.neo4j.model.Person;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Not part of the default test run, measures the construction of entity states, which looks up the field accessor
+ * factories of the entity type in the {@link DelegatingFieldAccessorFactory}, with an increasing number of threads.
+ */
+public class EntityStatePerformanceIntegrationTests extends Neo4jPersistentTestBase {
+    private static final Log log = LogFactory.getLog(EntityStatePerformanceIntegrationTests.class);
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int STATES = 100000;
+
+    @Test
+    public void testEntityStateConstructionThroughput() throws Exception {
+        nodeEntityStateFactory.getEntityState(michael, false);
+        for (int threads : THREADS) {
+            final long time = constructEntityStates(threads);
+            log.info(String.format("entity state construction with %d threads: %d states per ms", threads, threads * STATES * 1000000L / time));
+        }
+    }
+
+    /**
+     * @return the time in ns until all threads constructed their entity states
+     */
+    private long constructEntityStates(int threads) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        final Person person = new Person("Michael", 37);
+                        start.await();
+                        for (int state = 0; state < STATES; state++) {
+                            if (nodeEntityStateFactory.getEntityState(person, false) == null) throw new IllegalStateException("No entity state");
+                        }
+                        return null;
+                    }
+                }));
+            }
+            final long time = System.nanoTime();
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get();
+            }
+            return System.nanoTime() - time;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.junit.Test;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.helpers.collection.IteratorUtil;
+import org.springframework.data.neo4j.annotation.GraphId;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.annotation.RelatedTo;
+import org.springframework.data.neo4j.mapping.Neo4jPersistentTestBase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LazyRelationshipSetTest extends Neo4jPersistentTestBase {
+
+    @NodeEntity
+    public static class Fan {
+        @GraphId
+        Long id;
+        String name;
+        @RelatedTo(type = "FOLLOWS", direction = Direction.OUTGOING)
+        LazyRelatedSet<Fan> follows;
+        @RelatedTo(type = "KNOWS", direction = Direction.BOTH)
+        LazyRelatedSet<Fan> knows;
+
+        public Fan() {
+        }
+
+        public Fan(String name) {
+            this.name = name;
+        }
+    }
+
+    private Fan load(Fan fan) {
+        return template.findOne(fan.id, Fan.class);
+    }
+
+    private Fan fanFollowing(int count) {
+        final Fan fan = template.save(new Fan("fan"));
+        final Node node = template.getNode(fan.id);
+        for (int i = 0; i < count; i++) {
+            final Fan star = template.save(new Fan("star" + i));
+            node.createRelationshipTo(template.getNode(star.id), DynamicRelationshipType.withName("FOLLOWS"));
+        }
+        return load(fan);
+    }
+
+    @Test
+    public void testLoadingProvidesLazySet() {
+        final Fan fan = fanFollowing(3);
+        assertTrue(fan.follows instanceof LazyRelationshipSet);
+        assertEquals(3, fan.follows.size());
+        assertFalse(fan.follows.isEmpty());
+    }
+
+    @Test
+    public void testIterationHydratesElements() {
+        final Fan fan = fanFollowing(3);
+        int count = 0;
+        for (Fan star : fan.follows) {
+            assertTrue(star.name.startsWith("star"));
+            count++;
+        }
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void testSkipAndLimit() {
+        final Fan fan = fanFollowing(5);
+        assertEquals(2, IteratorUtil.count(fan.follows.limit(2)));
+        assertEquals(1, IteratorUtil.count(fan.follows.skip(4)));
+        assertEquals(2, IteratorUtil.count(fan.follows.slice(1, 2)));
+        assertEquals(0, IteratorUtil.count(fan.follows.slice(5, 2)));
+    }
+
+    @Test
+    public void testAddAndRemoveWriteRelationships() {
+        final Fan fan = fanFollowing(1);
+        final Fan star = template.save(new Fan("newStar"));
+        assertTrue(fan.follows.add(star));
+        assertFalse(fan.follows.add(star));
+        assertTrue(fan.follows.contains(star));
+        assertEquals(2, load(fan).follows.size());
+
+        assertTrue(fan.follows.remove(star));
+        assertFalse(fan.follows.contains(star));
+        final List<Fan> remaining = IteratorUtil.addToCollection(load(fan).follows, new ArrayList<Fan>());
+        assertEquals(1, remaining.size());
+        assertEquals("star0", remaining.get(0).name);
+    }
+
+    @Test
+    public void testDuplicateRelationshipsAreOneElement() {
+        final Fan fan = fanFollowing(1);
+        final Node star = template.getNode(IteratorUtil.first(fan.follows).id);
+        template.getNode(fan.id).createRelationshipTo(star, DynamicRelationshipType.withName("FOLLOWS"));
+        final Fan loaded = load(fan);
+        assertEquals(1, loaded.follows.size());
+        assertEquals(1, IteratorUtil.count(loaded.follows));
+        final Iterator<Fan> it = loaded.follows.iterator();
+        it.next();
+        it.remove();
+        assertTrue(loaded.follows.isEmpty());
+    }
+
+    @Test
+    public void testSelfLoopIsOneElement() {
+        final Fan fan = template.save(new Fan("narcissus"));
+        final Node node = template.getNode(fan.id);
+        node.createRelationshipTo(node, DynamicRelationshipType.withName("KNOWS"));
+        final Fan loaded = load(fan);
+        assertEquals(1, loaded.knows.size());
+        assertEquals(1, IteratorUtil.count(loaded.knows));
+        assertEquals("narcissus", IteratorUtil.first(loaded.knows).name);
+    }
+
+    @Test
+    public void testSavingKeepsRelationships() {
+        final Fan fan = fanFollowing(2);
+        fan.name = "renamed";
+        template.save(fan);
+        assertEquals(2, load(fan).follows.size());
+    }
+}
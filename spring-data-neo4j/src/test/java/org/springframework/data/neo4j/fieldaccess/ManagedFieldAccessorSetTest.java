@@ -0,0 +1,187 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.fieldaccess;
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.model.Club;
+import org.springframework.data.neo4j.model.Group;
+import org.springframework.data.neo4j.model.Membership;
+import org.springframework.data.neo4j.model.Person;
+import org.springframework.data.neo4j.support.EntityTestBase;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+import static org.neo4j.graphdb.DynamicRelationshipType.withName;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:template-config-context.xml"})
+public class ManagedFieldAccessorSetTest extends EntityTestBase {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Set<Long> createdRelationships = new HashSet<Long>();
+    private final Set<Long> deletedRelationships = new HashSet<Long>();
+    private final Set<Long> writtenRelationships = new HashSet<Long>();
+
+    private final TransactionEventHandler<Object> writes = new TransactionEventHandler<Object>() {
+        @Override
+        public Object beforeCommit(TransactionData data) throws Exception {
+            return null;
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, Object state) {
+            for (Relationship relationship : data.createdRelationships()) {
+                createdRelationships.add(relationship.getId());
+            }
+            for (Relationship relationship : data.deletedRelationships()) {
+                deletedRelationships.add(relationship.getId());
+            }
+            for (PropertyEntry<Relationship> entry : data.assignedRelationshipProperties()) {
+                writtenRelationships.add(entry.entity().getId());
+            }
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, Object state) {
+        }
+    };
+
+    private Person michael;
+    private Person emil;
+    private Person david;
+    private Person thomas;
+    private Group group;
+    private Club club;
+
+    @Before
+    public void setUp() {
+        inTransaction(new Runnable() {
+            public void run() {
+                michael = persist(new Person("Michael", 36));
+                emil = persist(new Person("Emil", 32));
+                david = persist(new Person("David", 30));
+                thomas = persist(new Person("Thomas", 28));
+                group = new Group();
+                group.setName("Neo4j");
+                group.setPersons(set(michael, emil, david));
+                group = persist(group);
+                club = persist(new Club("Graphistas"));
+                club.addMember(michael, "member");
+                club.addMember(emil, "member");
+                club = persist(club);
+            }
+        });
+        graphDatabaseService.registerTransactionEventHandler(writes);
+    }
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.unregisterTransactionEventHandler(writes);
+    }
+
+    private void inTransaction(final Runnable runnable) {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                runnable.run();
+            }
+        });
+    }
+
+    private Set<Long> relatedNodeIds() {
+        final Node node = getNodeState(group);
+        final Set<Long> ids = new HashSet<Long>();
+        for (Relationship relationship : node.getRelationships(withName("persons"), OUTGOING)) {
+            ids.add(relationship.getOtherNode(node).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testAddCreatesOnlyTheAddedRelationship() {
+        final Group loaded = template.findOne(group.getId(), Group.class);
+        inTransaction(new Runnable() {
+            public void run() {
+                loaded.getPersons().add(thomas);
+            }
+        });
+        assertEquals(1, createdRelationships.size());
+        assertTrue(deletedRelationships.isEmpty());
+        assertEquals(set(michael.getId(), emil.getId(), david.getId(), thomas.getId()), relatedNodeIds());
+    }
+
+    @Test
+    public void testRemoveDeletesOnlyTheRemovedRelationship() {
+        final Group loaded = template.findOne(group.getId(), Group.class);
+        inTransaction(new Runnable() {
+            public void run() {
+                assertTrue(loaded.getPersons().remove(emil));
+            }
+        });
+        assertTrue(createdRelationships.isEmpty());
+        assertEquals(1, deletedRelationships.size());
+        assertEquals(set(michael.getId(), david.getId()), relatedNodeIds());
+    }
+
+    @Test
+    public void testClearDeletesTheRelationships() {
+        final Group loaded = template.findOne(group.getId(), Group.class);
+        inTransaction(new Runnable() {
+            public void run() {
+                loaded.getPersons().clear();
+            }
+        });
+        assertTrue(createdRelationships.isEmpty());
+        assertEquals(3, deletedRelationships.size());
+        assertTrue(relatedNodeIds().isEmpty());
+    }
+
+    @Test
+    public void testAddSavesOnlyTheAddedRelationshipEntity() {
+        final Club loaded = template.findOne(club.getId(), Club.class);
+        final Membership membership = new Membership(loaded, thomas, "guest");
+        inTransaction(new Runnable() {
+            public void run() {
+                loaded.getMemberships().add(membership);
+            }
+        });
+        assertEquals(1, createdRelationships.size());
+        assertTrue(deletedRelationships.isEmpty());
+        assertEquals(createdRelationships, writtenRelationships);
+        assertEquals(3, template.findOne(club.getId(), Club.class).getMemberships().size());
+    }
+}
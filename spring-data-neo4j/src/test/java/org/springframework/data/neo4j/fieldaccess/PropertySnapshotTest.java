@@ -0,0 +1,98 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.fieldaccess;
+package org.springframework.data.neo4j.fieldaccess;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.Node;
+import org.springframework.data.neo4j.model.Friendship;
+import org.springframework.data.neo4j.model.Person;
+import org.springframework.data.neo4j.support.EntityTestBase;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+import static org.neo4j.helpers.collection.IteratorUtil.first;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:template-config-context.xml"})
+public class PropertySnapshotTest extends EntityTestBase {
+
+    private Person savePerson() {
+        final Person person = new Person("Michael", 36);
+        person.setHeight((short) 182);
+        person.setBirthdate(new Date(0));
+        person.setPersonalProperties(new DynamicPropertiesContainer());
+        person.setProperty("hobby", "graphs");
+        return persist(person);
+    }
+
+    @Test @Transactional
+    public void testHydratesAllPropertiesFromTheNode() {
+        final Person saved = savePerson();
+        final Person loaded = template.findOne(saved.getId(), Person.class);
+        assertEquals("Michael", loaded.getName());
+        assertEquals(36, loaded.getAge());
+        assertEquals(Short.valueOf((short) 182), loaded.getHeight());
+        assertEquals(new Date(0), loaded.getBirthdate());
+        assertEquals("graphs", loaded.getProperty("hobby"));
+        assertNull("snapshot is only bound during hydration", PropertySnapshot.get(getNodeState(loaded)));
+    }
+
+    @Test @Transactional
+    public void testPropertiesMissingOnTheNodeAreNull() {
+        final Person saved = savePerson();
+        final Node node = getNodeState(saved);
+        node.removeProperty("height");
+        node.removeProperty("personalProperties-hobby");
+        final Person loaded = template.findOne(saved.getId(), Person.class);
+        assertNull(loaded.getHeight());
+        assertNull(loaded.getProperty("hobby"));
+        assertEquals("Michael", loaded.getName());
+    }
+
+    @Test @Transactional
+    public void testNestedHydrationOfTheSameNodeKeepsOuterSnapshot() {
+        final Person saved = savePerson();
+        final Person friend = persist(new Person("Emil", 32));
+        template.save(new Friendship(saved, friend, 5));
+        final Person loaded = template.findOne(saved.getId(), Person.class);
+        final Friendship friendship = first(loaded.getFriendships());
+        assertEquals(saved.getId(), friendship.getPerson1().getId());
+        assertEquals(5, friendship.getYears());
+        assertEquals("Michael", loaded.getName());
+        assertEquals(36, loaded.getAge());
+        assertEquals("graphs", loaded.getProperty("hobby"));
+        assertNull(PropertySnapshot.get(getNodeState(loaded)));
+    }
+
+    @Test @Transactional
+    public void testSaveAfterLoadWritesChangedProperties() {
+        final Person saved = savePerson();
+        final Person loaded = template.findOne(saved.getId(), Person.class);
+        loaded.setAge(37);
+        loaded.setHeight(null);
+        persist(loaded);
+        final Node node = getNodeState(loaded);
+        assertEquals(37, node.getProperty("age"));
+        assertFalse(node.hasProperty("height"));
+        assertEquals(37, template.findOne(saved.getId(), Person.class).getAge());
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.model;
+
+import org.springframework.data.neo4j.annotation.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@NodeEntity
+public class Club {
+    @GraphId
+    private Long id;
+
+    private String name;
+
+    @Fetch
+    @RelatedToVia(type = "members")
+    private Set<Membership> memberships = new HashSet<Membership>();
+
+    public Club() {
+    }
+
+    public Club(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<Membership> getMemberships() {
+        return memberships;
+    }
+
+    public Membership addMember(Person person, String role) {
+        final Membership membership = new Membership(this, person, role);
+        memberships.add(membership);
+        return membership;
+    }
+}
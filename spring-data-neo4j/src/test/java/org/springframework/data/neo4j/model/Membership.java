@@ -0,0 +1,62 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.model;
+
+import org.springframework.data.neo4j.annotation.*;
+
+@RelationshipEntity(type = "members")
+public class Membership {
+    @GraphId
+    private Long id;
+
+    @StartNode
+    private Club club;
+
+    @EndNode
+    private Person member;
+
+    private String role;
+
+    public Membership() {
+    }
+
+    public Membership(Club club, Person member, String role) {
+        this.club = club;
+        this.member = member;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Club getClub() {
+        return club;
+    }
+
+    public Person getMember() {
+        return member;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.model;
+
+import org.springframework.data.neo4j.annotation.EndNode;
+import org.springframework.data.neo4j.annotation.GraphId;
+import org.springframework.data.neo4j.annotation.Indexed;
+import org.springframework.data.neo4j.annotation.RelationshipEntity;
+import org.springframework.data.neo4j.annotation.StartNode;
+
+@RelationshipEntity(type = "ROAD")
+public class Road {
+    @GraphId
+    private Long id;
+
+    @StartNode
+    private City from;
+
+    @EndNode
+    private City to;
+
+    @Indexed
+    private String name;
+
+    public Road() {
+    }
+
+    public Road(City from, City to, String name) {
+        this.from = from;
+        this.to = to;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public City getFrom() {
+        return from;
+    }
+
+    public City getTo() {
+        return to;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.index.Index;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.neo4j.model.Truck;
+import org.springframework.data.neo4j.model.Vehicle;
+import org.springframework.data.neo4j.support.Neo4jTemplate;
+import org.springframework.data.neo4j.support.node.Neo4jHelper;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
+import org.springframework.test.context.CleanContextCacheTestExecutionListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.transaction.BeforeTransaction;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration
+@TestExecutionListeners({CleanContextCacheTestExecutionListener.class, DependencyInjectionTestExecutionListener.class, TransactionalTestExecutionListener.class})
+public class ConcreteTypeIndexRepositoryTest {
+
+    @Autowired
+    private Neo4jTemplate neo4jTemplate;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @BeforeTransaction
+    public void cleanDb() {
+        Neo4jHelper.cleanDb(neo4jTemplate);
+    }
+
+    @Test @Transactional
+    public void testIndexesOnlyTheConcreteType() {
+        final Truck truck = neo4jTemplate.save(new Truck("lorry"));
+        final Index<Node> typesIndex = neo4jTemplate.getIndex(IndexingNodeTypeRepresentationStrategy.INDEX_NAME);
+        assertEquals(truck.getId(), (Long) typesIndex.get(IndexingNodeTypeRepresentationStrategy.INDEX_KEY, Truck.class.getName()).getSingle().getId());
+        assertEquals(0, typesIndex.get(IndexingNodeTypeRepresentationStrategy.INDEX_KEY, "vehicle").size());
+    }
+
+    @Test @Transactional
+    public void testFindsAndCountsSubtypesOfDerivedFinderType() {
+        final Vehicle bus = vehicleRepository.save(new Vehicle("bus"));
+        final Truck truck = neo4jTemplate.save(new Truck("bus"));
+        vehicleRepository.save(new Vehicle("tram"));
+
+        assertEquals(new HashSet<Long>(asList(bus.getId(), truck.getId())), ids(vehicleRepository.findByName("bus")));
+
+        final Page<Vehicle> page = vehicleRepository.findByName("bus", new PageRequest(0, 1));
+        assertEquals(1, page.getNumberOfElements());
+        assertEquals(2, page.getTotalElements());
+        assertEquals(3, vehicleRepository.count());
+    }
+
+    private Set<Long> ids(Iterable<Vehicle> vehicles) {
+        final Set<Long> ids = new HashSet<Long>();
+        for (Vehicle vehicle : vehicles) {
+            ids.add(vehicle.getId());
+        }
+        return ids;
+    }
+}
@@ -30,6 +30,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.neo4j.model.Friendship;
 import org.springframework.data.neo4j.model.Group;
 import org.springframework.data.neo4j.model.Person;
+import org.springframework.data.neo4j.model.Vehicle;
 import org.springframework.data.neo4j.support.Neo4jTemplate;
 import org.springframework.data.neo4j.support.conversion.NoSuchColumnFoundException;
 import org.springframework.data.neo4j.support.node.Neo4jHelper;
@@ -46,7 +47,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
@@ -80,6 +85,9 @@ public class GraphRepositoryTest {
     @Autowired
     FriendshipRepository friendshipRepository;
 
+    @Autowired
+    VehicleRepository vehicleRepository;
+
     private TestTeam testTeam;
 
     @BeforeTransaction
@@ -207,6 +215,23 @@ public class GraphRepositoryTest {
         assertThat(teamMemberPage1.isFirstPage(), is(true));
     }
 
+    @Test @Transactional
+    public void testFindPagedWithCountQueryTotal() {
+        final Page<Person> page = personRepository.findAllTeamMembersPagedWithTotal(testTeam.sdg, new PageRequest(0, 1));
+        assertEquals(3, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        final Page<Person> lastPage = personRepository.findAllTeamMembersPagedWithTotal(testTeam.sdg, new PageRequest(1, 2));
+        assertEquals(3, lastPage.getTotalElements());
+        assertThat(lastPage.isLastPage(), is(true));
+    }
+
+    @Test @Transactional
+    public void testDerivedPageTotal() {
+        final Page<Group> page = groupRepository.findByName(testTeam.sdg.getName(), new PageRequest(0, 1));
+        assertEquals(1, page.getTotalElements());
+        assertThat(page.hasNextPage(), is(false));
+    }
+
     @Test @Transactional 
     public void testFindPagedNull() {
         Page<Person> teamMemberPage1 = personRepository.findAllTeamMembersPaged(testTeam.sdg, null);
@@ -222,6 +247,70 @@ public class GraphRepositoryTest {
         assertEquals(asList(testTeam.michael, testTeam.emil, testTeam.david), asCollection(teamMembers));
     }
 
+    @Test @Transactional
+    public void testFindAllSorted() {
+        final Iterable<Person> persons = personRepository.findAll(new Sort(Sort.Direction.DESC, "name"));
+        assertEquals(asList(testTeam.michael, testTeam.emil, testTeam.david), asCollection(persons));
+    }
+
+    @Test @Transactional
+    public void testFindAllPagedAndSorted() {
+        final Page<Person> page = personRepository.findAll(new PageRequest(0, 2, Sort.Direction.ASC, "age"));
+        assertEquals(asList(testTeam.david, testTeam.emil), asCollection(page));
+        assertThat(page.hasNextPage(), is(true));
+        final Page<Person> lastPage = personRepository.findAll(new PageRequest(1, 2, Sort.Direction.ASC, "age"));
+        assertEquals(asList(testTeam.michael), asCollection(lastPage));
+        assertThat(lastPage.hasNextPage(), is(false));
+    }
+
+    @Test @Transactional
+    public void testFindAllSortedPutsMissingPropertiesLast() {
+        final Person nameless = personRepository.save(new Person(null, 40));
+        assertEquals(asList(testTeam.david, testTeam.emil, testTeam.michael, nameless), asCollection(personRepository.findAll(new Sort("name"))));
+        assertEquals(asList(testTeam.michael, testTeam.emil, testTeam.david, nameless), asCollection(personRepository.findAll(new Sort(Sort.Direction.DESC, "name"))));
+        assertEquals(asList(testTeam.michael, nameless), asCollection(personRepository.findAll(new PageRequest(1, 2, Sort.Direction.ASC, "name"))));
+        assertEquals(asList(testTeam.david, nameless), asCollection(personRepository.findAll(new PageRequest(1, 2, Sort.Direction.DESC, "name"))));
+        final Page<Person> lastPage = personRepository.findAll(new PageRequest(3, 1, Sort.Direction.DESC, "name"));
+        assertEquals(asList(nameless), asCollection(lastPage));
+        assertThat(lastPage.hasNextPage(), is(false));
+    }
+
+    @Test @Transactional
+    public void testFindAllByKeysetAcrossDuplicateKeys() {
+        final Person anders = personRepository.save(new Person("Anders", 30));
+        final Person stefan = personRepository.save(new Person("Stefan", 30));
+        final List<Person> thirty = new ArrayList<Person>(asList(testTeam.emil, anders, stefan));
+        Collections.sort(thirty, new Comparator<Person>() {
+            public int compare(Person p1, Person p2) {
+                return p1.getId().compareTo(p2.getId());
+            }
+        });
+        final List<Person> expected = new ArrayList<Person>();
+        expected.add(testTeam.david);
+        expected.addAll(thirty);
+        expected.add(testTeam.michael);
+
+        final List<Person> found = new ArrayList<Person>();
+        KeysetPageRequest request = new KeysetPageRequest(2, new Sort("age"));
+        Page<Person> page = personRepository.findAll(request);
+        while (!page.getContent().isEmpty()) {
+            found.addAll(page.getContent());
+            final Person last = page.getContent().get(page.getNumberOfElements() - 1);
+            request = request.next(last.getAge(), last.getId());
+            page = personRepository.findAll(request);
+        }
+        assertEquals(expected, found);
+    }
+
+    @Test @Transactional
+    public void testFindAllByKeysetWithQualifiedProperty() {
+        final KeysetPageRequest request = new KeysetPageRequest(2, new Sort("person.name"));
+        final Page<Person> page = personRepository.findAll(request);
+        assertEquals(asList(testTeam.david, testTeam.emil), asCollection(page));
+        final Person last = page.getContent().get(1);
+        assertEquals(asList(testTeam.michael), asCollection(personRepository.findAll(request.next(last.getName(), last.getId()))));
+    }
+
     @Test @Transactional 
     public void testFindSortedNull() {
         Iterable<Person> teamMembers = personRepository.findAllTeamMembersSorted(testTeam.sdg, null);
@@ -252,6 +341,16 @@ public class GraphRepositoryTest {
         final Iterable<Group> groups = groupRepository.findByFullTextNameLike("te*");
         assertThat(groups, hasItem(testTeam.sdg));
     }
+    @Test @Transactional
+    public void findByNameOfAliasedEntity() {
+        final Vehicle vehicle = vehicleRepository.save(new Vehicle("bus"));
+        vehicleRepository.save(new Vehicle("tram"));
+        assertEquals(vehicle.getId(), IteratorUtil.single(vehicleRepository.findByName("bus")).getId());
+        final Page<Vehicle> page = vehicleRepository.findByName("bus", new PageRequest(0, 1));
+        assertEquals(vehicle.getId(), IteratorUtil.single(page).getId());
+        assertEquals(1, page.getTotalElements());
+    }
+
     @Test @Transactional 
     public void findPageByName() {
         final Iterable<Group> groups = groupRepository.findByName(testTeam.sdg.getName(), new PageRequest(0, 1));
@@ -65,6 +65,10 @@ public interface PersonRepository extends GraphRepository<Person>, NamedIndexRep
     @Query("start team=node({p_team}) match (team)-[:persons]->(member) return member")
     Page<Person> findAllTeamMembersPaged(@Param("p_team") Group team, Pageable page);
 
+    @Query(value = "start team=node({p_team}) match (team)-[:persons]->(member) return member",
+           countQuery = "start team=node({p_team}) match (team)-[:persons]->(member) return count(*)")
+    Page<Person> findAllTeamMembersPagedWithTotal(@Param("p_team") Group team, Pageable page);
+
     @Query("start team=node({p_team}) match (team)-[:persons]->(member) return member")
     Iterable<Person> findAllTeamMembersSorted(@Param("p_team") Group team, Sort sort);
 
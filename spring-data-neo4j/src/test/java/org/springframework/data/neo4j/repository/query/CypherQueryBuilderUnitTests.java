@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.repository.KeysetPageRequest;
 import org.springframework.data.neo4j.support.mapping.Neo4jMappingContext;
 import org.springframework.data.repository.query.parser.Part;
 
@@ -34,8 +35,7 @@ import org.springframework.data.repository.query.parser.Part;
 public class CypherQueryBuilderUnitTests {
 
     CypherQueryBuilder query;
-    private final String CLASS_NAME = Person.class.getName();
-    private String DEFAULT_START_CLAUSE = "start person=node:__types__(className=\"" + CLASS_NAME + "\")";
+    private String DEFAULT_START_CLAUSE = "start person=node:__types__({typeQuery})";
 
     @Before
     public void setUp() {
@@ -50,6 +50,7 @@ public class CypherQueryBuilderUnitTests {
         query.addRestriction(part);
 
         assertThat(query.toString(), is("start person=node:Person(name={0}) return person"));
+        assertThat(query.isStartedAtTypeIndex(), is(false));
     }
 
     @Test
@@ -67,6 +68,7 @@ public class CypherQueryBuilderUnitTests {
         query.addRestriction(part);
 
         assertThat(query.toString(), is(DEFAULT_START_CLAUSE+" where person.info =~ {0} return person"));
+        assertThat(query.isStartedAtTypeIndex(), is(true));
     }
     @Test
     public void createsQueryForGreaterThanPropertyReference() {
@@ -163,4 +165,35 @@ public class CypherQueryBuilderUnitTests {
         Pageable pageable = new PageRequest(3,10,new Sort("person.name"));
         assertThat(query.toString(pageable), is("start person=node:Person(name={0}) return person order by person.name ASC skip 30 limit 10"));
     }
+
+    @Test
+    public void buildsKeysetQueryForFirstPage() {
+        query.addRestriction(new Part("name",Person.class));
+        Pageable pageable = new KeysetPageRequest(10, new Sort("person.name"));
+        assertThat(query.toString(pageable), is("start person=node:Person(name={0}) return person order by person.name ASC, ID(person) ASC limit 10"));
+    }
+
+    @Test
+    public void buildsKeysetQueryWithKeyPredicate() {
+        query.addRestriction(new Part("ageGreaterThan",Person.class));
+        Pageable pageable = new KeysetPageRequest(10, new Sort(Sort.Direction.DESC, "name")).next("Michael", 42L);
+        assertThat(query.toString(pageable), is(DEFAULT_START_CLAUSE + " where person.age > {0} and (person.name < {keysetKey0} or (person.name = {keysetKey0} and ID(person) > {keysetId})) return person order by person.name DESC, ID(person) ASC limit 10"));
+    }
+
+    @Test
+    public void buildsKeysetQueryOverAllOrders() {
+        Pageable pageable = new KeysetPageRequest(10, new Sort(new Sort.Order("name"), new Sort.Order(Sort.Direction.DESC, "age"))).next(new Object[]{"Michael", 36}, 42L);
+        assertThat(query.toString(pageable), is(DEFAULT_START_CLAUSE + " where (person.name > {keysetKey0} or (person.name = {keysetKey0} and (person.age < {keysetKey1} or (person.age = {keysetKey1} and ID(person) > {keysetId})))) return person order by person.name ASC, person.age DESC, ID(person) ASC limit 10"));
+    }
+
+    @Test
+    public void buildsKeysetQueryOnIdWithoutSort() {
+        Pageable pageable = new KeysetPageRequest(10).next(42L);
+        assertThat(query.toString(pageable), is(DEFAULT_START_CLAUSE + " where ID(person) > {keysetId} return person order by ID(person) ASC limit 10"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsKeysetWithoutValueForEachOrder() {
+        new KeysetPageRequest(10, new Sort("name", "age")).next("Michael", 42L);
+    }
 }
@@ -36,6 +36,7 @@ import org.springframework.data.neo4j.model.Named;
 import org.springframework.data.neo4j.model.Person;
 import org.springframework.data.neo4j.repository.GraphRepository;
 import org.springframework.data.neo4j.support.query.QueryEngine;
+import org.springframework.data.neo4j.template.BatchSaveCallback;
 import org.springframework.data.neo4j.template.Neo4jOperations;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -45,10 +46,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
 import static org.neo4j.graphdb.Direction.OUTGOING;
 import static org.neo4j.helpers.collection.IteratorUtil.asCollection;
@@ -257,6 +262,67 @@ public class EntityNeo4jTemplateTest extends EntityTestBase {
         assertEquals("created node with name", "Thomas", node.getProperty("name"));
     }
 
+    @Test
+    public void testSaveAllInChunks() throws Exception {
+        final List<Person> people = new ArrayList<Person>();
+        for (int i = 0; i < 5; i++) {
+            people.add(new Person("Person " + i, i));
+        }
+        final List<Integer> chunkSizes = new ArrayList<Integer>();
+        final long saved = neo4jOperations.saveAll(people, 2, new BatchSaveCallback() {
+            public void chunkSaved(int chunk, int entitiesInChunk, long totalSaved, long chunkMillis) {
+                assertEquals(chunkSizes.size() + 1, chunk);
+                chunkSizes.add(entitiesInChunk);
+            }
+        });
+        assertEquals(5, saved);
+        assertEquals(asList(2, 2, 1), chunkSizes);
+        for (Person person : people) {
+            assertEquals(person.getName(), getNodeState(person).getProperty("name"));
+        }
+        assertEquals(8, neo4jOperations.count(Person.class));
+    }
+
+    @Test
+    public void testSaveAllKeepsCommittedChunksWhenALaterChunkFails() throws Exception {
+        final List<Person> people = new ArrayList<Person>();
+        for (int i = 0; i < 5; i++) {
+            people.add(new Person("Person " + i, i));
+        }
+        final Iterable<Person> failingAfterThree = new Iterable<Person>() {
+            public Iterator<Person> iterator() {
+                final Iterator<Person> it = people.iterator();
+                return new Iterator<Person>() {
+                    private int count;
+
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    public Person next() {
+                        if (count++ == 3) throw new IllegalStateException("failing in the second chunk");
+                        return it.next();
+                    }
+
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+        try {
+            neo4jOperations.saveAll(failingAfterThree, 2);
+            fail("saveAll should have failed in the second chunk");
+        } catch (RuntimeException expected) {
+            // the second chunk is rolled back
+        }
+        assertEquals(5, neo4jOperations.count(Person.class));
+        for (Person person : people.subList(0, 2)) {
+            assertEquals(person.getName(), neo4jOperations.getNode(person.getId()).getProperty("name"));
+        }
+        assertTrue(asCollection(neo4jOperations.lookup(Person.NAME_INDEX, "name", "Person 2")).isEmpty());
+    }
+
     static abstract class ManagedTestEntity implements ManagedEntity {}
     @Test @Transactional
     public void testIsManaged() throws Exception {
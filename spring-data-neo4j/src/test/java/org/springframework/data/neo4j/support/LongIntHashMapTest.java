@@ -0,0 +1,71 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        final LongIntHashMap map = new LongIntHashMap();
+        assertTrue(map.isEmpty());
+        map.put(42, 1);
+        map.put(42, 2);
+        assertEquals(2, map.get(42, -1));
+        assertEquals(-1, map.get(43, -1));
+        assertTrue(map.containsKey(42));
+        assertEquals(1, map.size());
+        assertTrue(map.remove(42));
+        assertFalse(map.remove(42));
+        assertEquals(-1, map.get(42, -1));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeKeysAreRejected() {
+        new LongIntHashMap().put(-1, 0);
+    }
+
+    @Test
+    public void testBehavesLikeHashMapUnderRandomOperations() {
+        final LongIntHashMap map = new LongIntHashMap();
+        final Map<Long, Integer> reference = new HashMap<Long, Integer>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final long key = random.nextInt(5000);
+            if (random.nextBoolean()) {
+                final int value = random.nextInt();
+                reference.put(key, value);
+                map.put(key, value);
+            } else {
+                assertEquals(reference.remove(key) != null, map.remove(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        for (long key = 0; key < 5000; key++) {
+            final Integer value = reference.get(key);
+            assertEquals(value == null ? -1 : value, map.get(key, -1));
+        }
+    }
+}
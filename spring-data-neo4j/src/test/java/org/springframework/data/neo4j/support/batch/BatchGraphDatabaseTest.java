@@ -0,0 +1,138 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.batch;
+
+import org.junit.Test;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.kernel.EmbeddedGraphDatabase;
+import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.data.neo4j.model.City;
+import org.springframework.data.neo4j.model.Road;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+import org.springframework.data.neo4j.support.Neo4jTemplate;
+import org.springframework.data.neo4j.support.index.IndexType;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingRelationshipTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.TypeAliasRegistry;
+import org.springframework.data.neo4j.support.typerepresentation.TypeCounter;
+import org.springframework.data.neo4j.support.typerepresentation.TypeRepresentationStrategies;
+
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+public class BatchGraphDatabaseTest {
+
+    @Test
+    public void testCreateAndIndexNode() throws Exception {
+        final String storeDir = "target/batch-db-" + System.currentTimeMillis();
+        final BatchGraphDatabase graphDatabase = new BatchGraphDatabase(storeDir);
+        final long nodeId;
+        try {
+            final Node node = graphDatabase.createNode(map("name", "Thomas", "age", null));
+            nodeId = node.getId();
+            assertEquals("Thomas", node.getProperty("name"));
+            assertEquals(false, node.hasProperty("age"));
+            final Index<Node> index = graphDatabase.createIndex(Node.class, "people", IndexType.SIMPLE);
+            index.add(node, "name", "Thomas");
+            assertEquals(nodeId, index.get("name", "Thomas").getSingle().getId());
+            assertEquals(index, graphDatabase.getIndex("people"));
+        } finally {
+            graphDatabase.shutdown();
+        }
+        final EmbeddedGraphDatabase db = new EmbeddedGraphDatabase(storeDir);
+        try {
+            assertEquals(nodeId, db.index().forNodes("people").get("name", "Thomas").getSingle().getId());
+        } finally {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    public void testRemovesPendingIndexEntries() throws Exception {
+        final BatchGraphDatabase graphDatabase = new BatchGraphDatabase("target/batch-db-" + System.currentTimeMillis());
+        try {
+            final Node node = graphDatabase.createNode(map("name", "Thomas"));
+            final Index<Node> index = graphDatabase.createIndex(Node.class, "people", IndexType.SIMPLE);
+            index.add(node, "name", "Tom");
+            index.remove(node, "name");
+            index.add(node, "name", "Thomas");
+            assertEquals(0, index.get("name", "Tom").size());
+            assertEquals(node.getId(), index.get("name", "Thomas").getSingle().getId());
+        } finally {
+            graphDatabase.shutdown();
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFailsToRemoveFlushedIndexEntries() throws Exception {
+        final BatchGraphDatabase graphDatabase = new BatchGraphDatabase("target/batch-db-" + System.currentTimeMillis());
+        try {
+            final Node node = graphDatabase.createNode(map("name", "Thomas"));
+            final Index<Node> index = graphDatabase.createIndex(Node.class, "people", IndexType.SIMPLE);
+            index.add(node, "name", "Thomas");
+            graphDatabase.flush();
+            index.remove(node, "name");
+        } finally {
+            graphDatabase.shutdown();
+        }
+    }
+
+    @Test
+    public void testSavesMappedEntities() throws Exception {
+        final String storeDir = "target/batch-db-" + System.currentTimeMillis();
+        final BatchGraphDatabase graphDatabase = new BatchGraphDatabase(storeDir);
+        final GenericXmlApplicationContext ctx = new GenericXmlApplicationContext();
+        final long berlinId;
+        final long roadId;
+        try {
+            ctx.getBeanFactory().registerSingleton("batchGraphDatabase", graphDatabase);
+            ctx.load(BatchGraphDatabaseTest.class, "BatchGraphDatabaseTest-context.xml");
+            ctx.refresh();
+            final Neo4jTemplate template = ctx.getBean(Neo4jTemplate.class);
+            final TypeRepresentationStrategies strategies = template.getInfrastructure().getTypeRepresentationStrategies();
+            ((IndexingNodeTypeRepresentationStrategy) strategies.getNodeTypeRepresentationStrategy()).initializeCounter(City.class);
+            ((IndexingRelationshipTypeRepresentationStrategy) strategies.getRelationshipTypeRepresentationStrategy()).initializeCounter(Road.class);
+            final City berlin = template.save(new City("Berlin"));
+            final City dresden = template.save(new City("Dresden"));
+            final Road road = template.save(new Road(berlin, dresden, "A13"));
+            berlinId = berlin.getId();
+            roadId = road.getId();
+            assertEquals(berlinId, template.<Node>getIndex(City.class, "name").get("name", "Berlin").getSingle().getId());
+            assertEquals(2, template.count(City.class));
+        } finally {
+            ctx.close();
+            graphDatabase.shutdown();
+        }
+        final EmbeddedGraphDatabase db = new EmbeddedGraphDatabase(storeDir);
+        try {
+            final DelegatingGraphDatabase reopened = new DelegatingGraphDatabase(db);
+            final Neo4jTemplate template = new Neo4jTemplate(reopened);
+            assertEquals(berlinId, template.<Node>getIndex(City.class, "name").get("name", "Berlin").getSingle().getId());
+            assertEquals(roadId, template.<Relationship>getIndex(Road.class, "name").get("name", "A13").getSingle().getId());
+            assertEquals("Berlin", template.findOne(berlinId, City.class).getName());
+            assertEquals(2, template.count(City.class));
+            assertEquals(1, template.count(Road.class));
+            assertEquals(2, new TypeCounter(reopened, IndexingNodeTypeRepresentationStrategy.COUNTER_PREFIX, 1).count(City.class.getName()));
+            assertEquals(1, new TypeCounter(reopened, IndexingRelationshipTypeRepresentationStrategy.COUNTER_PREFIX, 1).count(Road.class.getName()));
+            assertEquals(City.class, new TypeAliasRegistry(reopened).getType("city"));
+        } finally {
+            db.shutdown();
+        }
+    }
+}
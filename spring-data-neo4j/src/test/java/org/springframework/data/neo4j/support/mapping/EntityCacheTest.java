@@ -0,0 +1,148 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.mapping;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.Node;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.mapping.MappingPolicy;
+import org.springframework.data.neo4j.model.Catalog;
+import org.springframework.data.neo4j.model.Person;
+import org.springframework.data.neo4j.support.Neo4jTemplate;
+import org.springframework.data.neo4j.support.node.Neo4jHelper;
+import org.springframework.test.context.CleanContextCacheTestExecutionListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+import static org.neo4j.helpers.collection.IteratorUtil.first;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration
+@TestExecutionListeners({CleanContextCacheTestExecutionListener.class, DependencyInjectionTestExecutionListener.class})
+public class EntityCacheTest {
+
+    @Autowired
+    private Neo4jTemplate template;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityCache entityCache;
+
+    private Catalog catalog;
+    private Person item;
+
+    @Before
+    public void setUp() {
+        Neo4jHelper.cleanDb(template);
+        entityCache.clear();
+        catalog = new TransactionTemplate(transactionManager).execute(new TransactionCallback<Catalog>() {
+            @Override
+            public Catalog doInTransaction(TransactionStatus status) {
+                item = template.save(new Person("Michael", 36));
+                final Catalog catalog = new Catalog("Books");
+                catalog.addItem(item);
+                return template.save(catalog);
+            }
+        });
+    }
+
+    private Catalog load() {
+        return template.findOne(catalog.getId(), Catalog.class);
+    }
+
+    @Test
+    public void testConfiguredEntityCacheIsUsed() {
+        assertSame(entityCache, template.getInfrastructure().getEntityCache());
+        final long hits = entityCache.getHitCount();
+        load();
+        load();
+        assertEquals(hits + 1, entityCache.getHitCount());
+    }
+
+    @Test
+    public void testEveryReadGetsItsOwnCopy() {
+        final Catalog first = load();
+        final Catalog second = load();
+        assertNotSame(first, second);
+        assertEquals("Books", second.getName());
+        assertNotSame(first(first.getItems()), first(second.getItems()));
+        assertEquals(item.getId(), first(second.getItems()).getId());
+    }
+
+    @Test
+    public void testModifyingAReadEntityDoesNotChangeTheCache() {
+        final Catalog loaded = load();
+        loaded.setName("Magazines");
+        first(loaded.getItems()).setName("Emil");
+        final Catalog reloaded = load();
+        assertEquals("Books", reloaded.getName());
+        assertEquals("Michael", first(reloaded.getItems()).getName());
+    }
+
+    @Test
+    public void testSavedChangesAreRead() {
+        load();
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                final Catalog loaded = load();
+                loaded.setName("Magazines");
+                template.save(loaded);
+            }
+        });
+        assertEquals("Magazines", load().getName());
+    }
+
+    @Test
+    public void testChangeOfFetchedEntityInvalidatesTheCachedEntity() {
+        load();
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                final Person person = template.findOne(item.getId(), Person.class);
+                person.setName("Emil");
+                template.save(person);
+            }
+        });
+        assertEquals("Emil", first(load().getItems()).getName());
+    }
+
+    @Test
+    public void testEntityReadBeforeACommitIsNotCached() {
+        final Node node = template.getNode(catalog.getId());
+        final long generation = entityCache.getGeneration();
+        final Catalog stale = load();
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                template.getNode(catalog.getId()).setProperty("name", "Magazines");
+            }
+        });
+        assertFalse(entityCache.put(node, Catalog.class, MappingPolicy.LOAD_POLICY, stale, null, generation));
+        assertEquals("Magazines", load().getName());
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.support.mapping;
+package org.springframework.data.neo4j.support.mapping;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.model.Club;
+import org.springframework.data.neo4j.model.Membership;
+import org.springframework.data.neo4j.model.Person;
+import org.springframework.data.neo4j.support.EntityTestBase;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.neo4j.helpers.collection.IteratorUtil.count;
+import static org.neo4j.helpers.collection.IteratorUtil.first;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:template-config-context.xml"})
+public class EntitySnapshotsTest extends EntityTestBase {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Set<String> assignedProperties = new HashSet<String>();
+    private int changedRelationships;
+
+    private final TransactionEventHandler<Object> writes = new TransactionEventHandler<Object>() {
+        @Override
+        public Object beforeCommit(TransactionData data) throws Exception {
+            return null;
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, Object state) {
+            for (PropertyEntry<Node> entry : data.assignedNodeProperties()) {
+                assignedProperties.add(entry.key());
+            }
+            changedRelationships += count(data.createdRelationships()) + count(data.deletedRelationships());
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, Object state) {
+        }
+    };
+
+    private Person michael;
+    private Person emil;
+
+    @Before
+    public void setUp() {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                michael = persist(new Person("Michael", 36));
+                emil = persist(new Person("Emil", 32));
+                michael.setSpouse(emil);
+                persist(michael);
+            }
+        });
+        graphDatabaseService.registerTransactionEventHandler(writes);
+    }
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.unregisterTransactionEventHandler(writes);
+    }
+
+    private <T> T saveInTransaction(final T entity) {
+        return new TransactionTemplate(transactionManager).execute(new TransactionCallback<T>() {
+            @Override
+            public T doInTransaction(TransactionStatus status) {
+                return persist(entity);
+            }
+        });
+    }
+
+    private Person loadMichael() {
+        return template.findOne(michael.getId(), Person.class);
+    }
+
+    @Test
+    public void testSaveOnlyWritesChangedProperties() {
+        final Person loaded = loadMichael();
+        loaded.setAge(37);
+        saveInTransaction(loaded);
+        assertTrue(assignedProperties.contains("age"));
+        assertFalse(assignedProperties.contains("name"));
+        assertEquals(0, changedRelationships);
+        assertEquals(37, getNodeState(michael).getProperty("age"));
+    }
+
+    @Test
+    public void testRelationshipsWrittenBySaveAreNotWrittenAgain() {
+        michael.setAge(37);
+        saveInTransaction(michael);
+        assertTrue(assignedProperties.contains("age"));
+        assertEquals(0, changedRelationships);
+    }
+
+    @Test
+    public void testRelationshipsChangedByAnotherInstanceAreOverwritten() {
+        final Person loaded = loadMichael();
+        final Person other = loadMichael();
+        other.setSpouse(null);
+        saveInTransaction(other);
+        saveInTransaction(loaded);
+        assertEquals(emil.getId(), loadMichael().getSpouse().getId());
+    }
+
+    @Test
+    public void testChangedRelationshipIsWritten() {
+        final Person loaded = loadMichael();
+        loaded.setSpouse(null);
+        saveInTransaction(loaded);
+        assertNull(loadMichael().getSpouse());
+        assertFalse(assignedProperties.contains("name"));
+    }
+
+    @Test
+    public void testValuesChangedInTheGraphAreOverwritten() {
+        final Person loaded = loadMichael();
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                final Node node = getNodeState(michael);
+                node.setProperty("name", "Other");
+                for (Relationship relationship : node.getRelationships(Direction.OUTGOING)) {
+                    relationship.delete();
+                }
+            }
+        });
+        saveInTransaction(loaded);
+        final Person reloaded = loadMichael();
+        assertEquals("Michael", reloaded.getName());
+        assertEquals(emil.getId(), reloaded.getSpouse().getId());
+    }
+
+    @Test
+    public void testValuesChangedByAnotherInstanceAreOverwritten() {
+        final Person loaded = loadMichael();
+        final Person other = loadMichael();
+        other.setName("Other");
+        saveInTransaction(other);
+        saveInTransaction(loaded);
+        assertEquals("Michael", loadMichael().getName());
+    }
+
+    @Test
+    public void testRolledBackSaveIsWrittenAgain() {
+        final Person loaded = loadMichael();
+        loaded.setName("Mike");
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                persist(loaded);
+                status.setRollbackOnly();
+            }
+        });
+        assertEquals("Michael", getNodeState(michael).getProperty("name"));
+        saveInTransaction(loaded);
+        assertEquals("Mike", getNodeState(michael).getProperty("name"));
+    }
+
+    @Test
+    public void testRelationshipEntitiesEditedInPlaceAreSaved() {
+        final Club club = new TransactionTemplate(transactionManager).execute(new TransactionCallback<Club>() {
+            @Override
+            public Club doInTransaction(TransactionStatus status) {
+                final Club club = persist(new Club("Graphistas"));
+                club.addMember(michael, "member");
+                return persist(club);
+            }
+        });
+        final Club loaded = template.findOne(club.getId(), Club.class);
+        final Membership membership = first(loaded.getMemberships());
+        membership.setRole("admin");
+        saveInTransaction(loaded);
+        final Relationship relationship = template.getPersistentState(membership);
+        assertEquals("admin", relationship.getProperty("role"));
+        assertEquals("admin", first(template.findOne(club.getId(), Club.class).getMemberships()).getRole());
+    }
+}
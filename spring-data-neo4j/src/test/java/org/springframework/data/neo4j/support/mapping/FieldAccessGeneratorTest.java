@@ -0,0 +1,93 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.mapping;
+
+import org.junit.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.neo4j.model.Person;
+
+import java.beans.PropertyDescriptor;
+
+import static org.junit.Assert.*;
+
+public class FieldAccessGeneratorTest {
+
+    private final FieldAccessGenerator generator = new FieldAccessGenerator();
+
+    private FieldAccessGenerator.GeneratedFieldAccess propertyAccess(String fieldName, String propertyName) throws Exception {
+        final PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(Person.class, propertyName);
+        return generator.propertyAccessFor(Person.class, Person.class.getDeclaredField(fieldName), descriptor);
+    }
+
+    @Test
+    public void testReadAndWritePrivateFieldsThroughAccessors() throws Exception {
+        final Person person = new Person();
+        final FieldAccessGenerator.GeneratedFieldAccess name = propertyAccess("name", "name");
+        final FieldAccessGenerator.GeneratedFieldAccess age = propertyAccess("age", "age");
+        final FieldAccessGenerator.GeneratedFieldAccess height = propertyAccess("height", "height");
+        name.set(person, "Thomas");
+        age.set(person, 42);
+        height.set(person, (short) 180);
+        assertEquals("Thomas", person.getName());
+        assertEquals(42, person.getAge());
+        assertEquals(Short.valueOf((short) 180), person.getHeight());
+        assertEquals("Thomas", name.get(person));
+        assertEquals(42, age.get(person));
+        assertEquals((short) 180, height.get(person));
+    }
+
+    @Test
+    public void testGeneratorsShareTheGeneratedClass() throws Exception {
+        final Person person = new Person();
+        propertyAccess("name", "name").set(person, "Thomas");
+        final FieldAccessGenerator.GeneratedFieldAccess name = new FieldAccessGenerator().propertyAccessFor(Person.class, Person.class.getDeclaredField("name"), BeanUtils.getPropertyDescriptor(Person.class, "name"));
+        assertNotNull(name);
+        assertEquals("Thomas", name.get(person));
+    }
+
+    @Test
+    public void testWriteOnlyProperty() throws Exception {
+        final FieldAccessGenerator.GeneratedFieldAccess nickname = propertyAccess("nickname", "nickname");
+        assertFalse(nickname.canGet());
+        assertTrue(nickname.canSet("Tom"));
+    }
+
+    @Test
+    public void testLeavesValuesThatNeedConversionToReflection() throws Exception {
+        final FieldAccessGenerator.GeneratedFieldAccess age = propertyAccess("age", "age");
+        final FieldAccessGenerator.GeneratedFieldAccess name = propertyAccess("name", "name");
+        assertFalse(age.canSet(null));
+        assertFalse(age.canSet(42L));
+        assertTrue(age.canSet(42));
+        assertTrue(name.canSet(null));
+        assertFalse(name.canSet(42));
+    }
+
+    @Test
+    public void testNoAccessForPrivateFieldsWithoutAccessors() throws Exception {
+        assertNull(generator.propertyAccessFor(Person.class, Person.class.getDeclaredField("wkt"), null));
+        assertNull(generator.fieldAccessFor(Person.class, Person.class.getDeclaredField("name")));
+    }
+
+    @Test
+    public void testMappingContextUsesGeneratedPropertyAccess() throws Exception {
+        final Neo4jPersistentEntityImpl<?> entity = new Neo4jMappingContext().getPersistentEntity(Person.class);
+        final Neo4jPersistentPropertyImpl name = (Neo4jPersistentPropertyImpl) entity.getPersistentProperty("name");
+        final Person person = new Person("Thomas", 42);
+        assertEquals("Thomas", name.getGeneratedPropertyAccess().get(person));
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.support.query;
+
+import org.junit.Test;
+import org.neo4j.cypher.commands.Query;
+import org.neo4j.cypher.javacompat.CypherParser;
+
+import static org.junit.Assert.*;
+
+public class CypherQueryCacheTest {
+
+    private static final String QUERY_1 = "start n=node(0) return n";
+    private static final String QUERY_2 = "start n=node(1) return n";
+    private static final String QUERY_3 = "start n=node(2) return n";
+
+    private Query parse(String statement) throws Exception {
+        return new CypherParser().parse(statement);
+    }
+
+    @Test
+    public void testCountsHitsAndMisses() throws Exception {
+        final CypherQueryCache cache = new CypherQueryCache(10);
+        assertNull(cache.get(QUERY_1));
+        final Query query = parse(QUERY_1);
+        cache.put(QUERY_1, query);
+        assertSame(query, cache.get(QUERY_1));
+        assertSame(query, cache.get(QUERY_1));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2d / 3, cache.getHitRatio(), 0.001);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        final CypherQueryCache cache = new CypherQueryCache(2);
+        cache.put(QUERY_1, parse(QUERY_1));
+        cache.put(QUERY_2, parse(QUERY_2));
+        assertNotNull(cache.get(QUERY_1));
+        cache.put(QUERY_3, parse(QUERY_3));
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(QUERY_1));
+        assertNull(cache.get(QUERY_2));
+        assertNotNull(cache.get(QUERY_3));
+    }
+
+    @Test
+    public void testClearResetsEntriesAndCounters() throws Exception {
+        final CypherQueryCache cache = new CypherQueryCache(2);
+        cache.put(QUERY_1, parse(QUERY_1));
+        cache.get(QUERY_1);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveSize() {
+        new CypherQueryCache(0);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Node;
+import org.neo4j.test.ImpermanentGraphDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class GremlinExecutorTest {
+
+    private ImpermanentGraphDatabase graphDatabaseService;
+
+    @Before
+    public void setUp() throws Exception {
+        graphDatabaseService = new ImpermanentGraphDatabase();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        graphDatabaseService.shutdown();
+    }
+
+    private Object single(Iterable<Object> result) {
+        final Iterator<Object> it = result.iterator();
+        assertTrue(it.hasNext());
+        return it.next();
+    }
+
+    @Test
+    public void testCachesCompiledScriptsPerStatement() throws Exception {
+        final GremlinExecutor executor = new GremlinExecutor(graphDatabaseService, 2, 10);
+        final Node referenceNode = graphDatabaseService.getReferenceNode();
+        assertEquals(referenceNode, single(executor.query("g.v(id)", Collections.<String, Object>singletonMap("id", 0))));
+        assertEquals(referenceNode, single(executor.query("g.v(id)", Collections.<String, Object>singletonMap("id", 0))));
+        assertEquals(1, executor.getCachedScriptCount());
+        assertEquals(2, single(executor.query("1+1", null)));
+        assertEquals(3, single(executor.query("1+2", null)));
+        assertEquals(2, executor.getCachedScriptCount());
+    }
+
+    @Test
+    public void testRecreatesEngineAfterMaxCompilations() throws Exception {
+        final GremlinExecutor executor = new GremlinExecutor(graphDatabaseService, 2, 2);
+        executor.query("1+1", null);
+        executor.query("1+2", null);
+        assertEquals(2, executor.getCachedScriptCount());
+        assertEquals(4, single(executor.query("1+3", null)));
+        assertEquals(1, executor.getCachedScriptCount());
+    }
+
+    @Test
+    public void testDisposeDropsEngine() throws Exception {
+        final GremlinExecutor executor = new GremlinExecutor(graphDatabaseService);
+        executor.query("1+1", null);
+        executor.dispose();
+        assertEquals(0, executor.getCachedScriptCount());
+        assertEquals(2, single(executor.query("1+1", null)));
+    }
+
+    @Test
+    public void testConcurrentExecution() throws Exception {
+        final GremlinExecutor executor = new GremlinExecutor(graphDatabaseService);
+        final int threadCount = 4;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        for (int t = 0; t < threadCount; t++) {
+            final int offset = t;
+            new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 100; i++) {
+                            assertEquals(offset + i % 10, single(executor.query("x + " + (i % 10), Collections.<String, Object>singletonMap("x", offset))));
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }.start();
+        }
+        latch.await();
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsMaxCompilationsBelowCacheSize() {
+        new GremlinExecutor(graphDatabaseService, 10, 5);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.annotation.TypeAlias;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+import org.springframework.data.neo4j.support.typerepresentation.IndexingNodeTypeRepresentationStrategy;
+import org.springframework.data.neo4j.support.typerepresentation.TypeAliasRegistry;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class QueryTotalsCacheTest {
+
+    static class Base {}
+    static class Sub extends Base {}
+    static class Other {}
+    @TypeAlias("aliasedSub") static class AliasedSub extends Base {}
+
+    private static final String BASE_COUNT = "start n=node:__types__(className=\"Base\") return count(*)";
+    private static final String OTHER_COUNT = "start n=node:__types__(className=\"Other\") return count(*)";
+    private static final Map<String, Object> PARAMS = Collections.<String, Object>singletonMap("0", "value");
+
+    private ImpermanentGraphDatabase graphDatabaseService;
+    private QueryTotalsCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        graphDatabaseService = new ImpermanentGraphDatabase();
+        cache = new QueryTotalsCache(10);
+        assertTrue(cache.registerWith(graphDatabaseService));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        graphDatabaseService.shutdown();
+    }
+
+    private void put(String statement, Class<?>... types) {
+        final Collection<Class<?>> typeList = types.length == 0 ? null : Arrays.<Class<?>>asList(types);
+        cache.put(statement, PARAMS, typeList, 42, cache.getGeneration());
+    }
+
+    private Node createNode(Class<?> type) {
+        return createNode(type == null ? null : type.getName());
+    }
+
+    private Node createNode(String typeKey) {
+        final Transaction tx = graphDatabaseService.beginTx();
+        try {
+            final Node node = graphDatabaseService.createNode();
+            if (typeKey != null) node.setProperty(IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME, typeKey);
+            tx.success();
+            return node;
+        } finally {
+            tx.finish();
+        }
+    }
+
+    @Test
+    public void testCachesTotalPerStatementAndParams() throws Exception {
+        put(BASE_COUNT, Base.class);
+        assertEquals(Long.valueOf(42), cache.get(BASE_COUNT, PARAMS));
+        assertNull(cache.get(BASE_COUNT, Collections.<String, Object>singletonMap("0", "other")));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testDoesNotCacheTotalCountedDuringCommit() throws Exception {
+        final long generation = cache.getGeneration();
+        createNode(Other.class);
+        cache.put(BASE_COUNT, PARAMS, Collections.<Class<?>>singleton(Base.class), 42, generation);
+        assertNull(cache.get(BASE_COUNT, PARAMS));
+    }
+
+    @Test
+    public void testCommitInvalidatesTotalsOfChangedTypeAndSupertypes() throws Exception {
+        put(BASE_COUNT, Base.class);
+        put(OTHER_COUNT, Other.class);
+        createNode(Sub.class);
+        assertNull(cache.get(BASE_COUNT, PARAMS));
+        assertNotNull(cache.get(OTHER_COUNT, PARAMS));
+    }
+
+    @Test
+    public void testCommitResolvesTypeAliases() throws Exception {
+        final TypeAliasRegistry aliasRegistry = new TypeAliasRegistry(new DelegatingGraphDatabase(graphDatabaseService));
+        final Transaction tx = graphDatabaseService.beginTx();
+        try {
+            aliasRegistry.register(AliasedSub.class);
+            tx.success();
+        } finally {
+            tx.finish();
+        }
+        cache.setTypeAliasRegistry(aliasRegistry);
+        put(BASE_COUNT, Base.class);
+        put(OTHER_COUNT, Other.class);
+        createNode("aliasedSub");
+        assertNull(cache.get(BASE_COUNT, PARAMS));
+        assertNotNull(cache.get(OTHER_COUNT, PARAMS));
+    }
+
+    @Test
+    public void testUnknownTypesClearTheCache() throws Exception {
+        put(OTHER_COUNT, Other.class);
+        createNode("unknownAlias");
+        assertNull(cache.get(OTHER_COUNT, PARAMS));
+    }
+
+    @Test
+    public void testTotalsWithoutTypesAreInvalidatedByEveryChange() throws Exception {
+        put(BASE_COUNT);
+        createNode(Other.class);
+        assertNull(cache.get(BASE_COUNT, PARAMS));
+    }
+
+    @Test
+    public void testChangesOfUntypedNodesAreIgnored() throws Exception {
+        put(BASE_COUNT, Base.class);
+        createNode(null);
+        assertNotNull(cache.get(BASE_COUNT, PARAMS));
+    }
+
+    @Test
+    public void testChangesOfUntypedNodesClearWhenNotIgnored() throws Exception {
+        cache.setIgnoreUntypedNodes(false);
+        put(BASE_COUNT, Base.class);
+        createNode(null);
+        assertNull(cache.get(BASE_COUNT, PARAMS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveSize() {
+        new QueryTotalsCache(0);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.neo4j.support.relationship;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.*;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class RelationshipLookupTest {
+    private static final RelationshipType KNOWS = DynamicRelationshipType.withName("KNOWS");
+    private static final RelationshipType FOLLOWS = DynamicRelationshipType.withName("FOLLOWS");
+
+    private ImpermanentGraphDatabase graphDatabaseService;
+    private DelegatingGraphDatabase graphDatabase;
+    private Transaction tx;
+    private Node celebrity;
+    private Node fan;
+
+    @Before
+    public void setUp() throws Exception {
+        graphDatabaseService = new ImpermanentGraphDatabase();
+        graphDatabase = new DelegatingGraphDatabase(graphDatabaseService);
+        tx = graphDatabaseService.beginTx();
+        celebrity = graphDatabaseService.createNode();
+        fan = graphDatabaseService.createNode();
+        for (int i = 0; i < 100; i++) {
+            graphDatabaseService.createNode().createRelationshipTo(celebrity, KNOWS);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tx.finish();
+        graphDatabaseService.shutdown();
+    }
+
+    @Test
+    public void testFindByIteration() throws Exception {
+        final RelationshipLookup lookup = new RelationshipLookup(graphDatabase);
+        assertNull(lookup.find(fan, celebrity, KNOWS, Direction.OUTGOING));
+        final Relationship relationship = lookup.create(fan, celebrity, KNOWS);
+        assertEquals(relationship, lookup.find(fan, celebrity, KNOWS, Direction.OUTGOING));
+        assertEquals(relationship, lookup.find(celebrity, fan, KNOWS, Direction.INCOMING));
+        assertEquals(relationship, lookup.find(celebrity, fan, KNOWS, Direction.BOTH));
+        assertNull(lookup.find(celebrity, fan, KNOWS, Direction.OUTGOING));
+        lookup.delete(relationship);
+        assertNull(lookup.find(fan, celebrity, KNOWS, Direction.BOTH));
+    }
+
+    @Test
+    public void testFindHighFanOutRelationshipsByIndex() throws Exception {
+        final RelationshipLookup lookup = new RelationshipLookup(graphDatabase, asList(FOLLOWS.name()));
+        assertTrue(lookup.isHighFanOut(FOLLOWS));
+        assertFalse(lookup.isHighFanOut(KNOWS));
+        assertNull(lookup.find(fan, celebrity, FOLLOWS, Direction.OUTGOING));
+        final Relationship relationship = lookup.create(fan, celebrity, FOLLOWS);
+        assertEquals(relationship, lookup.find(fan, celebrity, FOLLOWS, Direction.OUTGOING));
+        assertEquals(relationship, lookup.find(celebrity, fan, FOLLOWS, Direction.BOTH));
+        assertNull(lookup.find(celebrity, fan, FOLLOWS, Direction.OUTGOING));
+        lookup.delete(relationship);
+        assertNull(lookup.find(fan, celebrity, FOLLOWS, Direction.OUTGOING));
+    }
+
+    @Test
+    public void testRelationshipsCreatedElsewhereAreIndexed() throws Exception {
+        final RelationshipLookup lookup = new RelationshipLookup(graphDatabase, asList(FOLLOWS.name()));
+        final Relationship relationship = fan.createRelationshipTo(celebrity, FOLLOWS);
+        assertNull(lookup.find(fan, celebrity, FOLLOWS, Direction.OUTGOING));
+        lookup.created(relationship);
+        assertEquals(relationship, lookup.find(fan, celebrity, FOLLOWS, Direction.OUTGOING));
+    }
+
+    @Test
+    public void testReindexExistingRelationshipsInChunks() throws Exception {
+        final Relationship relationship = fan.createRelationshipTo(celebrity, FOLLOWS);
+        final Relationship reverse = celebrity.createRelationshipTo(fan, FOLLOWS);
+        final RelationshipLookup lookup = new RelationshipLookup(graphDatabase, asList(FOLLOWS.name()));
+        assertNull(lookup.find(fan, celebrity, FOLLOWS, Direction.OUTGOING));
+        int chunks = 0;
+        while (lookup.reindex(FOLLOWS, 10) > 0) {
+            chunks++;
+        }
+        assertTrue(chunks > 1);
+        assertEquals(relationship, lookup.find(fan, celebrity, FOLLOWS, Direction.OUTGOING));
+        assertEquals(reverse, lookup.find(celebrity, fan, FOLLOWS, Direction.OUTGOING));
+        assertEquals(0, lookup.reindex(FOLLOWS, 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReindexOnlyHighFanOutTypes() throws Exception {
+        new RelationshipLookup(graphDatabase, asList(FOLLOWS.name())).reindex(KNOWS, 10);
+    }
+}
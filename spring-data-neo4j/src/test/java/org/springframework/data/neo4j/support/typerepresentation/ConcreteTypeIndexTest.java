@@ -0,0 +1,101 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.collection.IteratorUtil;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.annotation.GraphId;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+import org.springframework.data.neo4j.support.mapping.Neo4jMappingContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+
+public class ConcreteTypeIndexTest {
+    @NodeEntity
+    public static class Base {
+        @GraphId
+        Long id;
+    }
+
+    @NodeEntity
+    public static class Middle extends Base {
+    }
+
+    @NodeEntity
+    public static class Leaf extends Middle {
+    }
+
+    private ImpermanentGraphDatabase gdb;
+    private IndexingNodeTypeRepresentationStrategy strategy;
+    private Transaction tx;
+
+    @Before
+    public void setUp() throws Exception {
+        gdb = new ImpermanentGraphDatabase();
+        final Neo4jMappingContext mappingContext = new Neo4jMappingContext();
+        mappingContext.getPersistentEntity(Base.class);
+        mappingContext.getPersistentEntity(Middle.class);
+        mappingContext.getPersistentEntity(Leaf.class);
+        strategy = new IndexingNodeTypeRepresentationStrategy(new DelegatingGraphDatabase(gdb));
+        strategy.setConcreteTypeIndex(mappingContext);
+        tx = gdb.beginTx();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tx.finish();
+        gdb.shutdown();
+    }
+
+    private Node createEntityNode(Class<?> type) {
+        final Node node = gdb.createNode();
+        strategy.postEntityCreation(node, type);
+        return node;
+    }
+
+    @Test
+    public void testIndexesOnlyConcreteType() {
+        final Node leaf = createEntityNode(Leaf.class);
+        final Node middle = createEntityNode(Middle.class);
+        final Node base = createEntityNode(Base.class);
+
+        assertEquals(leaf, IteratorUtil.single(strategy.findAll(Leaf.class)));
+        final Collection<Node> middles = IteratorUtil.addToCollection(strategy.findAll(Middle.class), new ArrayList<Node>());
+        assertEquals(2, middles.size());
+        assertTrue(middles.contains(leaf) && middles.contains(middle));
+        assertEquals(3, strategy.count(Base.class));
+        assertTrue(IteratorUtil.addToCollection(strategy.findAll(Base.class), new ArrayList<Node>()).contains(base));
+        assertEquals(1, IteratorUtil.count(gdb.index().forNodes(IndexingNodeTypeRepresentationStrategy.INDEX_NAME).get(IndexingNodeTypeRepresentationStrategy.INDEX_KEY, Base.class.getName())));
+    }
+
+    @Test
+    public void testFindsNodesIndexedPerSuperclassOnce() {
+        final Node legacy = gdb.createNode();
+        new IndexingNodeTypeRepresentationStrategy(new DelegatingGraphDatabase(gdb)).postEntityCreation(legacy, Leaf.class);
+        assertEquals(1, strategy.count(Base.class));
+        assertEquals(legacy, IteratorUtil.single(strategy.findAll(Middle.class)));
+    }
+}
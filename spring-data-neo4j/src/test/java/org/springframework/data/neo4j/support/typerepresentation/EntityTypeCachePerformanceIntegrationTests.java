@@ -0,0 +1,102 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Not part of the default test run, measures type lookups under contention.
+ */
+public class EntityTypeCachePerformanceIntegrationTests {
+    private static final Log log = LogFactory.getLog(EntityTypeCachePerformanceIntegrationTests.class);
+    private static final int THREADS = 8;
+    private static final int LOOKUPS = 100000;
+
+    private ImpermanentGraphDatabase gdb;
+
+    @Before
+    public void setUp() throws Exception {
+        gdb = new ImpermanentGraphDatabase();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        gdb.shutdown();
+    }
+
+    /**
+     * Resolves the type of the same node from several threads, reports the time per lookup.
+     */
+    @Test
+    public void testGetJavaTypeUnderContention() throws Exception {
+        final IndexingNodeTypeRepresentationStrategy strategy = new IndexingNodeTypeRepresentationStrategy(new DelegatingGraphDatabase(gdb));
+        final Node node = createNodeOfType(String.class);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Long>> results = new ArrayList<Future<Long>>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(new Callable<Long>() {
+                    public Long call() throws Exception {
+                        start.await();
+                        final long time = System.nanoTime();
+                        for (int lookup = 0; lookup < LOOKUPS; lookup++) {
+                            if (strategy.getJavaType(node) != String.class) throw new IllegalStateException("Wrong type");
+                        }
+                        return System.nanoTime() - time;
+                    }
+                }));
+            }
+            start.countDown();
+            long time = 0;
+            for (Future<Long> result : results) {
+                time += result.get();
+            }
+            log.info(String.format("getJavaType with %d threads: %d ns per lookup", THREADS, time / (THREADS * LOOKUPS)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Node createNodeOfType(Class<?> type) {
+        final Transaction tx = gdb.beginTx();
+        try {
+            final Node node = gdb.createNode();
+            node.setProperty(IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME, type.getName());
+            tx.success();
+            return node;
+        } finally {
+            tx.finish();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EntityTypeCacheTest {
+    private EntityTypeCache cache = new EntityTypeCache();
+
+    @Test
+    public void testResolvesClassNames() {
+        assertEquals(String.class, cache.getClassForName("java.lang.String"));
+        assertSame(cache.getClassForName("java.lang.String"), cache.getClassForName("java.lang.String"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testCachesUnresolvedNames() {
+        assertNull(cache.getClassForName("com.example.Missing"));
+        assertNull(cache.getClassForName("com.example.Missing"));
+        assertEquals(1, cache.size());
+        cache.clearUnresolved();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNullNameIsUnresolved() {
+        assertNull(cache.getClassForName(null));
+    }
+
+    @Test
+    public void testAliasReplacesUnresolvedName() {
+        assertNull(cache.getClassForName("Person"));
+        cache.registerAlias("Person", String.class);
+        assertEquals(String.class, cache.getClassForName("Person"));
+        cache.clearUnresolved();
+        assertEquals(String.class, cache.getClassForName("Person"));
+    }
+
+    @Test
+    public void testRetriesUnresolvedNamesAfterInterval() {
+        final LateClassLoader classLoader = new LateClassLoader();
+        final EntityTypeCache retrying = new EntityTypeCache(classLoader, 0);
+        assertNull(retrying.getClassForName(LATE_CLASS));
+        classLoader.available = true;
+        assertEquals(LateClassLoader.class, retrying.getClassForName(LATE_CLASS));
+    }
+
+    @Test
+    public void testKeepsUnresolvedNamesWithinInterval() {
+        final LateClassLoader classLoader = new LateClassLoader();
+        final EntityTypeCache caching = new EntityTypeCache(classLoader, 60 * 1000);
+        assertNull(caching.getClassForName(LATE_CLASS));
+        classLoader.available = true;
+        assertNull(caching.getClassForName(LATE_CLASS));
+    }
+
+    private static final String LATE_CLASS = LateClassLoader.class.getName();
+
+    /**
+     * Only finds its own class once it is made available.
+     */
+    private static class LateClassLoader extends ClassLoader {
+        volatile boolean available;
+
+        private LateClassLoader() {
+            super(LateClassLoader.class.getClassLoader());
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.equals(LATE_CLASS) && !available) throw new ClassNotFoundException(name);
+            return super.loadClass(name, resolve);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.annotation.GraphId;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+
+import static org.junit.Assert.*;
+
+public class IndexingTypeCounterTest {
+    @NodeEntity
+    public static class Thing {
+        @GraphId
+        Long id;
+    }
+
+    private ImpermanentGraphDatabase gdb;
+    private DelegatingGraphDatabase graphDatabase;
+    private IndexingNodeTypeRepresentationStrategy counting;
+    private TypeCounter typeCounter;
+    private Transaction tx;
+
+    @Before
+    public void setUp() throws Exception {
+        gdb = new ImpermanentGraphDatabase();
+        graphDatabase = new DelegatingGraphDatabase(gdb);
+        counting = new IndexingNodeTypeRepresentationStrategy(graphDatabase, 2);
+        typeCounter = new TypeCounter(graphDatabase, IndexingNodeTypeRepresentationStrategy.COUNTER_PREFIX, 2);
+        tx = gdb.beginTx();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tx.finish();
+        gdb.shutdown();
+    }
+
+    private void create(IndexingNodeTypeRepresentationStrategy strategy) {
+        strategy.postEntityCreation(gdb.createNode(), Thing.class);
+    }
+
+    @Test
+    public void testCountersAreOnlyCreatedByInitialization() throws Exception {
+        create(counting);
+        create(counting);
+        assertFalse(typeCounter.exists(Thing.class.getName()));
+        assertEquals(2, counting.count(Thing.class));
+        assertEquals(2, counting.initializeCounter(Thing.class));
+        create(counting);
+        assertEquals(3, typeCounter.count(Thing.class.getName()));
+        assertEquals(3, counting.count(Thing.class));
+    }
+
+    @Test
+    public void testCountersUpdatedWhileDisabledAreStale() throws Exception {
+        counting.initializeCounter(Thing.class);
+        create(counting);
+        create(new IndexingNodeTypeRepresentationStrategy(graphDatabase));
+        final Node counterNode = typeCounter.findCounterNode(Thing.class.getName());
+        assertTrue(typeCounter.isStale(counterNode));
+        assertEquals(2, counting.count(Thing.class));
+        create(counting);
+        assertEquals(1, typeCounter.count(counterNode));
+
+        assertEquals(3, counting.initializeCounter(Thing.class));
+        assertFalse(typeCounter.isStale(counterNode));
+        create(counting);
+        assertEquals(4, counting.count(Thing.class));
+        assertEquals(4, typeCounter.count(counterNode));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInitializationNeedsCounting() throws Exception {
+        new IndexingNodeTypeRepresentationStrategy(graphDatabase).initializeCounter(Thing.class);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+
+import static org.junit.Assert.assertEquals;
+
+public class SubReferenceCounterShardsTest {
+    public static class Thing {
+    }
+
+    private ImpermanentGraphDatabase gdb;
+    private DelegatingGraphDatabase graphDatabase;
+    private Transaction tx;
+
+    @Before
+    public void setUp() throws Exception {
+        gdb = new ImpermanentGraphDatabase();
+        graphDatabase = new DelegatingGraphDatabase(gdb);
+        tx = gdb.beginTx();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tx.finish();
+        gdb.shutdown();
+    }
+
+    @Test
+    public void testCountsAllShardsWithoutConfiguredShards() throws Exception {
+        final Node thing = gdb.createNode();
+        new SubReferenceNodeTypeRepresentationStrategy(graphDatabase, 4).postEntityCreation(thing, Thing.class);
+        final Node subReference = thing.getSingleRelationship(SubReferenceNodeTypeRepresentationStrategy.INSTANCE_OF_RELATIONSHIP_TYPE, Direction.OUTGOING).getEndNode();
+        final long[] shardIds = (long[]) subReference.getProperty(TypeCounter.SHARDS_KEY);
+        assertEquals(4, shardIds.length);
+        for (long shardId : shardIds) {
+            if (shardId != subReference.getId()) gdb.getNodeById(shardId).setProperty(TypeCounter.COUNTER_KEY, 2L);
+        }
+        final long count = new SubReferenceNodeTypeRepresentationStrategy(graphDatabase, 4).count(Thing.class);
+
+        final SubReferenceNodeTypeRepresentationStrategy unsharded = new SubReferenceNodeTypeRepresentationStrategy(graphDatabase);
+        assertEquals(count, unsharded.count(Thing.class));
+        unsharded.postEntityCreation(gdb.createNode(), Thing.class);
+        assertEquals(count + 1, unsharded.count(Thing.class));
+        assertEquals(count + 1, new SubReferenceNodeTypeRepresentationStrategy(graphDatabase, 4).count(Thing.class));
+    }
+}
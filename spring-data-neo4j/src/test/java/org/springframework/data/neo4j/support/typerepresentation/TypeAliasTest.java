@@ -0,0 +1,118 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.collection.IteratorUtil;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.neo4j.annotation.NodeEntity;
+import org.springframework.data.neo4j.annotation.TypeAlias;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+
+import static org.junit.Assert.*;
+
+public class TypeAliasTest {
+    @NodeEntity @TypeAlias("a")
+    public static class Aliased {
+    }
+
+    @NodeEntity
+    public static class SubOfAliased extends Aliased {
+    }
+
+    @NodeEntity @TypeAlias("a")
+    public static class Conflicting {
+    }
+
+    private ImpermanentGraphDatabase gdb;
+    private DelegatingGraphDatabase graphDatabase;
+    private IndexingNodeTypeRepresentationStrategy strategy;
+    private Transaction tx;
+
+    @Before
+    public void setUp() throws Exception {
+        gdb = new ImpermanentGraphDatabase();
+        graphDatabase = new DelegatingGraphDatabase(gdb);
+        strategy = new IndexingNodeTypeRepresentationStrategy(graphDatabase);
+        tx = gdb.beginTx();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tx.finish();
+        gdb.shutdown();
+    }
+
+    private Node createEntityNode(Class<?> type) {
+        final Node node = gdb.createNode();
+        strategy.postEntityCreation(node, type);
+        return node;
+    }
+
+    @Test
+    public void testWritesAndResolvesAlias() {
+        final Node node = createEntityNode(Aliased.class);
+        assertEquals("a", node.getProperty(IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME));
+        assertEquals(Aliased.class, strategy.getJavaType(node));
+        assertEquals(Aliased.class, new IndexingNodeTypeRepresentationStrategy(graphDatabase).getJavaType(node));
+        assertEquals(node, IteratorUtil.single(strategy.findAll(Aliased.class)));
+        assertEquals(1, strategy.count(Aliased.class));
+    }
+
+    @Test
+    public void testSubclassIsIndexedWithAliasOfSuperclass() {
+        final Node node = createEntityNode(SubOfAliased.class);
+        assertEquals(SubOfAliased.class.getName(), node.getProperty(IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME));
+        assertEquals(node, IteratorUtil.single(strategy.findAll(Aliased.class)));
+        assertEquals(node, IteratorUtil.single(strategy.findAll(SubOfAliased.class)));
+    }
+
+    @Test(expected = MappingException.class)
+    public void testAliasesMustBeUnique() {
+        createEntityNode(Aliased.class);
+        createEntityNode(Conflicting.class);
+    }
+
+    @Test
+    public void testMigratesClassNamesInChunks() {
+        final Node legacy1 = createLegacyNode();
+        final Node legacy2 = createLegacyNode();
+        final Node aliased = createEntityNode(Aliased.class);
+        assertEquals(3, strategy.count(Aliased.class));
+
+        assertEquals(1, strategy.migrateToAlias(Aliased.class, 1));
+        assertEquals(1, strategy.migrateToAlias(Aliased.class, 1));
+        assertEquals(0, strategy.migrateToAlias(Aliased.class, 1));
+
+        for (Node node : new Node[]{legacy1, legacy2, aliased}) {
+            assertEquals("a", node.getProperty(IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME));
+        }
+        assertEquals(3, IteratorUtil.count(strategy.findAll(Aliased.class)));
+    }
+
+    private Node createLegacyNode() {
+        final Node node = gdb.createNode();
+        node.setProperty(IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME, Aliased.class.getName());
+        gdb.index().forNodes(IndexingNodeTypeRepresentationStrategy.INDEX_NAME).add(node, IndexingNodeTypeRepresentationStrategy.INDEX_KEY, Aliased.class.getName());
+        return node;
+    }
+}
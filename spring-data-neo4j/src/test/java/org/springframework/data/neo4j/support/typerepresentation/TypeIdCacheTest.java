@@ -0,0 +1,142 @@
+/**
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.neo4j.support.typerepresentation;
+
+import org.junit.After;
+import org.junit.Test;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.ImpermanentGraphDatabase;
+import org.springframework.data.neo4j.support.DelegatingGraphDatabase;
+
+import static org.junit.Assert.*;
+
+public class TypeIdCacheTest {
+
+    private ImpermanentGraphDatabase gdb;
+
+    @After
+    public void tearDown() throws Exception {
+        if (gdb != null) gdb.shutdown();
+    }
+
+    @Test
+    public void testRemembersTypesOfIds() {
+        final TypeIdCache cache = new TypeIdCache(10);
+        cache.put(1, String.class);
+        cache.put(2, Integer.class);
+        cache.put(3, String.class);
+        assertEquals(String.class, cache.get(1));
+        assertEquals(Integer.class, cache.get(2));
+        assertEquals(String.class, cache.get(3));
+        assertNull(cache.get(4));
+        cache.remove(1);
+        assertNull(cache.get(1));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testIsClearedWhenFull() {
+        final TypeIdCache cache = new TypeIdCache(2);
+        cache.put(1, String.class);
+        cache.put(2, String.class);
+        cache.put(2, Integer.class);
+        assertEquals(2, cache.size());
+        cache.put(3, String.class);
+        assertEquals(1, cache.size());
+        assertEquals(String.class, cache.get(3));
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testNullTypesAreNotCached() {
+        final TypeIdCache cache = new TypeIdCache(2);
+        cache.put(1, null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCreatedEntitiesAreOnlyCachedWhenRead() {
+        gdb = new ImpermanentGraphDatabase();
+        final TypeIdCache cache = new TypeIdCache(10);
+        final IndexingNodeTypeRepresentationStrategy strategy = new IndexingNodeTypeRepresentationStrategy(new DelegatingGraphDatabase(gdb), 0, cache);
+        Transaction tx = gdb.beginTx();
+        final Node rolledBack = gdb.createNode();
+        strategy.postEntityCreation(rolledBack, String.class);
+        tx.finish();
+        assertEquals(0, cache.size());
+
+        tx = gdb.beginTx();
+        final Node node = gdb.createNode();
+        strategy.postEntityCreation(node, String.class);
+        tx.success();
+        tx.finish();
+        assertNull(cache.get(node.getId()));
+        assertEquals(String.class, strategy.getJavaType(node));
+        assertEquals(String.class, cache.get(node.getId()));
+    }
+
+    @Test
+    public void testEvictsNodesDeletedOrRetypedOutsideTheMappingLayer() {
+        gdb = new ImpermanentGraphDatabase();
+        final TypeIdCache cache = new TypeIdCache(10);
+        assertTrue(cache.registerWith(gdb, Node.class));
+        Transaction tx = gdb.beginTx();
+        final Node deleted = gdb.createNode();
+        final Node retyped = gdb.createNode();
+        final Node changed = gdb.createNode();
+        tx.success();
+        tx.finish();
+        cache.put(deleted.getId(), String.class);
+        cache.put(retyped.getId(), String.class);
+        cache.put(changed.getId(), String.class);
+
+        tx = gdb.beginTx();
+        deleted.delete();
+        retyped.setProperty(IndexingNodeTypeRepresentationStrategy.TYPE_PROPERTY_NAME, Integer.class.getName());
+        changed.setProperty("name", "value");
+        tx.success();
+        tx.finish();
+        assertNull(cache.get(deleted.getId()));
+        assertNull(cache.get(retyped.getId()));
+        assertEquals(String.class, cache.get(changed.getId()));
+    }
+
+    @Test
+    public void testEvictsDeletedRelationships() {
+        gdb = new ImpermanentGraphDatabase();
+        final TypeIdCache cache = new TypeIdCache(10);
+        assertTrue(cache.registerWith(gdb, Relationship.class));
+        Transaction tx = gdb.beginTx();
+        final Node start = gdb.createNode();
+        final Relationship deleted = start.createRelationshipTo(gdb.createNode(), DynamicRelationshipType.withName("knows"));
+        final Relationship kept = start.createRelationshipTo(gdb.createNode(), DynamicRelationshipType.withName("knows"));
+        tx.success();
+        tx.finish();
+        cache.put(deleted.getId(), String.class);
+        cache.put(kept.getId(), String.class);
+
+        tx = gdb.beginTx();
+        deleted.delete();
+        tx.success();
+        tx.finish();
+        assertNull(cache.get(deleted.getId()));
+        assertEquals(String.class, cache.get(kept.getId()));
+    }
+}